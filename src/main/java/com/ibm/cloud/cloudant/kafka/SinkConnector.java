@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,6 +13,7 @@
  */
 package com.ibm.cloud.cloudant.kafka;
 
+import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil;
 import com.ibm.cloud.cloudant.kafka.caching.CachedClientManager;
 import com.ibm.cloud.cloudant.kafka.tasks.SinkConnectorConfig;
@@ -22,7 +23,7 @@ import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.connector.Task;
 
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -53,7 +54,14 @@ public class SinkConnector extends org.apache.kafka.connect.sink.SinkConnector {
 
     @Override
     public List<Map<String, String>> taskConfigs(int maxTasks) {
-        return Collections.nCopies(maxTasks, new HashMap<>(configProperties));
+        // number the tasks in the order Connect numbers them, to name each task's metrics
+        List<Map<String, String>> taskConfigs = new ArrayList<>(maxTasks);
+        for (int i = 0; i < maxTasks; i++) {
+            Map<String, String> taskConfig = new HashMap<>(configProperties);
+            taskConfig.put(InterfaceConst.TASK_NUMBER, Integer.toString(i));
+            taskConfigs.add(taskConfig);
+        }
+        return taskConfigs;
     }
 
     @Override
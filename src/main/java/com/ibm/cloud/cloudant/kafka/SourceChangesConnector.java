@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,29 +13,43 @@
  */
 package com.ibm.cloud.cloudant.kafka;
 
+import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil;
 import com.ibm.cloud.cloudant.kafka.caching.CachedClientManager;
+import com.ibm.cloud.cloudant.kafka.tasks.DatabaseUpdatesFollower;
 import com.ibm.cloud.cloudant.kafka.tasks.SourceChangesConnectorConfig;
 import com.ibm.cloud.cloudant.kafka.validators.ConfigValidator;
 import com.ibm.cloud.cloudant.kafka.tasks.SourceChangesTask;
+import com.ibm.cloud.cloudant.v1.Cloudant;
+import com.ibm.cloud.cloudant.v1.model.DbEvent;
 import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.connector.Task;
+import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceConnector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 public class SourceChangesConnector extends SourceConnector {
 
     private static Logger LOG = LoggerFactory.getLogger(SourceChangesConnector.class);
 
+    private static final long DB_UPDATES_TIMEOUT_MS = 60 * 1000L;
+
+    private static final long DB_UPDATES_RETRY_MS = 1000L;
+
     private Map<String, String> configProperties;
 
+    // null unless following _db_updates for databases matching the pattern
+    private DatabaseUpdatesFollower databaseUpdates = null;
+
     @Override
     public ConfigDef config() {
         return SourceChangesConnectorConfig.CONFIG_DEF;
@@ -44,10 +58,31 @@ public class SourceChangesConnector extends SourceConnector {
     @Override
     public void start(Map<String, String> props) {
         configProperties = props;
+        String dbRegex = props.get(InterfaceConst.DB_REGEX);
+        if (dbRegex != null && !dbRegex.isEmpty() && Boolean.parseBoolean(props.get(InterfaceConst.DB_UPDATES))) {
+            // reconfigure the tasks when a matching database is created or deleted
+            Pattern dbNamePattern = Pattern.compile(dbRegex);
+            databaseUpdates = new DatabaseUpdatesFollower("cloudant-db-updates-connector",
+                    since -> JavaCloudantUtil.getDbUpdates(CachedClientManager.getInstance(configProperties), since, DB_UPDATES_TIMEOUT_MS),
+                    DatabaseUpdatesFollower.SINCE_NOW,
+                    (db, type) -> {
+                        if ((DbEvent.Type.CREATED.equals(type) || DbEvent.Type.DELETED.equals(type))
+                                && dbNamePattern.matcher(db).matches()) {
+                            LOG.info("Database {} {}, reconfiguring tasks", db, type);
+                            context.requestTaskReconfiguration();
+                        }
+                    },
+                    e -> context.raiseError(new ConnectException("Failed to read _db_updates", e)),
+                    DB_UPDATES_RETRY_MS);
+            databaseUpdates.start();
+        }
     }
 
     @Override
     public void stop() {
+        if (databaseUpdates != null) {
+            databaseUpdates.close();
+        }
         CachedClientManager.removeInstance(configProperties);
     }
 
@@ -58,10 +93,60 @@ public class SourceChangesConnector extends SourceConnector {
 
     @Override
     public List<Map<String, String>> taskConfigs(int maxTasks) {
+        List<String> dbs = databases();
+        if (dbs != null) {
+            return databaseTaskConfigs(dbs, maxTasks);
+        }
         if (maxTasks > 1) {
-            LOG.warn("tasks.max requested was {}, but only 1 task supported", maxTasks);
+            LOG.warn("tasks.max requested was {}, but only 1 task supported for a single database", maxTasks);
+        }
+        return Collections.singletonList(new HashMap<>(configProperties));
+    }
+
+    /**
+     * @return the databases to read from a list or pattern, or null if reading a single database
+     */
+    private List<String> databases() {
+        String dbRegex = configProperties.get(InterfaceConst.DB_REGEX);
+        if (dbRegex != null && !dbRegex.isEmpty()) {
+            Cloudant service = CachedClientManager.getInstance(configProperties);
+            return JavaCloudantUtil.getMatchingDbs(service, Pattern.compile(dbRegex));
+        }
+        String dbs = configProperties.get(InterfaceConst.DBS);
+        if (dbs != null && !dbs.trim().isEmpty()) {
+            List<String> dbList = new ArrayList<>();
+            for (String db : dbs.split(",")) {
+                if (!db.trim().isEmpty()) {
+                    dbList.add(db.trim());
+                }
+            }
+            return dbList;
+        }
+        return null;
+    }
+
+    // Spread the databases round-robin between the tasks, each task reading its own list
+    private List<Map<String, String>> databaseTaskConfigs(List<String> dbs, int maxTasks) {
+        if (dbs.isEmpty()) {
+            LOG.warn("No databases to read changes from");
+            return Collections.emptyList();
+        }
+        int tasks = Math.min(maxTasks, dbs.size());
+        List<List<String>> taskDbs = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            taskDbs.add(new ArrayList<>());
+        }
+        for (int i = 0; i < dbs.size(); i++) {
+            taskDbs.get(i % tasks).add(dbs.get(i));
+        }
+        List<Map<String, String>> taskConfigs = new ArrayList<>(tasks);
+        for (List<String> task : taskDbs) {
+            Map<String, String> taskConfig = new HashMap<>(configProperties);
+            taskConfig.remove(InterfaceConst.DB_REGEX);
+            taskConfig.put(InterfaceConst.DBS, String.join(",", task));
+            taskConfigs.add(taskConfig);
         }
-        return Collections.nCopies(maxTasks, new HashMap<>(configProperties));
+        return taskConfigs;
     }
 
     @Override
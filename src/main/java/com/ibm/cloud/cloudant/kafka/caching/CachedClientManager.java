@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -17,6 +17,7 @@ import com.ibm.cloud.cloudant.internal.ServiceFactory;
 import com.ibm.cloud.cloudant.v1.Cloudant;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 import static com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil.VERSION;
@@ -25,6 +26,8 @@ public class CachedClientManager {
 
     // Cloudant clients, keyed by connector name
     static Map<String, Cloudant> clientCache = new ConcurrentHashMap<>();
+    // names of the databases known to exist, keyed by connector name
+    static Map<String, Set<String>> knownDbsCache = new ConcurrentHashMap<>();
 
     private CachedClientManager() {
         // no instantiation
@@ -35,9 +38,15 @@ public class CachedClientManager {
         return clientCache.computeIfAbsent(connectorName, p -> ServiceFactory.getInstance(props, VERSION));
     }
 
+    public static Set<String> getKnownDbs(Map<String, String> props) {
+        String connectorName = props.get("name");
+        return knownDbsCache.computeIfAbsent(connectorName, p -> ConcurrentHashMap.newKeySet());
+    }
+
     public static void removeInstance(Map<String, String> props) {
         String connectorName = props.get("name");
         clientCache.remove(connectorName);
+        knownDbsCache.remove(connectorName);
     }
 
 }
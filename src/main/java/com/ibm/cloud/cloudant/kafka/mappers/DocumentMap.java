@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.mappers;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import com.ibm.cloud.cloudant.kafka.mappers.DocumentToSourceRecord.MetaProperty;
+import com.ibm.cloud.cloudant.kafka.utils.NumberSafeView;
+import com.ibm.cloud.cloudant.v1.model.Document;
+
+/**
+ * A read-only Map view of a document: its non-null meta properties overlaid by its other
+ * properties, as if they were put into one map in that order.
+ *
+ * Nothing is copied. Property values are read through {@link NumberSafeView}, so numbers are
+ * converted, and nested maps and lists wrapped, only when they are read.
+ */
+final class DocumentMap extends AbstractMap<String, Object> {
+
+    private static final MetaProperty[] META_PROPERTY_VALUES = MetaProperty.values();
+    private static final Map<String, MetaProperty> META_PROPERTIES = new HashMap<>();
+
+    static {
+        for (MetaProperty metaProp : META_PROPERTY_VALUES) {
+            META_PROPERTIES.put(metaProp.toString(), metaProp);
+        }
+    }
+
+    private final Document document;
+    // the live names of the properties, Document.getProperties() would copy them
+    private final Set<String> names;
+    // counted on first use
+    private int size = -1;
+
+    DocumentMap(Document document) {
+        this.document = document;
+        this.names = document.getPropertyNames();
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (names.contains(key)) {
+            return NumberSafeView.of(document.get((String) key));
+        }
+        MetaProperty metaProp = META_PROPERTIES.get(key);
+        return (metaProp == null) ? null : metaProp.getValueFromDoc(document);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (names.contains(key)) {
+            return true;
+        }
+        MetaProperty metaProp = META_PROPERTIES.get(key);
+        return metaProp != null && metaProp.getValueFromDoc(document) != null;
+    }
+
+    @Override
+    public int size() {
+        if (size < 0) {
+            int count = names.size();
+            for (MetaProperty metaProp : META_PROPERTY_VALUES) {
+                if (isVisible(metaProp)) {
+                    count++;
+                }
+            }
+            size = count;
+        }
+        return size;
+    }
+
+    // a meta property is in the map if it is set and not overlaid by a property of the same name
+    private boolean isVisible(MetaProperty metaProp) {
+        return metaProp.getValueFromDoc(document) != null && !names.contains(metaProp.toString());
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return DocumentMap.this.size();
+            }
+        };
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+
+        private final MetaProperty[] metaProps = META_PROPERTY_VALUES;
+        private final Iterator<String> propertyNames = names.iterator();
+        // the index of the next visible meta property, or metaProps.length once they are done
+        private int metaIndex = -1;
+
+        private EntryIterator() {
+            advanceMeta();
+        }
+
+        private void advanceMeta() {
+            do {
+                metaIndex++;
+            } while (metaIndex < metaProps.length && !isVisible(metaProps[metaIndex]));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return metaIndex < metaProps.length || propertyNames.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (metaIndex < metaProps.length) {
+                MetaProperty metaProp = metaProps[metaIndex];
+                advanceMeta();
+                return new SimpleImmutableEntry<>(metaProp.toString(), metaProp.getValueFromDoc(document));
+            }
+            String name = propertyNames.next();
+            return new SimpleImmutableEntry<>(name, NumberSafeView.of(document.get(name)));
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,10 +13,10 @@
  */
 package com.ibm.cloud.cloudant.kafka.mappers;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
+import java.util.Optional;
 import java.util.function.Function;
 
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
@@ -25,11 +25,19 @@ import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.source.SourceRecord;
 import com.ibm.cloud.cloudant.kafka.utils.CloudantConst;
-import com.ibm.cloud.cloudant.kafka.utils.NumberSafeMap;
 import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
 import com.ibm.cloud.cloudant.v1.model.Document;
 
-public class DocumentToSourceRecord implements BiFunction<String, ChangesResultItem, SourceRecord> {
+/**
+ * Converts a change to a record for each topic. The change is converted once, and the records for
+ * all the topics share the same key, value and offset, which are not modified after conversion.
+ *
+ * The value is a read-only view of the document (see {@link DocumentMap}), nothing is copied.
+ * Documents read with {@link com.ibm.cloud.cloudant.kafka.utils.NarrowingGson} have numbers that
+ * are already types that Kafka Connect supports; other numbers are converted when they are read.
+ * The value of a {@link RawChangesResultItem} is the JSON bytes of its document.
+ */
+public class DocumentToSourceRecord implements Function<ChangesResultItem, List<SourceRecord>> {
 
     // Record key schema is {"_id": doc_id, "cloudant.url": url, "cloudant.db": db}
     public static final Schema RECORD_KEY_SCHEMA = SchemaBuilder.struct()
@@ -41,6 +49,8 @@ public class DocumentToSourceRecord implements BiFunction<String, ChangesResultI
     // We can't use map(Schema.STRING_SCHEMA, null) as no schema (null) is not permitted for Kafka Connect's Map schema values.
     // So we just use a `null` and the map should be inferred from its Java class.
     private static final Schema RECORD_VALUE_SCHEMA = null;
+    // Raw record value is the JSON bytes of the document
+    private static final Schema RAW_RECORD_VALUE_SCHEMA = Schema.OPTIONAL_BYTES_SCHEMA;
 
     enum MetaProperty {
 
@@ -74,43 +84,45 @@ public class DocumentToSourceRecord implements BiFunction<String, ChangesResultI
 
     private final Map<String, String> partition;
     private final Function<String, Map<String, String>> offsetFunction;
+    private final List<String> topics;
 
-    public DocumentToSourceRecord(Map<String, String> partition, Function<String, Map<String, String>> offsetFunction) {
+    public DocumentToSourceRecord(Map<String, String> partition, Function<String, Map<String, String>> offsetFunction,
+                                  List<String> topics) {
         this.partition = partition;
         this.offsetFunction = offsetFunction;
+        this.topics = topics;
     }
 
     @Override
-    public SourceRecord apply(String topic, ChangesResultItem changesResultItem) {
-        return new SourceRecord(partition,
-                offsetFunction.apply(changesResultItem.getSeq()),
-                topic,
-                RECORD_KEY_SCHEMA,
-                new Struct(RECORD_KEY_SCHEMA)
-                        .put(CloudantConst.CLOUDANT_DOC_ID, changesResultItem.getId())
-                        .put(InterfaceConst.DB, partition.get(InterfaceConst.DB))
-                        .put(InterfaceConst.URL, partition.get(InterfaceConst.URL)),
-                RECORD_VALUE_SCHEMA,
-                documentToMap(changesResultItem.getDoc()));
+    public List<SourceRecord> apply(ChangesResultItem changesResultItem) {
+        Map<String, String> offset = offsetFunction.apply(changesResultItem.getSeq());
+        Struct key = new Struct(RECORD_KEY_SCHEMA)
+                .put(CloudantConst.CLOUDANT_DOC_ID, changesResultItem.getId())
+                .put(InterfaceConst.DB, partition.get(InterfaceConst.DB))
+                .put(InterfaceConst.URL, partition.get(InterfaceConst.URL));
+        Schema valueSchema;
+        Object value;
+        if (changesResultItem instanceof RawChangesResultItem) {
+            valueSchema = RAW_RECORD_VALUE_SCHEMA;
+            value = ((RawChangesResultItem) changesResultItem).getRawDoc();
+        } else {
+            valueSchema = RECORD_VALUE_SCHEMA;
+            value = documentToMap(changesResultItem.getDoc());
+        }
+        boolean deleted = Optional.ofNullable(changesResultItem.isDeleted()).orElse(false);
+        List<SourceRecord> records = new ArrayList<>(deleted ? 2 * topics.size() : topics.size());
+        for (String topic : topics) {
+            SourceRecord record = new SourceRecord(partition, offset, topic, RECORD_KEY_SCHEMA, key, valueSchema, value);
+            records.add(record);
+            if (deleted) {
+                // row is deleted, produce a tombstone message from the record as well
+                records.add(record.newRecord(record.topic(), record.kafkaPartition(), record.keySchema(), record.key(), null, null, record.timestamp()));
+            }
+        }
+        return records;
     }
 
     Map<String, Object> documentToMap(Document document) {
-        Map<String, Object> fixedProperties = getFixedProperties(document);
-        Map<String, Object> dynamicProperties = Collections.unmodifiableMap(document.getProperties());
-        Map<String, Object> map = new NumberSafeMap(fixedProperties.size() + dynamicProperties.size());
-        map.putAll(fixedProperties);
-        map.putAll(dynamicProperties);
-        return Collections.unmodifiableMap(map);
-    }
-
-    private final Map<String, Object> getFixedProperties(Document document) {
-        Map<String, Object> map = new HashMap<>(MetaProperty.values().length);
-        for (MetaProperty metaProp : MetaProperty.values()) {
-            Object value = metaProp.getValueFromDoc(document);
-            if (value != null) {
-                map.put(metaProp.toString(), value);
-            }
-        }
-        return Collections.unmodifiableMap(map);
+        return new DocumentMap(document);
     }
 }
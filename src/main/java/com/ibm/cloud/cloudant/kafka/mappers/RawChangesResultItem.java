@@ -0,0 +1,51 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.mappers;
+
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.Document;
+
+/**
+ * A change whose document is kept as the JSON bytes of the changes response, unparsed.
+ *
+ * Only the sequence, id and deleted flag of the change are read. Its document has only the
+ * {@code _id}, {@code _rev} and {@code _deleted} of the raw document, and its changes are not
+ * read.
+ */
+public class RawChangesResultItem extends ChangesResultItem {
+
+    private final byte[] rawDoc;
+
+    /**
+     * @param seq the sequence of the change
+     * @param id the id of the document
+     * @param deleted whether the change is a deletion, or null if not given
+     * @param doc a stub of the document, or null if the change has no document
+     * @param rawDoc the JSON bytes of the document, or null if the change has no document
+     */
+    public RawChangesResultItem(String seq, String id, Boolean deleted, Document doc, byte[] rawDoc) {
+        this.seq = seq;
+        this.id = id;
+        this.deleted = deleted;
+        this.doc = doc;
+        this.rawDoc = rawDoc;
+    }
+
+    /**
+     * @return the JSON bytes of the document, or null if the change has no document
+     */
+    public byte[] getRawDoc() {
+        return rawDoc;
+    }
+}
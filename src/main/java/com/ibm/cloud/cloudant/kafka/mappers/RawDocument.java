@@ -0,0 +1,39 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.mappers;
+
+/**
+ * The JSON bytes of a document, a JSON object, to be written as they are.
+ *
+ * The bytes are written with {@link com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil#batchWrite},
+ * which splices them into the {@code _bulk_docs} request body without parsing them.
+ */
+public final class RawDocument {
+
+    private final byte[] json;
+
+    /**
+     * @param json the JSON bytes of the document, a JSON object
+     */
+    public RawDocument(byte[] json) {
+        this.json = json;
+    }
+
+    /**
+     * @return the JSON bytes of the document
+     */
+    public byte[] getJson() {
+        return json;
+    }
+}
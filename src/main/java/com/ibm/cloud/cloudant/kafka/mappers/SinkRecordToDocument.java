@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,52 +13,85 @@
  */
 package com.ibm.cloud.cloudant.kafka.mappers;
 
-import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.cloudant.kafka.utils.RawJsonScanner;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonWriter;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
-import org.apache.kafka.connect.data.Schema.Type;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.header.Header;
 import org.apache.kafka.connect.sink.SinkRecord;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
-public class SinkRecordToDocument implements Function<SinkRecord, Document> {
+/**
+ * Converts a record to a {@link RawDocument} of the JSON bytes of its document. A Map or Struct
+ * value is written straight to JSON as it is converted, in the same way as the SDK serializes a
+ * document of its members. A byte[] or String value, as from ByteArrayConverter or
+ * StringConverter, is taken to be the JSON of the document and its bytes are only checked to be a
+ * JSON object.
+ */
+public class SinkRecordToDocument implements Function<SinkRecord, RawDocument> {
 
     static final String HEADER_DOC_ID_KEY = "cloudant_doc_id";
 
-    public Document apply(SinkRecord record) {
-        Document document = new Document();
-        document.setProperties(toMap(record));
-        return document;
+    private static final String DOC_ID = "_id";
+
+    // the Gson the SDK serializes request bodies with
+    private static final Gson GSON = GsonSingleton.getGsonWithoutPrettyPrinting();
+
+    /**
+     * @param record the record
+     * @return the document of the record
+     * @throws IllegalArgumentException if the record value cannot be converted to a document
+     */
+    public RawDocument apply(SinkRecord record) {
+        if (isJson(record)) {
+            Object value = record.value();
+            byte[] json = (value instanceof String) ? ((String) value).getBytes(StandardCharsets.UTF_8) : (byte[]) value;
+            return new RawDocument(toJson(record, json));
+        }
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (JsonWriter writer = GSON.newJsonWriter(new OutputStreamWriter(json, StandardCharsets.UTF_8))) {
+            if (record.value() == null) {
+                writer.beginObject().endObject();
+            } else if (valueType(record) == Schema.Type.MAP) {
+                Map<?, ?> map = (Map<?, ?>) record.value();
+                writeMap(map, true, map.isEmpty() ? null : getHeaderForDocId(record), writer);
+            } else {
+                Struct struct = (Struct) record.value();
+                writeStruct(struct, true, struct.schema().fields().isEmpty() ? null : getHeaderForDocId(record), writer);
+            }
+        } catch (IOException e) {
+            // not thrown when writing to a byte array
+            throw new IllegalStateException(e);
+        }
+        return new RawDocument(json.toByteArray());
     }
 
-    private Map<String, Object> toMap(SinkRecord record) {
-        if (record.value() == null) {
-            return Collections.emptyMap();
-        }
+    // the type of a record value, MAP or STRUCT, checking the value is of that type
+    private static Schema.Type valueType(SinkRecord record) {
         // we can convert from a struct or a map - assume a map when a value schema is not provided
         // NB arrays not supported at top level - they are not valid json
         Schema.Type schemaType = record.valueSchema() == null ? Schema.Type.MAP : record.valueSchema().type();
-        Map<String, Object> toReturn = new HashMap<>();
         switch (schemaType) {
             case MAP:
                 if (record.value() instanceof Map) {
-                    convertMap((Map<?,?>) record.value(), toReturn);
-                    break;
+                    return schemaType;
                 } else {
                     throw new IllegalArgumentException(String.format("Type %s not supported with schema of type Map (or no schema)",
                             record.value().getClass()));
                 }
             case STRUCT:
                 if (record.value() instanceof Struct) {
-                    convertStruct((Struct) record.value(), toReturn);
-                    break;
+                    return schemaType;
                 } else {
                     throw new IllegalArgumentException(String.format("Type %s not supported with schema of type Struct",
                             record.value().getClass()));
@@ -66,86 +99,127 @@ public class SinkRecordToDocument implements Function<SinkRecord, Document> {
             default:
                 throw new IllegalArgumentException(String.format("Schema type %s not supported", record.valueSchema().type()));
         }
-        // Check if custom header exists on the record and use the value for the document's id
-        String headerValue = getHeaderForDocId(record);
-        if (!toReturn.isEmpty() && headerValue != null && !headerValue.isEmpty()) {
-            toReturn.put("_id", headerValue);
-        }
-        return toReturn;
     }
 
-    // convert struct to map by adding key/values to passed in map, and returning it 
-    private Map<String, Object> convertStruct(Struct struct, Map<String, Object> outMap) {
-        Schema schema = struct.schema();
+    private static boolean isJson(SinkRecord record) {
+        if (!(record.value() instanceof byte[]) && !(record.value() instanceof String)) {
+            return false;
+        }
+        Schema schema = record.valueSchema();
+        return schema == null || schema.type() == Schema.Type.BYTES || schema.type() == Schema.Type.STRING;
+    }
 
-        // iterate fields and add to map
-        for (Field f : schema.fields()) {
-            Object value = struct.get(f);
-            outMap.put(f.name(), convertItemFromStruct(f.schema().type(), value));
+    // check the JSON is an object, and set its _id from the custom header if the record has one,
+    // by writing the header _id and the other members into a new object
+    private byte[] toJson(SinkRecord record, byte[] json) {
+        String headerValue = getHeaderForDocId(record);
+        ByteArrayOutputStream withId = null;
+        if (headerValue != null && !headerValue.isEmpty()) {
+            withId = new ByteArrayOutputStream(json.length + headerValue.length() + 8);
+            withId.write('{');
+            byte[] idMember = ("\"" + DOC_ID + "\":" + GSON.toJson(headerValue))
+                    .getBytes(StandardCharsets.UTF_8);
+            withId.write(idMember, 0, idMember.length);
         }
-        return outMap;
+        try {
+            RawJsonScanner scanner = new RawJsonScanner(json);
+            if (!scanner.begin('{', '}')) {
+                // the _id is not set on an empty document
+                withId = null;
+            } else {
+                do {
+                    scanner.peek();
+                    int start = (int) scanner.position();
+                    String name = scanner.readString();
+                    scanner.consume(':');
+                    scanner.skipValue();
+                    if (withId != null && !DOC_ID.equals(name)) {
+                        withId.write(',');
+                        withId.write(json, start, (int) scanner.position() - start);
+                    }
+                } while (scanner.hasNext('}'));
+            }
+            if (scanner.peek() != -1) {
+                throw new IOException("Unexpected content after the JSON object");
+            }
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Record value is not a JSON object: " + e.getMessage(), e);
+        }
+        if (withId == null) {
+            return json;
+        }
+        withId.write('}');
+        return withId.toByteArray();
     }
 
-    // convert kafka map to map by adding key/values to passed in map, and returning it
-    private Map<String, Object> convertMap(Map<?,?> inMap, Map<String, Object> outMap) {
+    // write a struct as an object, with the _id first if one is given
+    private void writeStruct(Struct struct, boolean document, String id, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeId(id, writer);
+        for (Field f : struct.schema().fields()) {
+            if (!isId(id, f.name())) {
+                writeMember(f.name(), struct.get(f), document, writer);
+            }
+        }
+        writer.endObject();
+    }
 
-        // iterate over keys and add to map
-        for (Map.Entry<?, ?> entry : inMap.entrySet()) {
+    // write a map as an object, with the _id first if one is given
+    private void writeMap(Map<?,?> map, boolean document, String id, JsonWriter writer) throws IOException {
+        writer.beginObject();
+        writeId(id, writer);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
             if (entry.getKey() instanceof String) {
-                outMap.put((String) entry.getKey(), convertItem(entry.getValue()));
+                if (!isId(id, (String) entry.getKey())) {
+                    writeMember((String) entry.getKey(), entry.getValue(), document, writer);
+                }
             } else {
                 throw new IllegalArgumentException("unsupported type in map key " + entry.getKey().getClass());
             }
         }
-        return outMap;
+        writer.endObject();
     }
 
-    // could be an array, list, or collection: convert each item in turn and return list
-    private Collection<?> convertCollection(Collection<?> c) {
-        return c.stream().map(this::convertItem).collect(Collectors.toList());
+    private void writeMember(String name, Object value, boolean document, JsonWriter writer) throws IOException {
+        writer.name(name);
+        if (value == null && document) {
+            // a document is serialized with its null members, but the maps in it are not
+            writer.setSerializeNulls(true);
+            writer.nullValue();
+            writer.setSerializeNulls(GSON.serializeNulls());
+        } else {
+            writeItem(value, writer);
+        }
     }
 
-    // helper for convertStruct
-    // get field value, recursing if necessary for struct types
-    private Object convertItemFromStruct(Type type, Object value) {
-
-        switch (type) {
-            // primitive types: just return value (JSON serialiser will deal with conversion later)
-            case BOOLEAN:
-            case BYTES:
-            case FLOAT32:
-            case FLOAT64:
-            case INT16:
-            case INT32:
-            case INT64:
-            case INT8:
-            case STRING:
-                return value;
-            // map/struct cases: chain a new map onto this one, as the value, and recursively fill in its contents 
-            case MAP:
-                return convertMap((Map<?,?>) value, new HashMap<>());
-            case STRUCT:
-                return convertStruct((Struct) value, new HashMap<>());
-            // array case:
-            case ARRAY:
-                return convertCollection((Collection<?>) value);
-            default:
-                throw new IllegalArgumentException("unknown type " + type);
+    private static void writeId(String id, JsonWriter writer) throws IOException {
+        if (id != null && !id.isEmpty()) {
+            writer.name(DOC_ID).value(id);
         }
+    }
 
+    // whether a member is the _id, replaced by the one given
+    private static boolean isId(String id, String name) {
+        return id != null && !id.isEmpty() && DOC_ID.equals(name);
     }
 
-    // helper for convertMap, convertCollection
-    private Object convertItem(Object value) {
+    // helper for writeMap, writeStruct
+    private void writeItem(Object value, JsonWriter writer) throws IOException {
         if (value instanceof Map) {
-            return convertMap((Map<?,?>) value, new HashMap<>());
+            writeMap((Map<?,?>) value, false, null, writer);
         } else if (value instanceof Struct) {
-            return convertStruct((Struct) value, new HashMap<>());
+            writeStruct((Struct) value, false, null, writer);
         } else if (value instanceof Collection) {
-            return convertCollection((Collection<?>) value);
+            writer.beginArray();
+            for (Object item : (Collection<?>) value) {
+                writeItem(item, writer);
+            }
+            writer.endArray();
+        } else if (value == null) {
+            writer.nullValue();
         } else {
-            // assume that JSON serialiser knows how to deal with it
-            return value;
+            // the JSON serialiser writes it as it would in the document
+            GSON.toJson(value, value.getClass(), writer);
         }
     }
 
@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Chooses the {@code limit} of each {@code _changes} request from the measured cost of the
+ * batches before it, aiming for batches that take a target time to fetch and produce.
+ *
+ * The cost per row is a moving average of the fetch time of full batches and the produce time
+ * of all batches. A batch that was not full was cut short by the end of the feed, so its fetch
+ * time includes waiting for changes and says nothing about the cost of a row; the limit is left
+ * alone while tailing the feed. The limit is also kept small enough for the average row size to
+ * fit in the byte budget of a batch. It falls straight to the new size but at most doubles at
+ * each step, and always stays within its bounds.
+ */
+public class AdaptiveBatchSize {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AdaptiveBatchSize.class);
+
+    // the weight of the latest batch in the moving averages
+    private static final double SMOOTHING = 0.3;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyMs;
+    private final long maxBatchBytes;
+
+    // guarded by this
+    private int limit;
+    // NaN until measured
+    private double fetchMsPerRow = Double.NaN;
+    private double produceMsPerRow = Double.NaN;
+    private double bytesPerRow = Double.NaN;
+
+    /**
+     * @param initialLimit the limit to start with
+     * @param minLimit the smallest limit to use
+     * @param maxLimit the largest limit to use
+     * @param targetLatencyMs the time to fetch and produce a batch to aim for
+     * @param maxBatchBytes the response size at which a batch is cut short
+     */
+    public AdaptiveBatchSize(int initialLimit, int minLimit, int maxLimit, long targetLatencyMs, long maxBatchBytes) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.targetLatencyMs = targetLatencyMs;
+        this.maxBatchBytes = maxBatchBytes;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * @return the limit for the next request
+     */
+    public synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * Record a fetched batch.
+     *
+     * @param requestLimit the limit the batch was requested with
+     * @param batch the batch read
+     * @param fetchMs the time to request and read the batch
+     */
+    public synchronized void recordFetch(int requestLimit, ChangesBatch batch, long fetchMs) {
+        int rows = batch.getResults().size();
+        if (rows == 0) {
+            return;
+        }
+        bytesPerRow = average(bytesPerRow, (double) batch.getBytes() / rows);
+        if (rows < requestLimit && batch.getBytes() < maxBatchBytes) {
+            // caught up with the feed
+            return;
+        }
+        fetchMsPerRow = average(fetchMsPerRow, (double) fetchMs / rows);
+        adjust();
+    }
+
+    /**
+     * Record the time taken to produce a batch, from returning its records to the next poll.
+     *
+     * @param rows the number of rows in the batch
+     * @param produceMs the time to produce the batch
+     */
+    public synchronized void recordProduce(int rows, long produceMs) {
+        if (rows == 0) {
+            return;
+        }
+        produceMsPerRow = average(produceMsPerRow, (double) produceMs / rows);
+    }
+
+    private void adjust() {
+        double msPerRow = fetchMsPerRow + (Double.isNaN(produceMsPerRow) ? 0 : produceMsPerRow);
+        // a batch faster than the clock can measure is below the target at any size
+        double next = (msPerRow > 0) ? targetLatencyMs / msPerRow : Double.MAX_VALUE;
+        if (bytesPerRow > 0) {
+            next = Math.min(next, maxBatchBytes / bytesPerRow);
+        }
+        int newLimit = clamp((int) Math.min(next, 2.0 * limit));
+        if (newLimit != limit) {
+            LOG.debug("Batch limit {} -> {} ({} ms/row, {} bytes/row)", limit, newLimit, msPerRow, bytesPerRow);
+            limit = newLimit;
+        }
+    }
+
+    private int clamp(int value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    private static double average(double average, double value) {
+        return Double.isNaN(average) ? value : average + SMOOTHING * (value - average);
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import org.apache.kafka.connect.errors.ConnectException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Writes batches of documents with concurrent {@code _bulk_docs} requests, up to a number of
+ * requests in flight. Batches submitted while that many are in flight wait in turn.
+ */
+public class BulkDocsWriter implements AutoCloseable {
+
+    private final Function<List<RawDocument>, List<DocumentResult>> bulkDocs;
+    private final ExecutorService executor;
+
+    /**
+     * @param name the name prefix of the writer threads
+     * @param bulkDocs makes a {@code _bulk_docs} request for the documents
+     * @param concurrency the maximum number of requests in flight
+     */
+    public BulkDocsWriter(String name, Function<List<RawDocument>, List<DocumentResult>> bulkDocs, int concurrency) {
+        this.bulkDocs = bulkDocs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start writing a batch, once fewer than the maximum number of requests are in flight. An empty
+     * batch is complete without a request.
+     *
+     * @param batch the documents to write
+     * @return the result of each document of the batch, in order, once written
+     */
+    public Write submit(List<RawDocument> batch) {
+        if (batch.isEmpty()) {
+            Write write = new Write(Collections::emptyList);
+            write.run();
+            return write;
+        }
+        Write write = new Write(() -> bulkDocs.apply(batch));
+        executor.execute(write);
+        return write;
+    }
+
+    /**
+     * Wait for a batch to be written.
+     *
+     * @param write the write of the batch, from {@link #submit(List)}
+     * @return the result of each document of the batch, in order
+     * @throws java.util.concurrent.CancellationException if the write was skipped
+     * @throws RuntimeException the failure of the write
+     */
+    public static List<DocumentResult> results(Future<List<DocumentResult>> write) {
+        try {
+            return write.get();
+        } catch (InterruptedException e) {
+            write.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ConnectException("Interrupted writing documents", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ConnectException("Failed to write documents", e.getCause());
+        }
+    }
+
+    /**
+     * The write of a batch, which can be skipped until its request starts.
+     */
+    public static final class Write extends FutureTask<List<DocumentResult>> {
+
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        private Write(Callable<List<DocumentResult>> request) {
+            super(request);
+        }
+
+        @Override
+        public void run() {
+            if (started.compareAndSet(false, true)) {
+                super.run();
+            }
+        }
+
+        /**
+         * Cancel the write if its request has not started, a request in flight is not affected.
+         *
+         * @return true if the write was skipped, so the batch is not written
+         */
+        public boolean skip() {
+            return started.compareAndSet(false, true) && cancel(false);
+        }
+    }
+
+    /**
+     * Stop the writer threads.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.kafka.utils.CountingInputStream;
+import com.ibm.cloud.cloudant.kafka.utils.NarrowingGson;
+import com.ibm.cloud.cloudant.v1.model.BulkGetQueryDocument;
+import com.ibm.cloud.cloudant.v1.model.BulkGetResult;
+import com.ibm.cloud.cloudant.v1.model.BulkGetResultDocument;
+import com.ibm.cloud.cloudant.v1.model.BulkGetResultItem;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import org.apache.kafka.connect.errors.ConnectException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Fetches the documents for changes read without {@code include_docs}, using concurrent
+ * {@code _bulk_get} requests of up to a chunk size of documents each.
+ *
+ * Each document is requested at the revision in its change row with {@code latest=true}, so a
+ * deleted document returns its deletion stub. The returned rows keep the order of the batch. A
+ * document that cannot be fetched fails the whole batch, so no record is produced without it.
+ * The size of the returned batch includes the {@code _bulk_get} responses, so a batch held by a
+ * prefetcher counts its documents.
+ */
+public class BulkGetDocumentFetcher implements AutoCloseable {
+
+    private final BiFunction<String, List<BulkGetQueryDocument>, InputStream> bulkGet;
+    private final int chunkSize;
+    private final ExecutorService executor;
+
+    /**
+     * @param name the name prefix of the fetcher threads
+     * @param bulkGet makes a {@code _bulk_get} request to a database (first argument) for the documents (second argument)
+     *                and returns the response body
+     * @param chunkSize the maximum number of documents in each request
+     * @param concurrency the maximum number of requests in flight
+     */
+    public BulkGetDocumentFetcher(String name, BiFunction<String, List<BulkGetQueryDocument>, InputStream> bulkGet,
+                                  int chunkSize, int concurrency) {
+        this.bulkGet = bulkGet;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread thread = new Thread(r, name + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param db the database the changes are from
+     * @param batch changes without documents
+     * @return the changes with their documents
+     */
+    public ChangesBatch apply(String db, ChangesBatch batch) {
+        List<ChangesResultItem> rows = batch.getResults();
+        List<Future<List<ChangesResultItem>>> chunks = new ArrayList<>();
+        AtomicLong bytes = new AtomicLong(batch.getBytes());
+        for (int i = 0; i < rows.size(); i += chunkSize) {
+            List<ChangesResultItem> chunk = rows.subList(i, Math.min(i + chunkSize, rows.size()));
+            chunks.add(executor.submit(() -> fetch(db, chunk, bytes)));
+        }
+        List<ChangesResultItem> results = new ArrayList<>(rows.size());
+        try {
+            for (Future<List<ChangesResultItem>> chunk : chunks) {
+                results.addAll(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new ConnectException("Interrupted fetching documents", e);
+        } catch (ExecutionException e) {
+            chunks.forEach(chunk -> chunk.cancel(true));
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ConnectException("Failed to fetch documents", e.getCause());
+        }
+        return new ChangesBatch(results, batch.getLastSeq(), bytes.get());
+    }
+
+    private List<ChangesResultItem> fetch(String db, List<ChangesResultItem> rows, AtomicLong bytes) {
+        List<BulkGetQueryDocument> docs = rows.stream()
+                .map(row -> new BulkGetQueryDocument.Builder()
+                        .id(row.getId())
+                        .rev(row.getChanges().get(0).getRev())
+                        .build())
+                .collect(Collectors.toList());
+        CountingInputStream in = new CountingInputStream(bulkGet.apply(db, docs));
+        List<BulkGetResultItem> items;
+        // read with the narrowing Gson, so the document numbers need no further conversion
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            items = NarrowingGson.getGson().fromJson(reader, BulkGetResult.class).getResults();
+        } catch (IOException e) {
+            throw new ConnectException("Failed to read documents", e);
+        }
+        bytes.addAndGet(in.getCount());
+        List<ChangesResultItem> results = new ArrayList<>(rows.size());
+        // _bulk_get results are in the order of the requested documents
+        for (int i = 0; i < rows.size(); i++) {
+            results.add(new FetchedChangesResultItem(rows.get(i), document(rows.get(i), items.get(i))));
+        }
+        return results;
+    }
+
+    private static Document document(ChangesResultItem row, BulkGetResultItem item) {
+        DocumentResult error = null;
+        for (BulkGetResultDocument doc : item.getDocs()) {
+            if (doc.getOk() != null) {
+                return doc.getOk();
+            }
+            error = doc.getError();
+        }
+        // e.g. purged since the change was read, fail rather than produce a record without the document
+        throw new ConnectException(String.format("Failed to fetch document %s at revision %s: %s",
+                row.getId(), row.getChanges().get(0).getRev(),
+                (error != null) ? error.getError() + " " + error.getReason() : "no result"));
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * A change row with the document fetched separately.
+     */
+    static class FetchedChangesResultItem extends ChangesResultItem {
+
+        FetchedChangesResultItem(ChangesResultItem row, Document doc) {
+            this.changes = row.getChanges();
+            this.deleted = row.isDeleted();
+            this.id = row.getId();
+            this.seq = row.getSeq();
+            this.doc = doc;
+        }
+    }
+}
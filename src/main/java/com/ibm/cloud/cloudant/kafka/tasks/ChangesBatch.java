@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import java.util.List;
+
+/**
+ * A batch of rows read from a changes feed, with the sequence to continue from and the
+ * size of the response it was read from.
+ */
+public class ChangesBatch {
+
+    private final List<ChangesResultItem> results;
+    private final String lastSeq;
+    private final long bytes;
+
+    public ChangesBatch(List<ChangesResultItem> results, String lastSeq, long bytes) {
+        this.results = results;
+        this.lastSeq = lastSeq;
+        this.bytes = bytes;
+    }
+
+    public List<ChangesResultItem> getResults() {
+        return results;
+    }
+
+    public String getLastSeq() {
+        return lastSeq;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+}
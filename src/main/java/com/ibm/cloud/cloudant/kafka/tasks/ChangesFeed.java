@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A source of changes batches that reads from Cloudant in the background.
+ */
+public interface ChangesFeed extends AutoCloseable {
+
+    /**
+     * Start reading changes in the background.
+     */
+    void start();
+
+    /**
+     * Take the next batch of changes, waiting for one if necessary.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the next batch, or null if none was ready within the timeout or the feed was closed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws RuntimeException the failure reading the feed, once all the changes before it are taken
+     */
+    ChangesBatch poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Stop reading changes and discard any that have not been taken.
+     */
+    @Override
+    void close();
+}
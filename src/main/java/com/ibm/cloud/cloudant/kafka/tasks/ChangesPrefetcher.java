@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Fetches changes batches on a background thread so that the next batch is read from Cloudant
+ * while the previous one is being converted and produced to Kafka.
+ *
+ * The fetcher stops reading ahead when either the number of ready batches or their total
+ * response size reaches its limit, and continues when {@link #poll(long, TimeUnit)} drains them.
+ * A fetch failure is reported by {@link #poll(long, TimeUnit)} after any batches fetched before it.
+ */
+public class ChangesPrefetcher implements ChangesFeed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangesPrefetcher.class);
+
+    private final Function<String, ChangesBatch> fetcher;
+    private final int maxBatches;
+    private final long maxBytes;
+    private final Thread thread;
+
+    // guarded by this
+    private final Deque<ChangesBatch> ready = new ArrayDeque<>();
+    private long readyBytes = 0;
+    private RuntimeException failure = null;
+    private boolean closed = false;
+
+    /**
+     * @param name the name of the fetcher thread
+     * @param fetcher fetches the batch of changes after the given sequence
+     * @param since the sequence to fetch the first batch from
+     * @param maxBatches the maximum number of batches to hold ready
+     * @param maxBytes the maximum total response size of the batches held ready
+     */
+    public ChangesPrefetcher(String name, Function<String, ChangesBatch> fetcher, String since, int maxBatches, long maxBytes) {
+        this.fetcher = fetcher;
+        this.maxBatches = maxBatches;
+        this.maxBytes = maxBytes;
+        this.thread = new Thread(() -> run(since), name);
+        this.thread.setDaemon(true);
+    }
+
+    @Override
+    public void start() {
+        thread.start();
+    }
+
+    private void run(String since) {
+        try {
+            while (awaitCapacity()) {
+                ChangesBatch batch = fetcher.apply(since);
+                since = batch.getLastSeq();
+                synchronized (this) {
+                    if (closed) {
+                        return;
+                    }
+                    ready.add(batch);
+                    readyBytes += batch.getBytes();
+                    notifyAll();
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                if (!closed) {
+                    LOG.error("Failed to fetch changes", e);
+                    failure = e;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
+    private synchronized boolean awaitCapacity() throws InterruptedException {
+        while (!closed && (ready.size() >= maxBatches || readyBytes >= maxBytes)) {
+            wait();
+        }
+        return !closed;
+    }
+
+    @Override
+    public synchronized ChangesBatch poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (ready.isEmpty() && failure == null && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        ChangesBatch batch = ready.poll();
+        if (batch != null) {
+            readyBytes -= batch.getBytes();
+            notifyAll();
+            return batch;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    /**
+     * Stop fetching and discard any ready batches. The result of a fetch in progress is discarded.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            ready.clear();
+            readyBytes = 0;
+            notifyAll();
+        }
+        thread.interrupt();
+    }
+}
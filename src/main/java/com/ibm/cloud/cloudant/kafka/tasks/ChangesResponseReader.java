@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.ibm.cloud.cloudant.kafka.utils.CountingInputStream;
+import com.ibm.cloud.cloudant.kafka.utils.NarrowingGson;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the rows of a {@code _changes} response one at a time as they are parsed, without
+ * materialising the whole response, and stops reading once a byte budget has been used.
+ *
+ * When the budget stops the read, the batch ends at the last row read, so that the next
+ * request continues from the sequence of that row.
+ */
+public class ChangesResponseReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChangesResponseReader.class);
+
+    protected static final String RESULTS = "results";
+    protected static final String LAST_SEQ = "last_seq";
+
+    private final Gson gson = NarrowingGson.getGson();
+    protected final long maxBytes;
+
+    /**
+     * @param maxBytes the number of response bytes after which to stop reading rows, at least one row is always read
+     */
+    public ChangesResponseReader(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Read a changes response. The stream is closed on return, abandoning any rows that were not read.
+     *
+     * @param response the body of the changes response
+     * @return the batch of rows read
+     * @throws IOException if the response could not be read
+     */
+    public ChangesBatch read(InputStream response) throws IOException {
+        List<ChangesResultItem> results = new ArrayList<>();
+        String lastSeq = null;
+        CountingInputStream in = new CountingInputStream(response);
+        try (JsonReader reader = new JsonReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String name = reader.nextName();
+                if (RESULTS.equals(name)) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        ChangesResultItem row = gson.fromJson(reader, ChangesResultItem.class);
+                        lastSeq = row.getSeq();
+                        results.add(row);
+                        if (in.getCount() >= maxBytes && reader.hasNext()) {
+                            LOG.debug("Stop reading changes after {} bytes at seq {}", in.getCount(), lastSeq);
+                            return new ChangesBatch(results, lastSeq, in.getCount());
+                        }
+                    }
+                    reader.endArray();
+                } else if (LAST_SEQ.equals(name)) {
+                    lastSeq = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        return new ChangesBatch(results, lastSeq, in.getCount());
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -34,6 +34,7 @@ public class ConnectorConfig extends AbstractConfig {
     protected static final String DATABASE_GROUP = "Database";
     protected static final String AUTHENTICATION_GROUP = "Authentication";
     protected static final String KAFKA_GROUP = "Kafka";
+    protected static final String PERFORMANCE_GROUP = "Performance";
     protected static final String AUTH_TYPE_DEFAULT = Authenticator.AUTHTYPE_IAM;
     protected static final ListRecommender VALID_AUTHS = new ListRecommender(
             Authenticator.AUTHTYPE_IAM,
@@ -69,6 +70,7 @@ public class ConnectorConfig extends AbstractConfig {
                 // Cloudant DB
                 .define(InterfaceConst.DB,
                         Type.STRING,
+                        NULL_DEFAULT,
                         Importance.HIGH,
                         ResourceBundleUtil.get(MessageKey.CLOUDANT_CONNECTION_DB_DOC),
                         DATABASE_GROUP,
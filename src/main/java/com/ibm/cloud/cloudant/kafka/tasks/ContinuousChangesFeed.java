@@ -0,0 +1,411 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
+import com.ibm.cloud.cloudant.kafka.utils.NarrowingGson;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.sdk.core.service.exception.ServiceResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Reads a continuous changes feed over one long-lived connection, parsing each row as its line
+ * arrives, and hands the rows to {@link #poll(long, TimeUnit)} in micro-batches.
+ *
+ * A micro-batch is returned as soon as it reaches its row count or size limit, or when the
+ * linger time has passed since it was started. The reader stops reading when the rows waiting
+ * to be taken reach their count or size limit. When the server ends the feed, the reader
+ * reconnects from the last sequence it read after a short pause. A connection that fails with
+ * a network error or a retryable server error is retried with an exponential backoff, up to a
+ * number of consecutive attempts; any other failure is thrown from {@link #poll(long, TimeUnit)}.
+ */
+public class ContinuousChangesFeed implements ChangesFeed {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ContinuousChangesFeed.class);
+
+    private static final String LAST_SEQ = "last_seq";
+
+    private static final Gson GSON = NarrowingGson.getGson();
+
+    private final Function<String, InputStream> opener;
+    private final Options options;
+    private final long lingerNanos;
+    private final Thread thread;
+
+    // the sequence the reader has reached, confined to the reader thread
+    private String since;
+
+    // guarded by this
+    private final Deque<Row> rows = new ArrayDeque<>();
+    private long bufferedBytes = 0;
+    private RuntimeException failure = null;
+    private boolean closed = false;
+    private InputStream stream = null;
+
+    /**
+     * @param name the name of the reader thread
+     * @param opener opens a continuous changes feed from the given sequence
+     * @param since the sequence to start reading from
+     * @param options the micro-batch, read-ahead and retry settings
+     */
+    public ContinuousChangesFeed(String name, Function<String, InputStream> opener, String since, Options options) {
+        this.opener = opener;
+        this.options = options;
+        this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(options.lingerMs);
+        this.since = since;
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Read a row of a continuous changes feed, with its document.
+     *
+     * @param line the JSON line
+     * @return the row
+     */
+    public static ChangesResultItem readLine(String line) {
+        return GSON.fromJson(line, ChangesResultItem.class);
+    }
+
+    @Override
+    public void start() {
+        thread.start();
+    }
+
+    private void run() {
+        int retries = 0;
+        long backoffMs = 0;
+        try {
+            while (!isClosed()) {
+                String from = since;
+                try {
+                    read();
+                    retries = 0;
+                    pause(options.reconnectMs);
+                } catch (IOException | RuntimeException e) {
+                    if (isClosed()) {
+                        return;
+                    }
+                    if (!Objects.equals(from, since)) {
+                        // rows were read, so this is a new failure rather than another attempt
+                        retries = 0;
+                    }
+                    if (!isRetryable(e) || retries >= options.maxRetries) {
+                        fail(e);
+                        return;
+                    }
+                    backoffMs = (retries == 0) ? options.retryBackoffMs : Math.min(backoffMs * 2, options.maxRetryBackoffMs);
+                    retries++;
+                    LOG.warn("Failed to read continuous changes, retrying in {} ms", backoffMs, e);
+                    pause(backoffMs);
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting
+        }
+    }
+
+    private static boolean isRetryable(Exception e) {
+        if (e instanceof IOException || e.getCause() instanceof IOException) {
+            // the SDK wraps network errors
+            return true;
+        }
+        if (e instanceof ServiceResponseException) {
+            int status = ((ServiceResponseException) e).getStatusCode();
+            return status == 429 || status >= 500;
+        }
+        return false;
+    }
+
+    private synchronized void fail(Exception e) {
+        if (!closed) {
+            LOG.error("Failed to read continuous changes", e);
+            failure = (e instanceof RuntimeException) ? (RuntimeException) e : new RuntimeException(e);
+            notifyAll();
+        }
+    }
+
+    // wait for the given time, or until closed
+    private synchronized void pause(long ms) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ms);
+        long remaining;
+        while (!closed && (remaining = deadline - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+    }
+
+    /**
+     * Read one connection of the feed, advancing {@link #since} to each row read and to the
+     * last_seq when the feed ends.
+     */
+    private void read() throws IOException, InterruptedException {
+        LOG.debug("Open continuous changes since {}", since);
+        InputStream in = opener.apply(since);
+        synchronized (this) {
+            if (closed) {
+                in.close();
+                return;
+            }
+            stream = in;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    // heartbeat
+                    continue;
+                }
+                ChangesResultItem item = options.rowReader.apply(line);
+                if (item.getId() == null) {
+                    // the feed has ended, this line has the last_seq
+                    JsonElement lastSeq = JsonParser.parseString(line).getAsJsonObject().get(LAST_SEQ);
+                    if (lastSeq != null) {
+                        since = lastSeq.getAsString();
+                    }
+                    return;
+                }
+                since = item.getSeq();
+                offer(new Row(item, utf8Length(line)));
+            }
+        } catch (IOException e) {
+            if (isClosed()) {
+                return;
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                stream = null;
+            }
+        }
+    }
+
+    // the number of bytes of the line in UTF-8, without encoding it
+    private static long utf8Length(String line) {
+        long length = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < line.length() && Character.isLowSurrogate(line.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    private synchronized void offer(Row row) throws InterruptedException {
+        while (!closed && (rows.size() >= options.maxBufferedRows || bufferedBytes >= options.maxBufferedBytes)) {
+            wait();
+        }
+        if (!closed) {
+            rows.add(row);
+            bufferedBytes += row.bytes;
+            notifyAll();
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    @Override
+    public synchronized ChangesBatch poll(long timeout, TimeUnit unit) throws InterruptedException {
+        // wait for the first row
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (rows.isEmpty() && failure == null && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        if (rows.isEmpty()) {
+            if (failure != null) {
+                throw failure;
+            }
+            return null;
+        }
+        // linger for the micro-batch to fill
+        long lingerDeadline = System.nanoTime() + lingerNanos;
+        while (rows.size() < options.maxBatchRows && bufferedBytes < options.maxBatchBytes && failure == null && !closed) {
+            long remaining = lingerDeadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        List<ChangesResultItem> results = new ArrayList<>(Math.min(rows.size(), options.maxBatchRows));
+        long bytes = 0;
+        String lastSeq = null;
+        while (!rows.isEmpty() && results.size() < options.maxBatchRows
+                && (results.isEmpty() || bytes + rows.peek().bytes <= options.maxBatchBytes)) {
+            Row row = rows.poll();
+            results.add(row.item);
+            bytes += row.bytes;
+            lastSeq = row.item.getSeq();
+        }
+        bufferedBytes -= bytes;
+        notifyAll();
+        return new ChangesBatch(results, lastSeq, bytes);
+    }
+
+    /**
+     * Stop reading, closing the connection, and discard any rows that have not been taken.
+     */
+    @Override
+    public void close() {
+        InputStream in;
+        synchronized (this) {
+            closed = true;
+            rows.clear();
+            bufferedBytes = 0;
+            notifyAll();
+            in = stream;
+        }
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException e) {
+                LOG.debug("Failed to close continuous changes", e);
+            }
+        }
+        thread.interrupt();
+    }
+
+    /**
+     * The settings of a {@link ContinuousChangesFeed}, each with a default that can be replaced.
+     */
+    public static class Options {
+
+        private Function<String, ChangesResultItem> rowReader = ContinuousChangesFeed::readLine;
+        private int maxBatchRows = InterfaceConst.DEFAULT_BATCH_SIZE_SOURCE;
+        private long maxBatchBytes = InterfaceConst.DEFAULT_MAX_BATCH_BYTES;
+        private long lingerMs = InterfaceConst.DEFAULT_LINGER_MS;
+        private int maxBufferedRows = InterfaceConst.DEFAULT_BATCH_SIZE_SOURCE;
+        private long maxBufferedBytes = InterfaceConst.DEFAULT_PREFETCH_MAX_BYTES;
+        private long reconnectMs = 1000L;
+        private long retryBackoffMs = 1000L;
+        private long maxRetryBackoffMs = 30 * 1000L;
+        private int maxRetries = 10;
+
+        /**
+         * @param rowReader reads a row from its JSON line, the last line of the feed must be read as a row with a null id
+         * @return these options
+         */
+        public Options rowReader(Function<String, ChangesResultItem> rowReader) {
+            this.rowReader = rowReader;
+            return this;
+        }
+
+        /**
+         * @param maxBatchRows the maximum number of rows in a micro-batch
+         * @return these options
+         */
+        public Options maxBatchRows(int maxBatchRows) {
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        /**
+         * @param maxBatchBytes the maximum size of the rows in a micro-batch, a micro-batch always has at least one row
+         * @return these options
+         */
+        public Options maxBatchBytes(long maxBatchBytes) {
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * @param lingerMs the maximum time to wait for a micro-batch to fill
+         * @return these options
+         */
+        public Options lingerMs(long lingerMs) {
+            this.lingerMs = lingerMs;
+            return this;
+        }
+
+        /**
+         * @param maxBufferedRows the maximum number of rows to read ahead
+         * @return these options
+         */
+        public Options maxBufferedRows(int maxBufferedRows) {
+            this.maxBufferedRows = maxBufferedRows;
+            return this;
+        }
+
+        /**
+         * @param maxBufferedBytes the maximum size of the rows read ahead
+         * @return these options
+         */
+        public Options maxBufferedBytes(long maxBufferedBytes) {
+            this.maxBufferedBytes = maxBufferedBytes;
+            return this;
+        }
+
+        /**
+         * @param reconnectMs the time to wait before reconnecting when the server ends the feed
+         * @return these options
+         */
+        public Options reconnectMs(long reconnectMs) {
+            this.reconnectMs = reconnectMs;
+            return this;
+        }
+
+        /**
+         * @param retryBackoffMs the time to wait before the first retry of a failed connection, doubled for each further retry
+         * @param maxRetryBackoffMs the maximum time to wait before a retry
+         * @param maxRetries the number of consecutive retries before the feed fails
+         * @return these options
+         */
+        public Options retries(long retryBackoffMs, long maxRetryBackoffMs, int maxRetries) {
+            this.retryBackoffMs = retryBackoffMs;
+            this.maxRetryBackoffMs = maxRetryBackoffMs;
+            this.maxRetries = maxRetries;
+            return this;
+        }
+    }
+
+    private static class Row {
+
+        private final ChangesResultItem item;
+        // the UTF-8 length of the JSON line, an estimate of the size of the row
+        private final long bytes;
+
+        private Row(ChangesResultItem item, long bytes) {
+            this.item = item;
+            this.bytes = bytes;
+        }
+    }
+}
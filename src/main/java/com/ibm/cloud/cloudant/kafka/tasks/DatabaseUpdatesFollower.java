@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.v1.model.DbEvent;
+import com.ibm.cloud.cloudant.v1.model.DbUpdates;
+import com.ibm.cloud.sdk.core.service.exception.ServiceResponseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Follows the account {@code _db_updates} feed on a background thread, passing each database
+ * event to a listener.
+ *
+ * A failed request is retried after a backoff from the last sequence read, so no events are
+ * skipped while the feed is unavailable. A request rejected with a client error other than 429,
+ * such as a 403 when the credentials cannot read the account's {@code _db_updates}, would fail
+ * the same way every time, so it is not retried: the follower stops and passes the failure to
+ * its failure handler instead.
+ */
+public class DatabaseUpdatesFollower implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DatabaseUpdatesFollower.class);
+
+    /**
+     * The sequence to follow only the events from now on.
+     */
+    public static final String SINCE_NOW = "now";
+
+    private final Function<String, DbUpdates> fetcher;
+    private final BiConsumer<String, String> listener;
+    private final Consumer<RuntimeException> failureHandler;
+    private final long retryBackoffMs;
+    private final Thread thread;
+
+    private volatile boolean closed = false;
+
+    /**
+     * @param name the name of the follower thread
+     * @param fetcher long polls the {@code _db_updates} feed after the given sequence
+     * @param since the sequence to follow the feed from
+     * @param listener receives the database name (first argument) and event type (second argument) of each event
+     * @param failureHandler receives a failure that is not retried, after which the feed is no longer followed
+     * @param retryBackoffMs the time to wait before retrying a failed request
+     */
+    public DatabaseUpdatesFollower(String name, Function<String, DbUpdates> fetcher, String since,
+                                   BiConsumer<String, String> listener, Consumer<RuntimeException> failureHandler,
+                                   long retryBackoffMs) {
+        this.fetcher = fetcher;
+        this.listener = listener;
+        this.failureHandler = failureHandler;
+        this.retryBackoffMs = retryBackoffMs;
+        this.thread = new Thread(() -> run(since), name);
+        this.thread.setDaemon(true);
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    private void run(String since) {
+        try {
+            while (!closed) {
+                DbUpdates updates;
+                try {
+                    updates = fetcher.apply(since);
+                } catch (RuntimeException e) {
+                    if (closed) {
+                        return;
+                    }
+                    if (!isRetryable(e)) {
+                        LOG.error("Failed to read _db_updates", e);
+                        failureHandler.accept(e);
+                        return;
+                    }
+                    LOG.warn("Failed to read _db_updates, retrying in {} ms", retryBackoffMs, e);
+                    Thread.sleep(retryBackoffMs);
+                    continue;
+                }
+                if (closed) {
+                    return;
+                }
+                if (updates.getResults() != null) {
+                    for (DbEvent event : updates.getResults()) {
+                        listener.accept(event.getDbName(), event.getType());
+                    }
+                }
+                if (updates.getLastSeq() != null) {
+                    since = updates.getLastSeq();
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting
+        }
+    }
+
+    private static boolean isRetryable(RuntimeException e) {
+        if (e instanceof ServiceResponseException) {
+            int status = ((ServiceResponseException) e).getStatusCode();
+            return status == 429 || status < 400 || status >= 500;
+        }
+        return true;
+    }
+
+    /**
+     * Stop following the feed. The events of a request in progress are discarded.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.sdk.core.service.exception.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Reads the changes feeds of many databases with a shared pool of fetcher threads.
+ *
+ * Databases take turns in round-robin order, each turn fetching one batch, so a busy database
+ * cannot starve the others. A database whose feed had no changes is skipped for an idle
+ * backoff, doubling for each empty fetch up to a maximum, so idle databases cost few requests.
+ * When the databases are known to be updated by {@link #wake(String)}, idle databases can instead
+ * be parked until they are woken, so they cost no requests at all.
+ * Fetchers stop reading ahead when the number or total size of ready batches reaches its limit.
+ * A database that is not found, because it has been deleted, is dropped from the feed.
+ */
+public class MultiDatabaseChangesFeed implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MultiDatabaseChangesFeed.class);
+
+    private final BiFunction<String, String, ChangesBatch> fetcher;
+    private final int maxBatches;
+    private final long maxBytes;
+    private final long idleBackoffMs;
+    private final long maxIdleBackoffMs;
+    private final boolean parkIdle;
+    private final List<Thread> threads = new ArrayList<>();
+
+    // guarded by this
+    // databases waiting for their turn, in turn order, not including those being fetched
+    private final Deque<Database> turns = new ArrayDeque<>();
+    private final Map<String, Database> databases = new HashMap<>();
+    private final Deque<DatabaseBatch> ready = new ArrayDeque<>();
+    private long readyBytes = 0;
+    private RuntimeException failure = null;
+    private boolean closed = false;
+
+    /**
+     * @param name the name prefix of the fetcher threads
+     * @param fetcher fetches the batch of changes for a database (first argument) after a sequence (second argument),
+     *                without waiting for changes
+     * @param since the sequence to start from for each database
+     * @param threads the number of fetcher threads
+     * @param maxBatches the maximum number of batches to hold ready
+     * @param maxBytes the maximum total response size of the batches held ready
+     * @param idleBackoffMs the time to skip a database after its first empty fetch
+     * @param maxIdleBackoffMs the maximum time to skip an idle database
+     * @param parkIdle true to skip an idle database until it is woken, instead of backing off
+     */
+    public MultiDatabaseChangesFeed(String name, BiFunction<String, String, ChangesBatch> fetcher, Map<String, String> since,
+                                    int threads, int maxBatches, long maxBytes, long idleBackoffMs, long maxIdleBackoffMs,
+                                    boolean parkIdle) {
+        this.fetcher = fetcher;
+        this.maxBatches = maxBatches;
+        this.maxBytes = maxBytes;
+        this.idleBackoffMs = idleBackoffMs;
+        this.maxIdleBackoffMs = maxIdleBackoffMs;
+        this.parkIdle = parkIdle;
+        since.forEach((db, seq) -> {
+            Database database = new Database(db, seq);
+            turns.add(database);
+            databases.put(db, database);
+        });
+        for (int i = 1; i <= threads; i++) {
+            Thread thread = new Thread(this::run, name + "-" + i);
+            thread.setDaemon(true);
+            this.threads.add(thread);
+        }
+    }
+
+    public void start() {
+        threads.forEach(Thread::start);
+    }
+
+    private void run() {
+        try {
+            Database database;
+            while ((database = nextTurn()) != null) {
+                ChangesBatch batch;
+                try {
+                    batch = fetcher.apply(database.name, database.since);
+                } catch (NotFoundException e) {
+                    drop(database);
+                    continue;
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        if (!closed) {
+                            LOG.error("Failed to fetch changes for database {}", database.name, e);
+                            failure = e;
+                            notifyAll();
+                        }
+                    }
+                    return;
+                }
+                endTurn(database, batch);
+            }
+        } catch (InterruptedException e) {
+            // closed while waiting
+        }
+    }
+
+    /**
+     * @return the next database to fetch, waiting for ready capacity and for a database to be
+     * due, or null if closed
+     */
+    private synchronized Database nextTurn() throws InterruptedException {
+        while (!closed) {
+            if (ready.size() < maxBatches && readyBytes < maxBytes) {
+                long now = System.currentTimeMillis();
+                long nextDue = Long.MAX_VALUE;
+                for (Iterator<Database> i = turns.iterator(); i.hasNext(); ) {
+                    Database database = i.next();
+                    if (database.dueAt <= now) {
+                        i.remove();
+                        database.woken = false;
+                        return database;
+                    }
+                    nextDue = Math.min(nextDue, database.dueAt);
+                }
+                if (nextDue != Long.MAX_VALUE) {
+                    wait(nextDue - now);
+                    continue;
+                }
+            }
+            wait();
+        }
+        return null;
+    }
+
+    private synchronized void endTurn(Database database, ChangesBatch batch) {
+        if (closed) {
+            return;
+        }
+        database.since = batch.getLastSeq();
+        if (batch.getResults().isEmpty()) {
+            if (!database.woken) {
+                database.idle();
+            }
+        } else {
+            database.active();
+            ready.add(new DatabaseBatch(database.name, batch));
+            readyBytes += batch.getBytes();
+        }
+        turns.add(database);
+        notifyAll();
+    }
+
+    // a database that has been deleted is no longer read, instead of failing the others
+    private synchronized void drop(Database database) {
+        if (!closed) {
+            LOG.warn("Database {} was not found, its changes are no longer read", database.name);
+            databases.remove(database.name);
+        }
+    }
+
+    /**
+     * Make a database due a turn now, because it has been updated. If the database is being
+     * fetched, it has another turn straight after, in case the fetch missed the update.
+     *
+     * @param db the name of the database, ignored if not one of the databases of this feed
+     */
+    public synchronized void wake(String db) {
+        Database database = databases.get(db);
+        if (database != null) {
+            database.woken = true;
+            database.active();
+            notifyAll();
+        }
+    }
+
+    /**
+     * Fail the feed, because the databases can no longer be read as expected. The failure is
+     * thrown by {@link #poll(long, TimeUnit)} once the ready batches are taken.
+     *
+     * @param e the failure, ignored if the feed has already failed or been closed
+     */
+    public synchronized void fail(RuntimeException e) {
+        if (!closed && failure == null) {
+            failure = e;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Take the next ready batch, waiting for one if necessary.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return the next batch, or null if none was ready within the timeout or the feed was closed
+     * @throws InterruptedException if interrupted while waiting
+     * @throws RuntimeException the failure of a fetcher or of the feed, once all the batches before it are taken
+     */
+    public synchronized DatabaseBatch poll(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (ready.isEmpty() && failure == null && !closed) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+        }
+        DatabaseBatch batch = ready.poll();
+        if (batch != null) {
+            readyBytes -= batch.getBatch().getBytes();
+            notifyAll();
+            return batch;
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return null;
+    }
+
+    /**
+     * Stop fetching and discard any ready batches. The results of fetches in progress are discarded.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            ready.clear();
+            readyBytes = 0;
+            notifyAll();
+        }
+        threads.forEach(Thread::interrupt);
+    }
+
+    private class Database {
+
+        private final String name;
+        private String since;
+        // when this database is next due a turn, in epoch milliseconds
+        private long dueAt = 0;
+        private long backoffMs = 0;
+        // updated since its turn started
+        private boolean woken = false;
+
+        private Database(String name, String since) {
+            this.name = name;
+            this.since = since;
+        }
+
+        private void idle() {
+            if (parkIdle) {
+                dueAt = Long.MAX_VALUE;
+                return;
+            }
+            backoffMs = (backoffMs == 0) ? idleBackoffMs : Math.min(backoffMs * 2, maxIdleBackoffMs);
+            dueAt = System.currentTimeMillis() + backoffMs;
+        }
+
+        private void active() {
+            backoffMs = 0;
+            dueAt = 0;
+        }
+    }
+
+    /**
+     * A batch of changes from one of the databases.
+     */
+    public static class DatabaseBatch {
+
+        private final String db;
+        private final ChangesBatch batch;
+
+        public DatabaseBatch(String db, ChangesBatch batch) {
+            this.db = db;
+            this.batch = batch;
+        }
+
+        public String getDb() {
+            return db;
+        }
+
+        public ChangesBatch getBatch() {
+            return batch;
+        }
+    }
+}
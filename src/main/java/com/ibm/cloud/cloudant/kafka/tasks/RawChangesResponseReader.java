@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.kafka.mappers.RawChangesResultItem;
+import com.ibm.cloud.cloudant.kafka.utils.CountingInputStream;
+import com.ibm.cloud.cloudant.kafka.utils.RawJsonScanner;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the rows of a {@code _changes} response as {@link RawChangesResultItem}s, keeping the
+ * JSON bytes of each document as they are in the response instead of parsing them.
+ *
+ * Only the {@code seq}, {@code id} and {@code deleted} of each row, and the {@code _id},
+ * {@code _rev} and {@code _deleted} of its document, are read; everything else is skipped or
+ * copied byte for byte.
+ */
+public class RawChangesResponseReader extends ChangesResponseReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RawChangesResponseReader.class);
+
+    private static final String SEQ = "seq";
+    private static final String ID = "id";
+    private static final String DELETED = "deleted";
+    private static final String DOC = "doc";
+    private static final String DOC_ID = "_id";
+    private static final String DOC_REV = "_rev";
+    private static final String DOC_DELETED = "_deleted";
+
+    /**
+     * @param maxBytes the number of response bytes after which to stop reading rows, at least one row is always read
+     */
+    public RawChangesResponseReader(long maxBytes) {
+        super(maxBytes);
+    }
+
+    @Override
+    public ChangesBatch read(InputStream response) throws IOException {
+        List<ChangesResultItem> results = new ArrayList<>();
+        String lastSeq = null;
+        try (CountingInputStream in = new CountingInputStream(response)) {
+            RawJsonScanner scanner = new RawJsonScanner(in);
+            if (scanner.begin('{', '}')) {
+                do {
+                    String name = scanner.readString();
+                    scanner.consume(':');
+                    if (RESULTS.equals(name)) {
+                        if (scanner.begin('[', ']')) {
+                            do {
+                                RawChangesResultItem row = readRow(scanner);
+                                lastSeq = row.getSeq();
+                                results.add(row);
+                                if (in.getCount() >= maxBytes && scanner.peek() == ',') {
+                                    LOG.debug("Stop reading changes after {} bytes at seq {}", in.getCount(), lastSeq);
+                                    return new ChangesBatch(results, lastSeq, in.getCount());
+                                }
+                            } while (scanner.hasNext(']'));
+                        }
+                    } else if (LAST_SEQ.equals(name)) {
+                        lastSeq = scanner.readScalar();
+                    } else {
+                        scanner.skipValue();
+                    }
+                } while (scanner.hasNext('}'));
+            }
+            return new ChangesBatch(results, lastSeq, in.getCount());
+        }
+    }
+
+    /**
+     * Read a row of a continuous changes feed. The last line of the feed, which has the
+     * {@code last_seq} and no {@code id}, is read as a row with a null id.
+     *
+     * @param line the JSON line
+     * @return the row
+     * @throws UncheckedIOException if the line is not a JSON object
+     */
+    public static ChangesResultItem readLine(String line) {
+        try {
+            return readRow(new RawJsonScanner(line.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static RawChangesResultItem readRow(RawJsonScanner scanner) throws IOException {
+        String seq = null;
+        String id = null;
+        Boolean deleted = null;
+        Document doc = null;
+        byte[] rawDoc = null;
+        if (scanner.begin('{', '}')) {
+            do {
+                String name = scanner.readString();
+                scanner.consume(':');
+                if (SEQ.equals(name)) {
+                    seq = scanner.readScalar();
+                } else if (ID.equals(name)) {
+                    id = scanner.readScalar();
+                } else if (DELETED.equals(name)) {
+                    deleted = Boolean.valueOf(scanner.readScalar());
+                } else if (DOC.equals(name) && scanner.peek() == '{') {
+                    scanner.startRecording();
+                    doc = readDocStub(scanner);
+                    rawDoc = scanner.stopRecording();
+                } else {
+                    scanner.skipValue();
+                }
+            } while (scanner.hasNext('}'));
+        }
+        return new RawChangesResultItem(seq, id, deleted, doc, rawDoc);
+    }
+
+    // read the meta properties at the top level of a document, skipping everything else
+    private static Document readDocStub(RawJsonScanner scanner) throws IOException {
+        Document doc = new Document();
+        if (scanner.begin('{', '}')) {
+            do {
+                String name = scanner.readString();
+                scanner.consume(':');
+                if (DOC_ID.equals(name)) {
+                    doc.setId(scanner.readScalar());
+                } else if (DOC_REV.equals(name)) {
+                    doc.setRev(scanner.readScalar());
+                } else if (DOC_DELETED.equals(name)) {
+                    doc.setDeleted(Boolean.valueOf(scanner.readScalar()));
+                } else {
+                    scanner.skipValue();
+                }
+            } while (scanner.hasNext('}'));
+        }
+        return doc;
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -39,7 +39,29 @@ public class SinkConnectorConfig extends ConnectorConfig {
                         KAFKA_GROUP,
                         order++,
                         ConfigDef.Width.SHORT,
-                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_DISP));
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_DISP))
+                // bulk write concurrency
+                .define(InterfaceConst.WRITE_CONCURRENCY,
+                        ConfigDef.Type.INT,
+                        InterfaceConst.DEFAULT_WRITE_CONCURRENCY,
+                        ConfigDef.Range.between(1, InterfaceConst.WRITE_CONCURRENCY_MAX),
+                        ConfigDef.Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_WRITE_CONCURRENCY_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        ConfigDef.Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_WRITE_CONCURRENCY_DISP))
+                // partial batch linger
+                .define(InterfaceConst.LINGER_MS,
+                        ConfigDef.Type.LONG,
+                        InterfaceConst.DEFAULT_SINK_LINGER_MS,
+                        ConfigDef.Range.atLeast(0),
+                        ConfigDef.Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_SINK_LINGER_MS_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        ConfigDef.Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_LINGER_MS_DISP));
     }
 
     protected SinkConnectorConfig(ConfigDef subclassConfigDef, Map<String, String> originals) {
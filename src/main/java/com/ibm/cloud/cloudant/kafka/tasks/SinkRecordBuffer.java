@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of sink records, held as the documents they are mapped to when they are added.
+ *
+ * The documents are indexed in the order they were added, so the result of each document of a
+ * {@code _bulk_docs} response is the result for the record at the same index. The records
+ * themselves are only kept if they are needed to report the documents that fail; otherwise only
+ * the last offset of each partition is kept and the records are released once mapped.
+ *
+ * The size of the batch in bytes is the JSON size of its documents.
+ */
+public class SinkRecordBuffer {
+
+    private final List<RawDocument> documents;
+    private final List<SinkRecord> records;
+    private final Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+    private final Map<TopicPartition, Long> firstOffsets = new HashMap<>();
+    private final long createdMs;
+    private long bytes = 0;
+
+    /**
+     * @param capacity the expected number of records
+     * @param keepRecords whether to keep the records, for {@link #record(int)}
+     * @param createdMs the time the buffer was created, for {@link #ageMs(long)}
+     */
+    public SinkRecordBuffer(int capacity, boolean keepRecords, long createdMs) {
+        this.documents = new ArrayList<>(capacity);
+        this.records = keepRecords ? new ArrayList<>(capacity) : null;
+        this.createdMs = createdMs;
+    }
+
+    /**
+     * @param record the record
+     * @param document the document the record is mapped to
+     */
+    public void add(SinkRecord record, RawDocument document) {
+        documents.add(document);
+        if (records != null) {
+            records.add(record);
+        }
+        addOffset(record);
+        bytes += document.getJson().length;
+    }
+
+    /**
+     * Add a record that has no document, such as a record reported because it could not be mapped,
+     * so that its offset is written with the batch.
+     *
+     * @param record the record
+     */
+    public void skip(SinkRecord record) {
+        addOffset(record);
+    }
+
+    private void addOffset(SinkRecord record) {
+        TopicPartition partition = new TopicPartition(record.topic(), record.kafkaPartition());
+        offsets.put(partition, new OffsetAndMetadata(record.kafkaOffset() + 1));
+        firstOffsets.putIfAbsent(partition, record.kafkaOffset());
+    }
+
+    /**
+     * @return the number of records
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * @return the size of the documents in bytes
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * @param nowMs the time now
+     * @return the time since the buffer was created
+     */
+    public long ageMs(long nowMs) {
+        return nowMs - createdMs;
+    }
+
+    /**
+     * @return the documents, in the order the records were added
+     */
+    public List<RawDocument> documents() {
+        return documents;
+    }
+
+    /**
+     * @param index the index of a document
+     * @return the record the document was mapped from
+     * @throws IllegalStateException if the records are not kept
+     */
+    public SinkRecord record(int index) {
+        if (records == null) {
+            throw new IllegalStateException("The records of the batch are not kept");
+        }
+        return records.get(index);
+    }
+
+    /**
+     * @return the offset after the last record of each partition
+     */
+    public Map<TopicPartition, OffsetAndMetadata> offsets() {
+        return Collections.unmodifiableMap(offsets);
+    }
+
+    /**
+     * @return the offset of the first record of each partition
+     */
+    public Map<TopicPartition, Long> firstOffsets() {
+        return Collections.unmodifiableMap(firstOffsets);
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -16,9 +16,10 @@ package com.ibm.cloud.cloudant.kafka.tasks;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil;
 import com.ibm.cloud.cloudant.kafka.SinkConnector;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
 import com.ibm.cloud.cloudant.kafka.mappers.SinkRecordToDocument;
-import com.ibm.cloud.cloudant.v1.model.Document;
 import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
 import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.ErrantRecordReporter;
@@ -27,12 +28,25 @@ import org.apache.kafka.connect.sink.SinkTaskContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collection;
-import java.util.LinkedList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Writes records to Cloudant as they are put, in batches of the batch size.
+ *
+ * Each full batch, or partial batch older than the linger time, is written in the background
+ * with up to the write concurrency of requests in flight, and {@link #preCommit(Map)} reports
+ * only the offsets of records whose batches, and all the batches before them, have been written.
+ * A failed write skips the batches that have not started, and the next commit rewinds the consumer
+ * to the first record not written of each partition, so that those records are put and written
+ * again. The batches in flight still complete, and their offsets are committed for the partitions
+ * with no records before them left unwritten.
+ */
 public class SinkTask extends org.apache.kafka.connect.sink.SinkTask {
 
     private static Logger LOG = LoggerFactory.getLogger(SinkTask.class);
@@ -45,8 +59,26 @@ public class SinkTask extends org.apache.kafka.connect.sink.SinkTask {
 
     private ErrantRecordReporter reporter;
 
-    // will be constructed on-demand
-    private List<SinkRecord> accumulatedSinkRecords = null;
+    // writes the batches, with up to the write concurrency of requests in flight
+    private BulkDocsWriter writer;
+    // the most batches written or waiting to be written before put waits for the oldest
+    private int maxPendingBatches;
+    private long lingerMs;
+
+    // the batch being filled, will be constructed on-demand
+    private SinkRecordBuffer batch = null;
+
+    // the batches being written, in the order they were filled, and their records and bytes
+    private final Deque<PendingBatch> pendingBatches = new ArrayDeque<>();
+    private int pendingRecords = 0;
+    private long pendingBytes = 0;
+    private final SinkTaskMetrics metrics = new SinkTaskMetrics();
+    // the offset after the last record written of each partition
+    private final Map<TopicPartition, OffsetAndMetadata> writtenOffsets = new HashMap<>();
+    // the first failure of a write since the last commit, the records after it are written again
+    private RuntimeException writeFailure = null;
+    // the offset of the first record not written of each partition since the failure, to rewind to
+    private final Map<TopicPartition, Long> unwrittenOffsets = new HashMap<>();
 
     @Override
     public String version() {
@@ -55,16 +87,59 @@ public class SinkTask extends org.apache.kafka.connect.sink.SinkTask {
 
     @Override
     public void put(Collection<SinkRecord> sinkRecords) {
-        if (accumulatedSinkRecords == null) {
-            accumulatedSinkRecords = new LinkedList<>();
-        }
         LOG.info("Thread[{}].sinkRecords = {}", Thread.currentThread().getId(), sinkRecords.size());
-        accumulatedSinkRecords.addAll(sinkRecords);
+        completeWrittenBatches();
+        for (SinkRecord sinkRecord : sinkRecords) {
+            if (writeFailure != null) {
+                // the consumer is rewound at the next commit, so these records are put again
+                unwritten(partition(sinkRecord), sinkRecord.kafkaOffset());
+                continue;
+            }
+            if (batch == null) {
+                // the records are only needed to report the documents that fail
+                batch = new SinkRecordBuffer(batchSize, reporter != null, System.currentTimeMillis());
+            }
+            // Note: _rev is preserved
+            // the record value is written as JSON now, so the batch holds no maps of its documents
+            RawDocument document;
+            try {
+                document = mapper.apply(sinkRecord);
+            } catch (RuntimeException re) {
+                if (reporter == null) {
+                    throw re;
+                }
+                reporter.report(sinkRecord, re);
+                // the offset of the record is written with the batch
+                batch.skip(sinkRecord);
+                continue;
+            }
+            batch.add(sinkRecord, document);
+            if (batch.size() >= batchSize) {
+                writeBatch();
+            }
+        }
+        if (batch != null && writeFailure == null && batch.ageMs(System.currentTimeMillis()) >= lingerMs) {
+            writeBatch();
+        }
+        metrics.buffered(batch);
+        if (writeFailure != null) {
+            requestCommit();
+        }
+    }
+
+    // rewind soon after a write fails, rather than at the next commit interval
+    private void requestCommit() {
+        if (context != null) {
+            context.requestCommit();
+        }
     }
 
     @Override
     public void stop() {
-        // nothing to do
+        if (writer != null) {
+            writer.close();
+        }
+        metrics.unregister();
     }
 
     /**
@@ -76,58 +151,90 @@ public class SinkTask extends org.apache.kafka.connect.sink.SinkTask {
     public void start(Map<String, String> props) {
         config = new SinkConnectorConfig(SinkConnectorConfig.CONFIG_DEF, props);
         batchSize = config.getInt(InterfaceConst.BATCH_SIZE);
+        lingerMs = config.getLong(InterfaceConst.LINGER_MS);
+        int writeConcurrency = config.getInt(InterfaceConst.WRITE_CONCURRENCY);
+        // one more batch than the requests in flight, so a batch is ready to write when one completes
+        maxPendingBatches = writeConcurrency + 1;
+        Map<String, String> originals = config.originalsStrings();
+        // create the database once, rather than before every batch
+        JavaCloudantUtil.ensureTargetDb(originals);
+        writer = new BulkDocsWriter("cloudant-write", documents -> {
+            LOG.info("Calling batchWrite with {} documents to {}", documents.size(), config.getString(InterfaceConst.URL));
+            return JavaCloudantUtil.batchWrite(originals, documents);
+        }, writeConcurrency);
+        metrics.register(props.get("name"), Integer.parseInt(props.getOrDefault(InterfaceConst.TASK_NUMBER, "0")));
     }
 
+    /**
+     * Write the records put and wait for all the batches to be written.
+     *
+     * @param offsets the offsets of the records put
+     */
     @Override
-    public void flush(Map<TopicPartition, org.apache.kafka.clients.consumer.OffsetAndMetadata> offsets) {
-
-        List<Document> documentList = new ArrayList<>();
-        if (accumulatedSinkRecords != null && !accumulatedSinkRecords.isEmpty()) {
-            LOG.info("flush called with {} documents to {}", accumulatedSinkRecords.size(), config.getString(InterfaceConst.URL));
-            // Note: _rev is preserved
-            accumulatedSinkRecords.stream()
-                    .map(mapper) // Convert ConnectRecord to Map
-                    .sequential() // Avoid concurrent access to documentList
-                    .forEach(documentList::add);
-            try {
-                // break down accumulated records into batches to send to cloudant
-                // NB a failure in _any_ batch will currently cause all accumulated records to be marked as uncommitted
-                int nBatches = documentList.size() / batchSize + (documentList.size() % batchSize == 0 ? 0 : 1);
-                LOG.info("flush called with {} batches to {}", nBatches, config.getString(InterfaceConst.URL));
-                for (int b = 0; b < nBatches; b++) {
-                    List<Document> documentSublist = documentList.subList(b * batchSize, Math.min(documentList.size(), (b + 1) * batchSize));
-                    LOG.info("Calling batchWrite with {} documents to {}", documentSublist.size(), config.getString(InterfaceConst.URL));
-                    List<DocumentResult> writeResults = JavaCloudantUtil.batchWrite(config.originalsStrings(), documentSublist);
-                    boolean someFailed = writeResults.stream().anyMatch(doc -> doc.isOk() == null || !doc.isOk());
-                    if (reporter != null && someFailed) {
-                        // logging not needed - user can enable `errors.log.enable` if required
-                        for (int i = 0; i < writeResults.size(); i++) {
-                            DocumentResult writeResult = writeResults.get(i);
-                            if (writeResult.isOk() == null || !writeResult.isOk()) {
-                                reporter.report(accumulatedSinkRecords.get(b * batchSize + i),
-                                        new RuntimeException(String.format("Failed to batch write document to Cloudant with error %s reason %s",
-                                                writeResult.getError(), writeResult.getReason())));
-                            }
-                        }
-                    }
-                }
-
-                // if we got here, then the batch operation succeeded (ie no network failure and 2xx response)
-                // therefore we can clear out the accumulated sink records
-                // any individual failures reported back from the response to batch write will have been reported
-                // and potentially logged and/or sent to dlq if the user configured these
-                accumulatedSinkRecords = null;
-            } catch (RuntimeException re) {
-                // below we re-wrap the exception as a nicety - it's not required, see explanation below
+    public void flush(Map<TopicPartition, OffsetAndMetadata> offsets) {
+        if (batch != null && writeFailure == null) {
+            writeBatch();
+        }
+        LOG.info("flush called with {} batches to {}", pendingBatches.size(), config.getString(InterfaceConst.URL));
+        while (!pendingBatches.isEmpty()) {
+            completeOldestBatch();
+        }
+        if (writeFailure != null) {
+            throw new ConnectException("Exception thrown when trying to write documents", rewind(Collections.emptyList()));
+        }
+    }
 
-                // WorkerSinkTask#commitOffsets will catch any Throwable and will not advance the offsets, meaning
-                // that everything outstanding in accumulatedSinkRecords (and potentially more if put is called again)
-                // will be attempted to be re-written
+    /**
+     * Start writing the batch being filled, and report the offsets written. After a failed write the
+     * consumer is rewound to the records not written, once the batches in flight have completed.
+     *
+     * @param currentOffsets the offsets of the records put
+     * @return the offset after the last record written of each partition with records written
+     */
+    @Override
+    public Map<TopicPartition, OffsetAndMetadata> preCommit(Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+        if (batch != null && writeFailure == null) {
+            // the records are committed by a later commit, once written
+            writeBatch();
+        }
+        completeWrittenBatches();
+        if (writeFailure != null) {
+            // the failure is not thrown, that would also rewind the partitions whose offsets are written
+            LOG.error("Exception thrown when trying to write documents", rewind(Collections.emptyList()));
+        }
+        Map<TopicPartition, OffsetAndMetadata> committable = new HashMap<>();
+        for (TopicPartition partition : currentOffsets.keySet()) {
+            OffsetAndMetadata written = writtenOffsets.get(partition);
+            if (written != null) {
+                committable.put(partition, written);
+            }
+        }
+        return committable;
+    }
 
-                // logging not needed - WorkerSinkTask#onCommitCompleted will log error including the below message
-                throw new ConnectException("Exception thrown when trying to write documents", re);
+    @Override
+    public void close(Collection<TopicPartition> partitions) {
+        if (batch != null && writeFailure == null && !Collections.disjoint(batch.offsets().keySet(), partitions)) {
+            // partitions lost without a commit can have records in the batch being filled
+            writeBatch();
+        }
+        // wait for the batches with records of the partitions, so none complete after they are closed
+        int batchesToComplete = 0;
+        int index = 0;
+        for (PendingBatch pending : pendingBatches) {
+            index++;
+            if (!Collections.disjoint(pending.batch.offsets().keySet(), partitions)) {
+                batchesToComplete = index;
             }
         }
+        for (; batchesToComplete > 0; batchesToComplete--) {
+            completeOldestBatch();
+        }
+        if (writeFailure != null) {
+            // the partitions closed can no longer be rewound, so the others are rewound now
+            LOG.error("Exception thrown when trying to write documents", rewind(partitions));
+        }
+        partitions.forEach(writtenOffsets::remove);
     }
 
     @Override
@@ -135,4 +242,113 @@ public class SinkTask extends org.apache.kafka.connect.sink.SinkTask {
         super.initialize(context);
         this.reporter = context.errantRecordReporter();
     }
+
+    private void writeBatch() {
+        pendingBatches.add(new PendingBatch(batch, writer.submit(batch.documents())));
+        pendingRecords += batch.size();
+        pendingBytes += batch.bytes();
+        batch = null;
+        metrics.buffered(null);
+        metrics.pending(pendingBatches.size(), pendingRecords, pendingBytes);
+        // wait for the oldest batch while too many are pending, to bound the records held
+        while (pendingBatches.size() > maxPendingBatches) {
+            completeOldestBatch();
+        }
+    }
+
+    // complete the batches written, in order, up to the first still being written
+    private void completeWrittenBatches() {
+        while (!pendingBatches.isEmpty() && pendingBatches.peek().write.isDone()) {
+            completeOldestBatch();
+        }
+    }
+
+    private void completeOldestBatch() {
+        PendingBatch pending = pendingBatches.poll();
+        pendingRecords -= pending.batch.size();
+        pendingBytes -= pending.batch.bytes();
+        metrics.pending(pendingBatches.size(), pendingRecords, pendingBytes);
+        if (pending.write.isCancelled()) {
+            // skipped after a failed batch, so the records are written again
+            pending.batch.firstOffsets().forEach(this::unwritten);
+            return;
+        }
+        try {
+            List<DocumentResult> writeResults = BulkDocsWriter.results(pending.write);
+            int failed = 0;
+            for (int i = 0; i < writeResults.size(); i++) {
+                DocumentResult writeResult = writeResults.get(i);
+                if (writeResult.isOk() == null || !writeResult.isOk()) {
+                    failed++;
+                    // the records of a partition rewound after a failure are reported when written again
+                    if (reporter != null && !unwrittenOffsets.containsKey(partition(pending.batch.record(i)))) {
+                        // logging not needed - user can enable `errors.log.enable` if required
+                        reporter.report(pending.batch.record(i),
+                                new RuntimeException(String.format("Failed to batch write document to Cloudant with error %s reason %s",
+                                        writeResult.getError(), writeResult.getReason())));
+                    }
+                }
+            }
+            metrics.written(pending.batch.size(), failed);
+            // any individual failures reported back from the response to batch write will have been reported
+            // and potentially logged and/or sent to dlq if the user configured these
+            pending.batch.offsets().forEach((partition, offset) -> {
+                // a partition with records not written is rewound to them, so its later records are written again
+                if (!unwrittenOffsets.containsKey(partition)) {
+                    writtenOffsets.put(partition, offset);
+                }
+            });
+        } catch (RuntimeException re) {
+            pending.batch.firstOffsets().forEach(this::unwritten);
+            if (writeFailure == null) {
+                writeFailure = re;
+                // skip the batches that have not started, their records are written again
+                pendingBatches.forEach(later -> later.write.skip());
+            } else if (writeFailure != re) {
+                writeFailure.addSuppressed(re);
+            }
+        }
+    }
+
+    // a record not written since the failure, each partition is rewound to its first
+    private void unwritten(TopicPartition partition, long offset) {
+        unwrittenOffsets.merge(partition, offset, Math::min);
+    }
+
+    private static TopicPartition partition(SinkRecord record) {
+        return new TopicPartition(record.topic(), record.kafkaPartition());
+    }
+
+    // wait for the batches in flight after a failure, then rewind the consumer to the first record
+    // not written of each partition, other than those closed, so the records are put and written again
+    private RuntimeException rewind(Collection<TopicPartition> closed) {
+        while (!pendingBatches.isEmpty()) {
+            completeOldestBatch();
+        }
+        if (batch != null) {
+            batch.firstOffsets().forEach(this::unwritten);
+            batch = null;
+            metrics.buffered(null);
+        }
+        closed.forEach(unwrittenOffsets::remove);
+        if (context != null && !unwrittenOffsets.isEmpty()) {
+            context.offset(new HashMap<>(unwrittenOffsets));
+        }
+        unwrittenOffsets.clear();
+        RuntimeException re = writeFailure;
+        writeFailure = null;
+        return re;
+    }
+
+    // a batch and the write of its documents
+    private static final class PendingBatch {
+
+        private final SinkRecordBuffer batch;
+        private final BulkDocsWriter.Write write;
+
+        private PendingBatch(SinkRecordBuffer batch, BulkDocsWriter.Write write) {
+            this.batch = batch;
+            this.write = write;
+        }
+    }
 }
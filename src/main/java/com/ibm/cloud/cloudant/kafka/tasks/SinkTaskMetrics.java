@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The metrics of the records held by a sink task, updated by the task thread and read by JMX.
+ */
+class SinkTaskMetrics implements SinkTaskMetricsMXBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SinkTaskMetrics.class);
+
+    private volatile int bufferedRecords = 0;
+    private volatile long bufferedBytes = 0;
+    private volatile int pendingBatches = 0;
+    private volatile int pendingRecords = 0;
+    private volatile long pendingBytes = 0;
+    private final LongAdder writtenRecords = new LongAdder();
+    private final LongAdder failedDocuments = new LongAdder();
+
+    private ObjectName name = null;
+
+    /**
+     * Register the metrics with the platform MBean server, logging any failure.
+     *
+     * @param connector the name of the connector
+     * @param task the number of the task in the connector
+     * @return these metrics
+     */
+    SinkTaskMetrics register(String connector, int task) {
+        try {
+            name = new ObjectName("com.ibm.cloud.cloudant.kafka:type=SinkTask,connector="
+                    + ObjectName.quote(String.valueOf(connector)) + ",task=" + task);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+        } catch (JMException e) {
+            LOG.warn("Failed to register sink task metrics {}", name, e);
+            name = null;
+        }
+        return this;
+    }
+
+    /**
+     * Unregister the metrics, if they were registered.
+     */
+    void unregister() {
+        if (name != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+            } catch (JMException e) {
+                LOG.warn("Failed to unregister sink task metrics {}", name, e);
+            }
+            name = null;
+        }
+    }
+
+    void buffered(SinkRecordBuffer batch) {
+        bufferedRecords = (batch == null) ? 0 : batch.size();
+        bufferedBytes = (batch == null) ? 0 : batch.bytes();
+    }
+
+    void pending(int batches, int records, long bytes) {
+        pendingBatches = batches;
+        pendingRecords = records;
+        pendingBytes = bytes;
+    }
+
+    void written(int records, int failed) {
+        writtenRecords.add(records);
+        failedDocuments.add(failed);
+    }
+
+    @Override
+    public int getBufferedRecords() {
+        return bufferedRecords;
+    }
+
+    @Override
+    public long getBufferedBytes() {
+        return bufferedBytes;
+    }
+
+    @Override
+    public int getPendingBatches() {
+        return pendingBatches;
+    }
+
+    @Override
+    public int getPendingRecords() {
+        return pendingRecords;
+    }
+
+    @Override
+    public long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    @Override
+    public long getWrittenRecords() {
+        return writtenRecords.sum();
+    }
+
+    @Override
+    public long getFailedDocuments() {
+        return failedDocuments.sum();
+    }
+}
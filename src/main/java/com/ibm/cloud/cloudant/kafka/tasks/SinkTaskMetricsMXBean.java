@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+/**
+ * The JMX metrics of the records held by a {@link SinkTask}.
+ */
+public interface SinkTaskMetricsMXBean {
+
+    /**
+     * @return the number of records in the batch being filled
+     */
+    int getBufferedRecords();
+
+    /**
+     * @return the size in bytes of the JSON of the documents of the batch being filled
+     */
+    long getBufferedBytes();
+
+    /**
+     * @return the number of batches being written or waiting to be written
+     */
+    int getPendingBatches();
+
+    /**
+     * @return the number of records in the batches being written or waiting to be written
+     */
+    int getPendingRecords();
+
+    /**
+     * @return the size in bytes of the JSON of the documents of the batches being written or waiting to be written
+     */
+    long getPendingBytes();
+
+    /**
+     * @return the number of records written, including the documents that failed
+     */
+    long getWrittenRecords();
+
+    /**
+     * @return the number of documents that failed to be written
+     */
+    long getFailedDocuments();
+}
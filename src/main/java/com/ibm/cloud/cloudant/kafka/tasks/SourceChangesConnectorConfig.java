@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -16,6 +16,9 @@ package com.ibm.cloud.cloudant.kafka.tasks;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.MessageKey;
 import com.ibm.cloud.cloudant.kafka.utils.ResourceBundleUtil;
+import com.ibm.cloud.cloudant.kafka.validators.ListRecommender;
+import com.ibm.cloud.cloudant.kafka.validators.RegexValidator;
+import com.ibm.cloud.cloudant.v1.model.PostChangesOptions;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Importance;
 import org.apache.kafka.common.config.ConfigDef.Type;
@@ -25,6 +28,30 @@ import java.util.Map;
 
 public class SourceChangesConnectorConfig extends ConnectorConfig {
 
+    protected static final ListRecommender VALID_FEEDS = new ListRecommender(
+            PostChangesOptions.Feed.LONGPOLL,
+            PostChangesOptions.Feed.CONTINUOUS
+    );
+    protected static final ListRecommender VALID_DOC_FETCHES = new ListRecommender(
+            InterfaceConst.DOC_FETCH_CHANGES,
+            InterfaceConst.DOC_FETCH_BULK_GET
+    );
+    protected static final ListRecommender VALID_VALUE_FORMATS = new ListRecommender(
+            InterfaceConst.VALUE_FORMAT_MAP,
+            InterfaceConst.VALUE_FORMAT_RAW
+    );
+
+    protected static final ListRecommender VALID_FILTERS = new ListRecommender(
+            InterfaceConst.FILTER_NONE,
+            InterfaceConst.FILTER_SELECTOR,
+            InterfaceConst.FILTER_DOC_IDS,
+            InterfaceConst.FILTER_DESIGN
+    );
+
+    protected static final String DBS_DEFAULT = "";
+
+    protected static final String DOC_IDS_DEFAULT = "";
+
     public static final ConfigDef CONFIG_DEF = baseConfigDef();
 
     public static ConfigDef baseConfigDef() {
@@ -32,6 +59,27 @@ public class SourceChangesConnectorConfig extends ConnectorConfig {
         int order = 100; // pick a high number so these will come after those from base config def
 
         return new ConfigDef(ConnectorConfig.CONFIG_DEF)
+                // Cloudant DB list
+                .define(InterfaceConst.DBS,
+                        Type.LIST,
+                        DBS_DEFAULT,
+                        Importance.HIGH,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_CONNECTION_DBS_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.LONG,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_CONNECTION_DBS_DISP))
+                // Cloudant DB regex
+                .define(InterfaceConst.DB_REGEX,
+                        Type.STRING,
+                        NULL_DEFAULT,
+                        new RegexValidator(),
+                        Importance.HIGH,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_CONNECTION_DB_REGEX_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.LONG,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_CONNECTION_DB_REGEX_DISP))
                 // batch size
                 .define(InterfaceConst.BATCH_SIZE,
                         Type.INT,
@@ -52,7 +100,211 @@ public class SourceChangesConnectorConfig extends ConnectorConfig {
                         DATABASE_GROUP,
                         order++,
                         Width.LONG,
-                        ResourceBundleUtil.get(MessageKey.CLOUDANT_LAST_SEQ_NUM_DISP));
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_LAST_SEQ_NUM_DISP))
+                // changes feed type
+                .define(InterfaceConst.FEED,
+                        Type.STRING,
+                        PostChangesOptions.Feed.LONGPOLL,
+                        VALID_FEEDS,
+                        Importance.MEDIUM,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FEED_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FEED_DISP),
+                        VALID_FEEDS)
+                // document fetch method
+                .define(InterfaceConst.DOC_FETCH,
+                        Type.STRING,
+                        InterfaceConst.DOC_FETCH_CHANGES,
+                        VALID_DOC_FETCHES,
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DOC_FETCH_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DOC_FETCH_DISP),
+                        VALID_DOC_FETCHES)
+                // record value format
+                .define(InterfaceConst.VALUE_FORMAT,
+                        Type.STRING,
+                        InterfaceConst.VALUE_FORMAT_MAP,
+                        VALID_VALUE_FORMATS,
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_VALUE_FORMAT_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_VALUE_FORMAT_DISP),
+                        VALID_VALUE_FORMATS)
+                // prefetch batches
+                .define(InterfaceConst.PREFETCH_BATCHES,
+                        Type.INT,
+                        InterfaceConst.DEFAULT_PREFETCH_BATCHES,
+                        ConfigDef.Range.between(0, InterfaceConst.PREFETCH_BATCHES_MAX),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_PREFETCH_BATCHES_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_PREFETCH_BATCHES_DISP))
+                // prefetch memory limit
+                .define(InterfaceConst.PREFETCH_MAX_BYTES,
+                        Type.LONG,
+                        InterfaceConst.DEFAULT_PREFETCH_MAX_BYTES,
+                        ConfigDef.Range.atLeast(1),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_PREFETCH_MAX_BYTES_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_PREFETCH_MAX_BYTES_DISP))
+                // continuous feed batch size in bytes
+                .define(InterfaceConst.MAX_BATCH_BYTES,
+                        Type.LONG,
+                        InterfaceConst.DEFAULT_MAX_BATCH_BYTES,
+                        ConfigDef.Range.atLeast(1),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_MAX_BATCH_BYTES_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_MAX_BATCH_BYTES_DISP))
+                // continuous feed linger time
+                .define(InterfaceConst.LINGER_MS,
+                        Type.LONG,
+                        InterfaceConst.DEFAULT_LINGER_MS,
+                        ConfigDef.Range.atLeast(0),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_LINGER_MS_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_LINGER_MS_DISP))
+                // bulk get chunk size
+                .define(InterfaceConst.BULK_GET_CHUNK_SIZE,
+                        Type.INT,
+                        InterfaceConst.DEFAULT_BULK_GET_CHUNK_SIZE,
+                        ConfigDef.Range.between(1, InterfaceConst.BULK_GET_CHUNK_SIZE_MAX),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BULK_GET_CHUNK_SIZE_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BULK_GET_CHUNK_SIZE_DISP))
+                // bulk get concurrency
+                .define(InterfaceConst.BULK_GET_CONCURRENCY,
+                        Type.INT,
+                        InterfaceConst.DEFAULT_BULK_GET_CONCURRENCY,
+                        ConfigDef.Range.between(1, InterfaceConst.BULK_GET_CONCURRENCY_MAX),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BULK_GET_CONCURRENCY_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BULK_GET_CONCURRENCY_DISP))
+                // changes filter
+                .define(InterfaceConst.FILTER,
+                        Type.STRING,
+                        InterfaceConst.FILTER_NONE,
+                        VALID_FILTERS,
+                        Importance.MEDIUM,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FILTER_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FILTER_DISP),
+                        VALID_FILTERS)
+                .define(InterfaceConst.SELECTOR,
+                        Type.STRING,
+                        NULL_DEFAULT,
+                        Importance.MEDIUM,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_SELECTOR_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.LONG,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_SELECTOR_DISP))
+                .define(InterfaceConst.DOC_IDS,
+                        Type.LIST,
+                        DOC_IDS_DEFAULT,
+                        Importance.MEDIUM,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DOC_IDS_DOC),
+                        DATABASE_GROUP,
+                        order++,
+                        Width.LONG,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DOC_IDS_DISP))
+                // multiple database fetch threads
+                .define(InterfaceConst.FETCH_THREADS,
+                        Type.INT,
+                        InterfaceConst.DEFAULT_FETCH_THREADS,
+                        ConfigDef.Range.between(1, InterfaceConst.FETCH_THREADS_MAX),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FETCH_THREADS_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_FETCH_THREADS_DISP))
+                // multiple database idle backoff
+                .define(InterfaceConst.IDLE_BACKOFF_MAX_MS,
+                        Type.LONG,
+                        InterfaceConst.DEFAULT_IDLE_BACKOFF_MAX_MS,
+                        ConfigDef.Range.atLeast(0),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_IDLE_BACKOFF_MAX_MS_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_IDLE_BACKOFF_MAX_MS_DISP))
+                // multiple database updates
+                .define(InterfaceConst.DB_UPDATES,
+                        Type.BOOLEAN,
+                        false,
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DB_UPDATES_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_DB_UPDATES_DISP))
+                // adaptive batch size
+                .define(InterfaceConst.BATCH_ADAPTIVE,
+                        Type.BOOLEAN,
+                        false,
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_ADAPTIVE_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_ADAPTIVE_DISP))
+                .define(InterfaceConst.BATCH_SIZE_MIN,
+                        Type.INT,
+                        InterfaceConst.DEFAULT_BATCH_SIZE_MIN,
+                        ConfigDef.Range.between(InterfaceConst.BATCH_SIZE_MIN_SOURCE, InterfaceConst.BATCH_SIZE_MAX_SOURCE),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_MIN_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_MIN_DISP))
+                .define(InterfaceConst.BATCH_SIZE_MAX,
+                        Type.INT,
+                        InterfaceConst.BATCH_SIZE_MAX_SOURCE,
+                        ConfigDef.Range.between(InterfaceConst.BATCH_SIZE_MIN_SOURCE, InterfaceConst.BATCH_SIZE_MAX_SOURCE),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_MAX_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_SIZE_MAX_DISP))
+                .define(InterfaceConst.BATCH_TARGET_LATENCY_MS,
+                        Type.LONG,
+                        InterfaceConst.DEFAULT_BATCH_TARGET_LATENCY_MS,
+                        ConfigDef.Range.atLeast(1),
+                        Importance.LOW,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_TARGET_LATENCY_MS_DOC),
+                        PERFORMANCE_GROUP,
+                        order++,
+                        Width.SHORT,
+                        ResourceBundleUtil.get(MessageKey.CLOUDANT_BATCH_TARGET_LATENCY_MS_DISP));
     }
 
     public SourceChangesConnectorConfig(Map<String, String> originals) {
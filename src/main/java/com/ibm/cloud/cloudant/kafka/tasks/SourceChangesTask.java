@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2023 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -14,30 +14,46 @@
 package com.ibm.cloud.cloudant.kafka.tasks;
 
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
+import com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil;
 import com.ibm.cloud.cloudant.kafka.SourceChangesConnector;
 import com.ibm.cloud.cloudant.kafka.caching.CachedClientManager;
 import com.ibm.cloud.cloudant.kafka.mappers.DocumentToSourceRecord;
 import com.ibm.cloud.cloudant.v1.Cloudant;
-import com.ibm.cloud.cloudant.v1.model.ChangesResult;
+import com.ibm.cloud.cloudant.v1.model.BulkGetQueryDocument;
 import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.DbEvent;
+import com.ibm.cloud.cloudant.v1.model.DbUpdates;
+import com.ibm.cloud.cloudant.v1.model.PostBulkGetOptions;
 import com.ibm.cloud.cloudant.v1.model.PostChangesOptions;
+import com.google.gson.reflect.TypeToken;
+import com.ibm.cloud.sdk.core.http.ServiceCall;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.storage.OffsetStorageReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 public class SourceChangesTask extends org.apache.kafka.connect.source.SourceTask {
 
     private static final Logger LOG = LoggerFactory.getLogger(SourceChangesTask.class);
 
+    private static final long CHANGES_TIMEOUT_MS = 60 * 1000L;
+
+    private static final long CHANGES_HEARTBEAT_MS = 30 * 1000L;
+
+    private static final long IDLE_BACKOFF_MS = 1000L;
+
     private SourceChangesConnectorConfig config;
 
     private String url = null;
@@ -50,50 +66,186 @@ public class SourceChangesTask extends org.apache.kafka.connect.source.SourceTas
 
     private int batchSize = 0;
 
-    private BiFunction<String, ChangesResultItem, SourceRecord> documentToSourceRecord;
+    private String filter = InterfaceConst.FILTER_NONE;
+
+    private Map<String, Object> selector = null;
+
+    private List<String> docIds = null;
+
+    private Function<ChangesResultItem, List<SourceRecord>> documentToSourceRecord;
+
+    private ChangesResponseReader changesReader;
+
+    // null if documents are included in the changes feed
+    private BulkGetDocumentFetcher documentFetcher = null;
+
+    // null if changes are fetched synchronously by poll
+    private ChangesFeed feed = null;
+
+    // null unless reading a list of databases, each with its own source partition
+    private MultiDatabaseChangesFeed databasesFeed = null;
+
+    private Map<String, Function<ChangesResultItem, List<SourceRecord>>> databaseToSourceRecord = null;
+
+    // null unless the limit of each _changes request adapts to the measured cost of a batch
+    private AdaptiveBatchSize adaptiveBatchSize = null;
+
+    // the number of changes returned by the last poll, and when
+    private int polledRows = 0;
+
+    private long polledAtMs = 0;
+
+    // null unless waking the databases of the databases feed from _db_updates
+    private DatabaseUpdatesFollower databaseUpdates = null;
+
+    private volatile ServiceCall<InputStream> changesCall = null;
 
     @Override
     public List<SourceRecord> poll() throws InterruptedException {
-        Cloudant service = CachedClientManager.getInstance(config.originalsStrings());
+        if (adaptiveBatchSize != null && polledRows > 0) {
+            // the time since the last poll returned was spent producing its records
+            adaptiveBatchSize.recordProduce(polledRows, System.currentTimeMillis() - polledAtMs);
+        }
+        polledRows = 0;
+
+        if (databasesFeed != null) {
+            return pollDatabases();
+        }
 
         LOG.debug("Process lastSeq: {}", latestSequenceNumber);
 
-        // the changes feed for initial processing (not continuous yet)
-        PostChangesOptions postChangesOptions = new PostChangesOptions.Builder()
-                .feed(PostChangesOptions.Feed.LONGPOLL)
-                .timeout(60 * 1000L)
-                .db(db)
-                .includeDocs(true)
-                .since(latestSequenceNumber)
-                .limit(batchSize)
-                .build();
-        ChangesResult cloudantChangesResult = service.postChanges(postChangesOptions).execute().getResult();
-
-        if (cloudantChangesResult != null) {
-            LOG.debug("Got {} changes", cloudantChangesResult.getResults().size());
-            latestSequenceNumber = cloudantChangesResult.getLastSeq();
-
-            // process the results into the array to be returned
-            List<SourceRecord> records = cloudantChangesResult.getResults().stream()
-                    .flatMap(row -> topics.stream().flatMap(topic -> {
-                        SourceRecord record = documentToSourceRecord.apply(topic, row);
-                        if (Optional.ofNullable(row.isDeleted()).orElse(false)) {
-                            // row is deleted, produce a tombstone message from the record as well
-                            SourceRecord tombstone = record.newRecord(record.topic(), record.kafkaPartition(), record.keySchema(), record.key(), null, null, record.timestamp());
-                            return Stream.of(record, tombstone);
-                        } else {
-                            return Stream.of(record);
-                        }
-                    })).collect(Collectors.toList());
+        ChangesBatch batch;
+        if (feed != null) {
+            batch = feed.poll(CHANGES_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            if (batch != null && feed instanceof ContinuousChangesFeed) {
+                batch = fetchDocuments(db, batch);
+            }
+        } else {
+            batch = fetchChanges(latestSequenceNumber);
+        }
+
+        if (batch != null) {
+            LOG.debug("Got {} changes", batch.getResults().size());
+            latestSequenceNumber = batch.getLastSeq();
+            polled(batch);
 
+            List<SourceRecord> records = toSourceRecords(documentToSourceRecord, batch);
             LOG.debug("Return {} records with last offset {}", records.size(), latestSequenceNumber);
             return records;
         }
 
-        // Only in case of shutdown
+        // Only in case of shutdown, or no changes within the timeout
         return null;
     }
 
+    private List<SourceRecord> pollDatabases() throws InterruptedException {
+        MultiDatabaseChangesFeed.DatabaseBatch databaseBatch = databasesFeed.poll(CHANGES_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (databaseBatch == null) {
+            // Only in case of shutdown, or no changes within the timeout
+            return null;
+        }
+        String batchDb = databaseBatch.getDb();
+        ChangesBatch batch = fetchDocuments(batchDb, databaseBatch.getBatch());
+        LOG.debug("Got {} changes from database {}", batch.getResults().size(), batchDb);
+        polled(batch);
+        List<SourceRecord> records = toSourceRecords(databaseToSourceRecord.get(batchDb), batch);
+        LOG.debug("Return {} records from database {} with last offset {}", records.size(), batchDb, batch.getLastSeq());
+        return records;
+    }
+
+    private void polled(ChangesBatch batch) {
+        polledRows = batch.getResults().size();
+        polledAtMs = System.currentTimeMillis();
+    }
+
+    // process the results into the array to be returned
+    private List<SourceRecord> toSourceRecords(Function<ChangesResultItem, List<SourceRecord>> mapper, ChangesBatch batch) {
+        // each row is mapped once, to records for all the topics
+        List<SourceRecord> records = new ArrayList<>(batch.getResults().size() * topics.size());
+        for (ChangesResultItem row : batch.getResults()) {
+            records.addAll(mapper.apply(row));
+        }
+        return records;
+    }
+
+    private ChangesBatch fetchChanges(String since) {
+        return fetchDocuments(db, fetchChanges(db, since, PostChangesOptions.Feed.LONGPOLL));
+    }
+
+    private ChangesBatch fetchChanges(String changesDb, String since, String feedType) {
+        Cloudant service = CachedClientManager.getInstance(config.originalsStrings());
+
+        int limit = (adaptiveBatchSize == null) ? batchSize : adaptiveBatchSize.limit();
+        PostChangesOptions postChangesOptions = filtered(new PostChangesOptions.Builder())
+                .feed(feedType)
+                .timeout(CHANGES_TIMEOUT_MS)
+                .db(changesDb)
+                .includeDocs(documentFetcher == null)
+                .since(since)
+                .limit(limit)
+                .build();
+        ServiceCall<InputStream> call = service.postChangesAsStream(postChangesOptions);
+        // only a long poll needs abandoning on stop
+        boolean longpoll = PostChangesOptions.Feed.LONGPOLL.equals(feedType);
+        if (longpoll) {
+            changesCall = call;
+        }
+        long startMs = System.currentTimeMillis();
+        try {
+            ChangesBatch batch = changesReader.read(call.execute().getResult());
+            if (adaptiveBatchSize != null) {
+                adaptiveBatchSize.recordFetch(limit, batch, System.currentTimeMillis() - startMs);
+            }
+            return batch;
+        } catch (IOException e) {
+            throw new ConnectException("Failed to read changes", e);
+        } finally {
+            if (longpoll) {
+                changesCall = null;
+            }
+        }
+    }
+
+    private InputStream openContinuousChanges(String since) {
+        Cloudant service = CachedClientManager.getInstance(config.originalsStrings());
+
+        PostChangesOptions postChangesOptions = filtered(new PostChangesOptions.Builder())
+                .feed(PostChangesOptions.Feed.CONTINUOUS)
+                .heartbeat(CHANGES_HEARTBEAT_MS)
+                .db(db)
+                .includeDocs(documentFetcher == null)
+                .since(since)
+                .build();
+        return service.postChangesAsStream(postChangesOptions).execute().getResult();
+    }
+
+    // filter the changes on the server, so that changes to other documents are never sent
+    private PostChangesOptions.Builder filtered(PostChangesOptions.Builder builder) {
+        if (InterfaceConst.FILTER_SELECTOR.equalsIgnoreCase(filter)) {
+            builder.filter(InterfaceConst.FILTER_SELECTOR).selector(selector);
+        } else if (InterfaceConst.FILTER_DOC_IDS.equalsIgnoreCase(filter)) {
+            builder.filter(InterfaceConst.FILTER_DOC_IDS).docIds(docIds);
+        } else if (InterfaceConst.FILTER_DESIGN.equalsIgnoreCase(filter)) {
+            builder.filter(InterfaceConst.FILTER_DESIGN);
+        }
+        return builder;
+    }
+
+    private ChangesBatch fetchDocuments(String batchDb, ChangesBatch batch) {
+        return (documentFetcher == null) ? batch : documentFetcher.apply(batchDb, batch);
+    }
+
+    private InputStream bulkGet(String bulkGetDb, List<BulkGetQueryDocument> docs) {
+        Cloudant service = CachedClientManager.getInstance(config.originalsStrings());
+
+        PostBulkGetOptions postBulkGetOptions = new PostBulkGetOptions.Builder()
+                .db(bulkGetDb)
+                .docs(docs)
+                .latest(true)
+                .build();
+        return service.postBulkGetAsStream(postBulkGetOptions).execute().getResult();
+    }
+
     @Override
     public void start(Map<String, String> props) {
         this.config = new SourceChangesConnectorConfig(SourceChangesConnectorConfig.CONFIG_DEF, props);
@@ -102,6 +254,32 @@ public class SourceChangesTask extends org.apache.kafka.connect.source.SourceTas
         topics = config.getList(InterfaceConst.TOPIC);
         latestSequenceNumber = config.getString(InterfaceConst.LAST_CHANGE_SEQ);
         batchSize = config.getInt(InterfaceConst.BATCH_SIZE);
+        filter = config.getString(InterfaceConst.FILTER);
+        if (InterfaceConst.FILTER_SELECTOR.equalsIgnoreCase(filter)) {
+            selector = GsonSingleton.getGson().fromJson(config.getString(InterfaceConst.SELECTOR),
+                    new TypeToken<Map<String, Object>>() { }.getType());
+        }
+        docIds = config.getList(InterfaceConst.DOC_IDS);
+        if (!InterfaceConst.FILTER_NONE.equalsIgnoreCase(filter)) {
+            LOG.info("Filter changes with {}", filter);
+        }
+        if (config.getBoolean(InterfaceConst.BATCH_ADAPTIVE)) {
+            if (PostChangesOptions.Feed.CONTINUOUS.equalsIgnoreCase(config.getString(InterfaceConst.FEED))) {
+                LOG.warn("Adaptive batch size does not apply to the continuous feed, using batch.size {}", batchSize);
+            } else {
+                adaptiveBatchSize = new AdaptiveBatchSize(batchSize,
+                        config.getInt(InterfaceConst.BATCH_SIZE_MIN),
+                        config.getInt(InterfaceConst.BATCH_SIZE_MAX),
+                        config.getLong(InterfaceConst.BATCH_TARGET_LATENCY_MS),
+                        config.getLong(InterfaceConst.MAX_BATCH_BYTES));
+            }
+        }
+
+        List<String> dbs = config.getList(InterfaceConst.DBS);
+        if (!dbs.isEmpty()) {
+            startDatabases(dbs);
+            return;
+        }
 
         // Note this is a unique identifier for the Cloudant source.
         // At present we consider a DB the source partition and
@@ -110,7 +288,7 @@ public class SourceChangesTask extends org.apache.kafka.connect.source.SourceTas
         sourcePartition.put(InterfaceConst.URL, url);
         sourcePartition.put(InterfaceConst.DB, db);
 
-        this.documentToSourceRecord = new DocumentToSourceRecord(sourcePartition, SourceChangesTask::offsetValue);
+        this.documentToSourceRecord = new DocumentToSourceRecord(sourcePartition, SourceChangesTask::offsetValue, topics);
 
         // if we have a stored `cloudant.since` value, use this in preference to the default or user-supplied option
         OffsetStorageReader offsetReader = context.offsetStorageReader();
@@ -122,11 +300,141 @@ public class SourceChangesTask extends org.apache.kafka.connect.source.SourceTas
             }
         }
         LOG.info("Start with latestSequenceNumber={}", latestSequenceNumber);
+
+        int prefetchBatches = config.getInt(InterfaceConst.PREFETCH_BATCHES);
+        long prefetchMaxBytes = config.getLong(InterfaceConst.PREFETCH_MAX_BYTES);
+        long maxBatchBytes = config.getLong(InterfaceConst.MAX_BATCH_BYTES);
+        boolean raw = isRawValueFormat();
+        changesReader = raw
+                ? new RawChangesResponseReader(maxBatchBytes)
+                : new ChangesResponseReader(maxBatchBytes);
+        if (InterfaceConst.DOC_FETCH_BULK_GET.equalsIgnoreCase(config.getString(InterfaceConst.DOC_FETCH))) {
+            LOG.info("Fetch documents with _bulk_get");
+            documentFetcher = bulkGetDocumentFetcher("cloudant-bulk-get-" + db);
+        }
+        if (PostChangesOptions.Feed.CONTINUOUS.equalsIgnoreCase(config.getString(InterfaceConst.FEED))) {
+            LOG.info("Start continuous changes feed");
+            feed = new ContinuousChangesFeed("cloudant-changes-" + db,
+                    this::openContinuousChanges,
+                    latestSequenceNumber,
+                    new ContinuousChangesFeed.Options()
+                            .rowReader(raw ? RawChangesResponseReader::readLine : ContinuousChangesFeed::readLine)
+                            .maxBatchRows(batchSize)
+                            .maxBatchBytes(maxBatchBytes)
+                            .lingerMs(config.getLong(InterfaceConst.LINGER_MS))
+                            .maxBufferedRows(batchSize * (prefetchBatches + 1))
+                            .maxBufferedBytes(prefetchMaxBytes));
+        } else if (prefetchBatches > 0) {
+            feed = new ChangesPrefetcher("cloudant-changes-" + db,
+                    this::fetchChanges,
+                    latestSequenceNumber,
+                    prefetchBatches,
+                    prefetchMaxBytes);
+        }
+        if (feed != null) {
+            feed.start();
+        }
+    }
+
+    // Read each database in its own source partition, with a shared pool of fetchers taking turns between them
+    private void startDatabases(List<String> dbs) {
+        LOG.info("Start with databases {}", dbs);
+        OffsetStorageReader offsetReader = context.offsetStorageReader();
+        databaseToSourceRecord = new HashMap<>(dbs.size());
+        Map<String, String> since = new LinkedHashMap<>(dbs.size());
+        for (String partitionDb : dbs) {
+            Map<String, String> sourcePartition = new HashMap<>(2);
+            sourcePartition.put(InterfaceConst.URL, url);
+            sourcePartition.put(InterfaceConst.DB, partitionDb);
+            databaseToSourceRecord.put(partitionDb, new DocumentToSourceRecord(sourcePartition, SourceChangesTask::offsetValue, topics));
+            String partitionSince = latestSequenceNumber;
+            if (offsetReader != null) {
+                Map<String, Object> offset = offsetReader.offset(sourcePartition);
+                if (offset != null) {
+                    partitionSince = (String) offset.get(InterfaceConst.LAST_CHANGE_SEQ);
+                }
+            }
+            LOG.info("Start database {} with latestSequenceNumber={}", partitionDb, partitionSince);
+            since.put(partitionDb, partitionSince);
+        }
+
+        changesReader = isRawValueFormat()
+                ? new RawChangesResponseReader(config.getLong(InterfaceConst.MAX_BATCH_BYTES))
+                : new ChangesResponseReader(config.getLong(InterfaceConst.MAX_BATCH_BYTES));
+        if (InterfaceConst.DOC_FETCH_BULK_GET.equalsIgnoreCase(config.getString(InterfaceConst.DOC_FETCH))) {
+            LOG.info("Fetch documents with _bulk_get");
+            documentFetcher = bulkGetDocumentFetcher("cloudant-bulk-get");
+        }
+        long maxIdleBackoffMs = config.getLong(InterfaceConst.IDLE_BACKOFF_MAX_MS);
+        boolean followDbUpdates = config.getBoolean(InterfaceConst.DB_UPDATES);
+        databasesFeed = new MultiDatabaseChangesFeed("cloudant-changes",
+                (changesDb, changesSince) -> fetchChanges(changesDb, changesSince, PostChangesOptions.Feed.NORMAL),
+                since,
+                config.getInt(InterfaceConst.FETCH_THREADS),
+                // always read ahead at least one batch to keep the fetchers busy
+                Math.max(1, config.getInt(InterfaceConst.PREFETCH_BATCHES)),
+                config.getLong(InterfaceConst.PREFETCH_MAX_BYTES),
+                Math.min(IDLE_BACKOFF_MS, maxIdleBackoffMs),
+                maxIdleBackoffMs,
+                followDbUpdates);
+        if (followDbUpdates) {
+            // follow from before the first turns, so that no update is missed
+            LOG.info("Read databases when _db_updates reports them updated");
+            databaseUpdates = new DatabaseUpdatesFollower("cloudant-db-updates",
+                    this::fetchDbUpdates,
+                    DatabaseUpdatesFollower.SINCE_NOW,
+                    (updatedDb, type) -> {
+                        if (!DbEvent.Type.DELETED.equals(type)) {
+                            databasesFeed.wake(updatedDb);
+                        }
+                    },
+                    // parked databases would never be read again, so fail the task
+                    e -> databasesFeed.fail(new ConnectException("Failed to read _db_updates", e)),
+                    IDLE_BACKOFF_MS);
+            databaseUpdates.start();
+        }
+        databasesFeed.start();
+    }
+
+    private DbUpdates fetchDbUpdates(String since) {
+        Cloudant service = CachedClientManager.getInstance(config.originalsStrings());
+        return JavaCloudantUtil.getDbUpdates(service, since, CHANGES_TIMEOUT_MS);
+    }
+
+    private BulkGetDocumentFetcher bulkGetDocumentFetcher(String name) {
+        return new BulkGetDocumentFetcher(name,
+                this::bulkGet,
+                config.getInt(InterfaceConst.BULK_GET_CHUNK_SIZE),
+                config.getInt(InterfaceConst.BULK_GET_CONCURRENCY));
+    }
+
+    private boolean isRawValueFormat() {
+        boolean raw = InterfaceConst.VALUE_FORMAT_RAW.equalsIgnoreCase(config.getString(InterfaceConst.VALUE_FORMAT));
+        if (raw) {
+            LOG.info("Produce documents as raw JSON bytes");
+        }
+        return raw;
     }
 
     @Override
     public void stop() {
-        // nothing to do
+        if (feed != null) {
+            feed.close();
+        }
+        if (databaseUpdates != null) {
+            databaseUpdates.close();
+        }
+        if (databasesFeed != null) {
+            databasesFeed.close();
+        }
+        if (documentFetcher != null) {
+            documentFetcher.close();
+        }
+        // abandon any long poll in progress
+        ServiceCall<InputStream> call = changesCall;
+        if (call != null) {
+            call.cancel();
+        }
     }
 
     private static Map<String, String> offsetValue(String lastSeqNumber) {
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,18 +13,18 @@
  */
 package com.ibm.cloud.cloudant.kafka.transforms;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.AbstractMap.SimpleEntry;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigDef.Type;
 import org.apache.kafka.connect.data.ConnectSchema;
-import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.transforms.Transformation;
@@ -32,6 +32,7 @@ import org.apache.kafka.connect.transforms.util.Requirements;
 import org.apache.kafka.connect.transforms.util.SimpleConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.ibm.cloud.cloudant.kafka.utils.CompactMap;
 import com.ibm.cloud.cloudant.kafka.utils.MessageKey;
 import com.ibm.cloud.cloudant.kafka.utils.ResourceBundleUtil;
 
@@ -42,6 +43,7 @@ public class ArrayFlatten implements Transformation<SourceRecord> {
     static final String DEFAULT_DELIMITER = ".";
     static final String DELIMITER_CONFIG_NAME = "delimiter";
     private String delimiter = DEFAULT_DELIMITER;
+    private final KeyInterner keys = new KeyInterner();
 
     private static final ConfigDef CONFIG = new ConfigDef()
             .define(DELIMITER_CONFIG_NAME,
@@ -85,53 +87,139 @@ public class ArrayFlatten implements Transformation<SourceRecord> {
         // No cleanup to do
     }
 
+    // flatten the arrays of a map, and of the maps nested in it, in one walk of each map
     Map<String, Object> flattenArraysInMap(Map<String, Object> map) {
-        return Collections.unmodifiableMap(map.entrySet().stream()
-            .flatMap(entry -> {
-                return entryToEntryStream(entry);
-            })
-            .collect(() -> new HashMap<String, Object>(),
-                    (collectingMap, entry) -> {
-                        collectingMap.put(entry.getKey(), entry.getValue());
-                    },
-                    (a, b) -> {
-                        a.putAll(b);
-                    }));
-            // Note this custom collector is required to accommodate null values
-            // The default Collectors.toMap(...) will NPE on null values (since many maps don't support them)
+        CompactMap.Builder builder = CompactMap.builder(flattenedSize(map));
+        // Note the builder is used rather than Collectors.toMap(...) to accommodate null values
+        // The default Collectors.toMap(...) will NPE on null values (since many maps don't support them)
+        flattenEntries(map, builder::put, this::flattenArraysInMap);
+        return builder.build();
     }
 
-    Stream<Map.Entry<String, Object>> entryToEntryStream(Map.Entry<String, Object> entry) {
-        return keyAndObjectToEntryStream(entry.getKey(), entry.getValue());
+    // the number of entries of a map with its arrays, and the arrays nested in them, flattened
+    static int flattenedSize(Map<String, Object> map) {
+        int size = 0;
+        Deque<Iterator<?>> stack = new ArrayDeque<>();
+        for (Object value : map.values()) {
+            if (!(value instanceof List)) {
+                size++;
+                continue;
+            }
+            // an array is replaced by the elements that are not arrays, at any depth
+            stack.push(((List<?>) value).iterator());
+            while (!stack.isEmpty()) {
+                Iterator<?> elements = stack.peek();
+                if (!elements.hasNext()) {
+                    stack.pop();
+                } else {
+                    Object element = elements.next();
+                    if (element instanceof List) {
+                        stack.push(((List<?>) element).iterator());
+                    } else {
+                        size++;
+                    }
+                }
+            }
+        }
+        return size;
     }
 
-    @SuppressWarnings("unchecked")
-    Stream<Map.Entry<String, Object>> keyAndObjectToEntryStream(String key, Object value) {
-        if (value != null) {
-            Schema.Type schemaType = ConnectSchema.schemaType(value.getClass());
-            switch (schemaType) {
-                case ARRAY:
-                    return keyAndArrayAsEntryStream(key, (List<Object>) value);
-                case MAP:
-                    return keyAndMapAsEntryStream(key, (Map<String, Object>) value);
-                default:
-                    break;
+    /**
+     * Put the entries of a map, in order, with its arrays flattened.
+     *
+     * @param map the map to flatten
+     * @param target receives each flattened key and value
+     * @param nested converts the maps that are values of the map, or elements of its arrays
+     */
+    void flattenEntries(Map<String, Object> map, BiConsumer<String, Object> target, Function<Map<String, Object>, Object> nested) {
+        StringBuilder keyBuffer = null;
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof List) {
+                if (keyBuffer == null) {
+                    keyBuffer = new StringBuilder(64);
+                }
+                putArray(target, nested, keyBuffer, entry.getKey(), (List<?>) value);
+            } else {
+                target.accept(entry.getKey(), flattenValue(nested, value));
             }
         }
-        return Stream.of(new SimpleEntry<String, Object>(key, value));
     }
 
-    Stream<Map.Entry<String, Object>> keyAndMapAsEntryStream(String key, Map<String, Object> map) {
-        return Stream.of(new SimpleEntry<String, Object>(key, flattenArraysInMap(map)));
+    // put the elements of an array, and of the arrays nested in it, with their flattened keys,
+    // walking the nested arrays with a stack instead of recursion
+    private void putArray(BiConsumer<String, Object> target, Function<Map<String, Object>, Object> nested,
+            StringBuilder keyBuffer, String key, List<?> array) {
+        keyBuffer.setLength(0);
+        keyBuffer.append(key);
+        Deque<ArrayPosition> stack = new ArrayDeque<>();
+        stack.push(new ArrayPosition(array, keyBuffer.length()));
+        while (!stack.isEmpty()) {
+            ArrayPosition position = stack.peek();
+            if (!position.elements.hasNext()) {
+                stack.pop();
+                continue;
+            }
+            Object element = position.elements.next();
+            keyBuffer.setLength(position.keyLength);
+            keyBuffer.append(delimiter).append(position.index++);
+            if (element instanceof List) {
+                stack.push(new ArrayPosition((List<?>) element, keyBuffer.length()));
+            } else {
+                target.accept(keys.intern(keyBuffer), flattenValue(nested, element));
+            }
+        }
     }
 
-    Stream<Map.Entry<String, Object>> keyAndArrayAsEntryStream(String key, List<Object> array) {;
-        int index = 0;
-        List<Map.Entry<String, Object>> newEntries = new ArrayList<>();
-        for (Object element : array) {
-            String newKey = new StringBuilder(key).append(delimiter).append(index++).toString();
-            newEntries.addAll(keyAndObjectToEntryStream(newKey, element).collect(Collectors.toList()));
+    @SuppressWarnings("unchecked")
+    private static Object flattenValue(Function<Map<String, Object>, Object> nested, Object value) {
+        if (value instanceof Map) {
+            return nested.apply((Map<String, Object>) value);
+        }
+        if (value != null && ConnectSchema.schemaType(value.getClass()) == null
+                && !(value instanceof BigDecimal) && !(value instanceof Date)) {
+            // not a Connect data type, nor the value of a Decimal or Date/Time/Timestamp logical type
+            throw new DataException(String.format(ResourceBundleUtil.get(MessageKey.CLOUDANT_ARRAY_UNKNOWN_TYPE),
+                    value.getClass().getName()));
+        }
+        return value;
+    }
+
+    // the next element of an array being flattened, and the length of its key prefix
+    private static final class ArrayPosition {
+
+        private final Iterator<?> elements;
+        private final int keyLength;
+        private int index = 0;
+
+        private ArrayPosition(List<?> array, int keyLength) {
+            this.elements = array.iterator();
+            this.keyLength = keyLength;
+        }
+    }
+
+    /**
+     * A fixed size table of flattened keys, so that keys such as "tags.0", repeated in every
+     * document, are made into a String once and shared. A key replaces any other key in its slot.
+     */
+    private static final class KeyInterner {
+
+        private static final int SIZE = 4096;
+
+        private final String[] table = new String[SIZE];
+
+        String intern(CharSequence key) {
+            int h = 0;
+            for (int i = 0; i < key.length(); i++) {
+                h = 31 * h + key.charAt(i);
+            }
+            int slot = (h ^ (h >>> 16)) & (SIZE - 1);
+            String interned = table[slot];
+            if (interned == null || !interned.contentEquals(key)) {
+                interned = key.toString();
+                table[slot] = interned;
+            }
+            return interned;
         }
-        return newEntries.stream();
     }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.transforms;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaAndValue;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.errors.DataException;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.apache.kafka.connect.transforms.Transformation;
+import org.apache.kafka.connect.transforms.util.Requirements;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.ibm.cloud.cloudant.kafka.utils.MessageKey;
+import com.ibm.cloud.cloudant.kafka.utils.ResourceBundleUtil;
+
+/**
+ * Flattens the arrays of map values, as {@link ArrayFlatten} does, and converts them to structs
+ * with an inferred schema, as {@link MapToStruct} does, in one pass.
+ *
+ * The schema and value are the same as those of the two transforms applied in turn, but no
+ * flattened map is built. Schemas are cached in the schema cache of {@link MapToStruct}, by the
+ * fingerprint of the flattened map, so they are shared with that transform.
+ */
+public class ArrayFlattenToStruct implements Transformation<SourceRecord> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ArrayFlattenToStruct.class);
+
+    private final ArrayFlatten arrayFlatten = new ArrayFlatten();
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+        arrayFlatten.configure(configs);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public SourceRecord apply(SourceRecord record) {
+        Object value = record.value();
+        try {
+            Requirements.requireMapOrNull(value, String.format(ResourceBundleUtil.get(MessageKey.CLOUDANT_ARRAY_PURPOSE), this.getClass().getName()));
+        } catch (DataException de) {
+            // The record is not a map/null so we can't flatten and just log dropping the record
+            LOG.warn(ResourceBundleUtil.get(MessageKey.CLOUDANT_TRANSFORM_FILTER_RECORD), de);
+            return null;
+        }
+        if (value != null) {
+            SchemaAndValue transformed = toStruct((Map<String, Object>) value);
+            return record.newRecord(record.topic(), record.kafkaPartition(), record.keySchema(), record.key(), transformed.schema(), transformed.value(), record.timestamp());
+        }
+        // If there is a null value we can't transform so return the original record
+        return record;
+    }
+
+    @Override
+    public ConfigDef config() {
+        return arrayFlatten.config();
+    }
+
+    @Override
+    public void close() {
+        arrayFlatten.close();
+    }
+
+    // convert with the cached schema of the flattened map, inferring and caching it if there is none
+    SchemaAndValue toStruct(Map<String, Object> map) {
+        FlattenedMap flattened = flatten(map);
+        StringBuilder fingerprint = new StringBuilder(16 * flattened.size);
+        Schema schema;
+        if (flattened.appendFingerprint(fingerprint)) {
+            String key = fingerprint.toString();
+            schema = MapToStruct.SCHEMA_CACHE.get(key);
+            if (schema == null) {
+                schema = flattened.inferSchema();
+                MapToStruct.SCHEMA_CACHE.put(key, schema);
+            }
+        } else {
+            MapToStruct.SCHEMA_CACHE.countUncached();
+            schema = flattened.inferSchema();
+        }
+        return new SchemaAndValue(schema, flattened.toStruct(schema));
+    }
+
+    private FlattenedMap flatten(Map<String, Object> map) {
+        FlattenedMap flattened = new FlattenedMap(ArrayFlatten.flattenedSize(map));
+        arrayFlatten.flattenEntries(map, flattened::put, this::flatten);
+        flattened.sort();
+        return flattened;
+    }
+
+    // the entries of a map with its arrays flattened, in the order they were put, with its
+    // nested maps flattened in turn
+    private static final class FlattenedMap {
+
+        private String[] keys;
+        private Object[] values;
+        private int size = 0;
+        // the positions of the entries in key order, set by sort()
+        private int[] sorted;
+        private int unique;
+
+        private FlattenedMap(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            keys = new String[capacity];
+            values = new Object[capacity];
+        }
+
+        private void put(String key, Object value) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, 2 * size);
+                values = Arrays.copyOf(values, 2 * size);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+        }
+
+        // order the entries by key; a key put more than once keeps its first position and its
+        // last value, as in a map, and its other entries are dropped
+        private void sort() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // stable, so entries with the same key stay in the order they were put
+            Arrays.sort(order, (a, b) -> keys[a].compareTo(keys[b]));
+            sorted = new int[size];
+            unique = 0;
+            for (int i = 0; i < size;) {
+                int first = order[i];
+                int last = first;
+                for (i++; i < size && keys[order[i]].equals(keys[first]); i++) {
+                    last = order[i];
+                    keys[last] = null;
+                }
+                values[first] = values[last];
+                sorted[unique++] = first;
+            }
+        }
+
+        // the fingerprint the flattened map would have, see SchemaCache.fingerprint(Map)
+        private boolean appendFingerprint(StringBuilder fingerprint) {
+            SchemaCache.beginMap(fingerprint);
+            for (int i = 0; i < size; i++) {
+                if (keys[i] == null) {
+                    continue;
+                }
+                SchemaCache.appendKey(fingerprint, keys[i]);
+                Object value = values[i];
+                if (value instanceof FlattenedMap) {
+                    if (!((FlattenedMap) value).appendFingerprint(fingerprint)) {
+                        return false;
+                    }
+                } else if (!SchemaCache.appendValue(fingerprint, value)) {
+                    return false;
+                }
+            }
+            SchemaCache.endMap(fingerprint);
+            return true;
+        }
+
+        // the schema MapToStruct infers for the flattened map
+        private Schema inferSchema() {
+            SchemaBuilder schemaBuilder = SchemaBuilder.struct().optional();
+            for (int i = 0; i < unique; i++) {
+                Object value = values[sorted[i]];
+                schemaBuilder.field(keys[sorted[i]], (value instanceof FlattenedMap)
+                        ? ((FlattenedMap) value).inferSchema()
+                        : MapToStruct.objectToSchemaAndValue(value).schema());
+            }
+            return schemaBuilder.build();
+        }
+
+        private Struct toStruct(Schema schema) {
+            Struct struct = new Struct(schema);
+            List<Field> fields = schema.fields();
+            for (int i = 0; i < unique; i++) {
+                Field field = fields.get(i);
+                Object value = values[sorted[i]];
+                struct.put(field, (value instanceof FlattenedMap) ? ((FlattenedMap) value).toStruct(field.schema()) : value);
+            }
+            return struct;
+        }
+    }
+}
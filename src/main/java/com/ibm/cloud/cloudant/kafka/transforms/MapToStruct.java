@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -14,14 +14,16 @@
 package com.ibm.cloud.cloudant.kafka.transforms;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
-import java.util.stream.Collectors;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Decimal;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaAndValue;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -36,12 +38,41 @@ import com.ibm.cloud.cloudant.kafka.utils.MessageKey;
 import com.ibm.cloud.cloudant.kafka.utils.ResourceBundleUtil;
 import static org.apache.kafka.connect.transforms.util.Requirements.requireMapOrNull;
 
+/**
+ * Converts map values to structs with an inferred schema.
+ *
+ * Inferred schemas are cached, shared by all the instances of the transform, by the structure of
+ * the values they were inferred from (see {@link SchemaCache}). Values with the same structure get
+ * the same Schema object, and are converted to structs without inferring it again.
+ */
 public class MapToStruct implements Transformation<SourceRecord> {
 
+    /**
+     * The maximum number of schemas cached, the least recently used are evicted.
+     */
+    public static final int SCHEMA_CACHE_SIZE = 1000;
+
+    /**
+     * The JMX object name of the schema cache metrics.
+     */
+    public static final String SCHEMA_CACHE_METRICS_NAME = "com.ibm.cloud.cloudant.kafka:type=MapToStruct,name=schema-cache";
+
     public static final Schema NULL_VALUE_SCHEMA = SchemaBuilder.string().optional().name("NULL_VALUE_SCHEMA").build();
     private static final SchemaAndValue NULL_SCHEMA_AND_VALUE = new SchemaAndValue(NULL_VALUE_SCHEMA, null);
+    // the optional schemas of primitive values, built once as they are immutable
+    private static final Map<Schema.Type, Schema> PRIMITIVE_SCHEMAS = new EnumMap<>(Schema.Type.class);
+    private static final Schema TIMESTAMP_SCHEMA = Timestamp.builder().optional().build();
+
+    static {
+        for (Schema.Type type : Schema.Type.values()) {
+            if (type.isPrimitive()) {
+                PRIMITIVE_SCHEMAS.put(type, new SchemaBuilder(type).optional().build());
+            }
+        }
+    }
     private static final ConfigDef EMPTY_CONFIG = new ConfigDef();
     private static final Logger LOG = LoggerFactory.getLogger(ArrayFlatten.class);
+    static final SchemaCache SCHEMA_CACHE = new SchemaCache(SCHEMA_CACHE_SIZE).register(SCHEMA_CACHE_METRICS_NAME);
 
     @Override
     public void configure(Map<String, ?> configs) {
@@ -58,7 +89,7 @@ public class MapToStruct implements Transformation<SourceRecord> {
         }
         if (record.value() != null) {
             Map<String, Object> originalValueAsMap = (Map<String, Object>) record.value();
-            SchemaAndValue transformed = mapToStruct(originalValueAsMap);
+            SchemaAndValue transformed = toStruct(originalValueAsMap);
             return record.newRecord(record.topic(), record.kafkaPartition(), record.keySchema(), record.key(), transformed.schema(), transformed.value(), record.timestamp());
         }
         // If there is a null value we can't transform so return the original record
@@ -73,47 +104,104 @@ public class MapToStruct implements Transformation<SourceRecord> {
 
     @Override
     public void close() {
-        // No-op, no cleanup to do.
+        // No-op, no cleanup to do, the schema cache is shared.
+        LOG.debug("Schema cache hits {} misses {} uncached {} evictions {} size {}", SCHEMA_CACHE.getHits(),
+                SCHEMA_CACHE.getMisses(), SCHEMA_CACHE.getUncached(), SCHEMA_CACHE.getEvictions(), SCHEMA_CACHE.getSize());
+    }
+
+    // convert with the cached schema of values with the same structure, inferring and caching it if there is none
+    static SchemaAndValue toStruct(Map<String, Object> jsonMap) {
+        String fingerprint = SchemaCache.fingerprint(jsonMap);
+        if (fingerprint == null) {
+            SCHEMA_CACHE.countUncached();
+            return mapToStruct(jsonMap);
+        }
+        Schema schema = SCHEMA_CACHE.get(fingerprint);
+        if (schema == null) {
+            SchemaAndValue inferred = mapToStruct(jsonMap);
+            SCHEMA_CACHE.put(fingerprint, inferred.schema());
+            return inferred;
+        }
+        return new SchemaAndValue(schema, valueForSchema(schema, jsonMap));
+    }
+
+    // the value for a schema inferred from a value of the same structure
+    @SuppressWarnings("unchecked")
+    static Object valueForSchema(Schema schema, Object value) {
+        if (value == null) {
+            return null;
+        }
+        switch (schema.type()) {
+            case STRUCT:
+                Map<String, Object> map = (Map<String, Object>) value;
+                Struct struct = new Struct(schema);
+                for (Field field : schema.fields()) {
+                    struct.put(field, valueForSchema(field.schema(), map.get(field.name())));
+                }
+                return struct;
+            case ARRAY:
+                List<Object> list = (List<Object>) value;
+                List<Object> array = new ArrayList<>(list.size());
+                for (Object element : list) {
+                    array.add(valueForSchema(schema.valueSchema(), element));
+                }
+                return array;
+            default:
+                return value;
+        }
     }
 
     static SchemaAndValue mapToStruct(Map<String, Object> jsonMap) {
-        // Collect in a TreeMap so the keys are ordered
-        Map<String, SchemaAndValue> intermediate = jsonMap.entrySet().stream().parallel()
-            .collect(Collectors.toMap(Map.Entry::getKey, MapToStruct::entryToSchemaAndValue, (v1, v2) -> v1, TreeMap::new));
+        // Sort the keys so the fields are ordered
+        String[] keys = jsonMap.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        Object[] values = new Object[keys.length];
         SchemaBuilder schemaBuilder = SchemaBuilder.struct().optional();
-        intermediate.forEach((k, sav) -> {
-            schemaBuilder.field(k, sav.schema());
-        });
+        for (int i = 0; i < keys.length; i++) {
+            SchemaAndValue sav = objectToSchemaAndValue(jsonMap.get(keys[i]));
+            schemaBuilder.field(keys[i], sav.schema());
+            values[i] = sav.value();
+        }
         Schema schema = schemaBuilder.build();
         Struct struct = new Struct(schema);
-        intermediate.forEach((k, sav) -> {
-            struct.put(k, sav.value());
-        });
+        List<Field> fields = schema.fields();
+        for (int i = 0; i < values.length; i++) {
+            struct.put(fields.get(i), values[i]);
+        }
         return new SchemaAndValue(schema, struct);
     }
 
     static SchemaAndValue listToArray(List<Object> jsonArray) {
-        List<SchemaAndValue> array = jsonArray.stream()
-            .sequential()
-            .map(MapToStruct::objectToSchemaAndValue)
-            .collect(Collectors.toList());
-        List<Schema> schemas = array.stream().map(SchemaAndValue::schema).distinct().collect(Collectors.toList());
-        boolean hasNullValues = schemas.remove(NULL_VALUE_SCHEMA);
+        List<Object> values = new ArrayList<>(jsonArray.size());
+        // the schema of the non-null elements, which must all be the same
+        Schema elementSchema = null;
+        boolean mixed = false;
+        for (Object element : jsonArray) {
+            SchemaAndValue sav = objectToSchemaAndValue(element);
+            values.add(sav.value());
+            if (!NULL_VALUE_SCHEMA.equals(sav.schema())) {
+                if (elementSchema == null) {
+                    elementSchema = sav.schema();
+                } else if (!elementSchema.equals(sav.schema())) {
+                    mixed = true;
+                }
+            }
+        }
         Schema arraySchema;
-        if( array.isEmpty() || (hasNullValues && schemas.isEmpty())) {
+        if (elementSchema == null) {
             // There are certain arrays where we cannot infer the schema from the elements.
             // If there are no elements to test, or if the only values are nulls.
             // For these cases we just call it an optional string and move on.
             arraySchema = NULL_VALUE_SCHEMA;
             LOG.warn(ResourceBundleUtil.get(MessageKey.CLOUDANT_STRUCT_UNDETECTABLE_ARRAY));
-        } else if (schemas.size() > 1) {
+        } else if (mixed) {
             // If there are multiple schemas then throw an exception because mixed type arrays are not supported by Struct
             throw new DataException(String.format(ResourceBundleUtil.get(MessageKey.CLOUDANT_STRUCT_MIXED_TYPE_ARRAY), ArrayFlatten.class.getName()));
         } else {
             // Finally for the case of a single schema for all elements we can use it
-            arraySchema = schemas.get(0);
+            arraySchema = elementSchema;
         }
-        return new SchemaAndValue(SchemaBuilder.array(arraySchema).optional().build(), array.stream().map(SchemaAndValue::value).collect(Collectors.toList()));
+        return new SchemaAndValue(SchemaBuilder.array(arraySchema).optional().build(), values);
     }
 
     @SuppressWarnings("unchecked")
@@ -138,7 +226,7 @@ public class MapToStruct implements Transformation<SourceRecord> {
                     case INT64:
                     case INT8:
                     case STRING:
-                        return new SchemaAndValue(new SchemaBuilder(inferredSchemaType).optional().build(), o);
+                        return new SchemaAndValue(PRIMITIVE_SCHEMAS.get(inferredSchemaType), o);
                     case STRUCT:
                     default:
                         throw new DataException(String.format(ResourceBundleUtil.get(MessageKey.CLOUDANT_STRUCT_UNHANDLED_TYPE), inferredSchemaType.name()));
@@ -153,15 +241,10 @@ public class MapToStruct implements Transformation<SourceRecord> {
                     return new SchemaAndValue(s, o);
                 } else if (o instanceof Date) {
                     // Could also be a Time or a Date, but Timestamp keeps both parts.
-                    Schema s = Timestamp.builder().optional().build();
-                    return new SchemaAndValue(s, o);
+                    return new SchemaAndValue(TIMESTAMP_SCHEMA, o);
                 }
                 throw new DataException(String.format(ResourceBundleUtil.get(MessageKey.CLOUDANT_STRUCT_UNKNOWN_TYPE), o.getClass().getName()));
             }
         }
     }
-
-    static SchemaAndValue entryToSchemaAndValue(Map.Entry<String, Object> entry) {
-        return objectToSchemaAndValue(entry.getValue());
-    }
 }
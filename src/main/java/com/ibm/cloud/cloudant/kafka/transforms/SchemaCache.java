@@ -0,0 +1,252 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.transforms;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+import org.apache.kafka.connect.data.ConnectSchema;
+import org.apache.kafka.connect.data.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A bounded least recently used cache of the schemas of map values, keyed by a fingerprint of
+ * their structure: their keys and the types of their values, recursively.
+ *
+ * Values with the same fingerprint have the same inferred schema, so it is inferred once and the
+ * same Schema object is shared by all of them.
+ */
+class SchemaCache implements SchemaCacheMXBean {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchemaCache.class);
+
+    private final int capacity;
+    // guarded by itself
+    private final LinkedHashMap<String, Schema> schemas;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder uncached = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param capacity the maximum number of schemas to keep
+     */
+    SchemaCache(int capacity) {
+        this.capacity = capacity;
+        this.schemas = new LinkedHashMap<String, Schema>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Schema> eldest) {
+                if (size() > SchemaCache.this.capacity) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Register the metrics of the cache with the platform MBean server, logging any failure.
+     *
+     * @param name the object name of the metrics
+     * @return this cache
+     */
+    SchemaCache register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(name));
+        } catch (JMException e) {
+            LOG.warn("Failed to register schema cache metrics {}", name, e);
+        }
+        return this;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of a value, from {@link #fingerprint(Map)}
+     * @return the schema of the value, or null if it is not cached
+     */
+    Schema get(String fingerprint) {
+        Schema schema;
+        synchronized (schemas) {
+            schema = schemas.get(fingerprint);
+        }
+        if (schema != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return schema;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of a value, from {@link #fingerprint(Map)}
+     * @param schema the schema inferred for the value
+     */
+    void put(String fingerprint, Schema schema) {
+        synchronized (schemas) {
+            schemas.put(fingerprint, schema);
+        }
+    }
+
+    /**
+     * Count a value that has no fingerprint.
+     */
+    void countUncached() {
+        uncached.increment();
+    }
+
+    @Override
+    public long getHits() {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getUncached() {
+        return uncached.sum();
+    }
+
+    @Override
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public int getSize() {
+        synchronized (schemas) {
+            return schemas.size();
+        }
+    }
+
+    /**
+     * The fingerprint of a map: its keys, in order, and the types of their values. An array is
+     * fingerprinted by the type of its elements, and a decimal by its scale, as they are part of
+     * the inferred schema.
+     *
+     * @param map the map
+     * @return the fingerprint, or null if the map has an array with elements of different types or
+     * a value of a type that cannot be inferred, which are left to schema inference to reject
+     */
+    static String fingerprint(Map<String, Object> map) {
+        StringBuilder fingerprint = new StringBuilder(16 * map.size());
+        return appendMap(fingerprint, map) ? fingerprint.toString() : null;
+    }
+
+    private static boolean appendMap(StringBuilder fingerprint, Map<?, ?> map) {
+        beginMap(fingerprint);
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            appendKey(fingerprint, String.valueOf(entry.getKey()));
+            if (!appendValue(fingerprint, entry.getValue())) {
+                return false;
+            }
+        }
+        endMap(fingerprint);
+        return true;
+    }
+
+    // the parts of the fingerprint of a map, for maps that are fingerprinted entry by entry
+
+    static void beginMap(StringBuilder fingerprint) {
+        fingerprint.append('{');
+    }
+
+    static void appendKey(StringBuilder fingerprint, String key) {
+        // the length prefix keeps any key from being read as other keys or types
+        fingerprint.append(key.length()).append(':').append(key);
+    }
+
+    static void endMap(StringBuilder fingerprint) {
+        fingerprint.append('}');
+    }
+
+    // append the type of a value, returning false if it has none
+    static boolean appendValue(StringBuilder fingerprint, Object value) {
+        if (value == null) {
+            fingerprint.append('n');
+            return true;
+        }
+        Schema.Type type = ConnectSchema.schemaType(value.getClass());
+        if (type == null) {
+            if (value instanceof BigDecimal) {
+                fingerprint.append('d').append(((BigDecimal) value).scale()).append(';');
+                return true;
+            } else if (value instanceof Date) {
+                fingerprint.append('t');
+                return true;
+            }
+            return false;
+        }
+        switch (type) {
+            case MAP:
+                return appendMap(fingerprint, (Map<?, ?>) value);
+            case ARRAY:
+                return appendList(fingerprint, (List<?>) value);
+            case STRUCT:
+                return false;
+            default:
+                fingerprint.append((char) ('A' + type.ordinal()));
+                return true;
+        }
+    }
+
+    // an array has the type of its non-null elements, which must all be the same
+    private static boolean appendList(StringBuilder fingerprint, List<?> list) {
+        fingerprint.append('[');
+        int start = fingerprint.length();
+        int elementLength = -1;
+        for (Object element : list) {
+            if (element == null) {
+                continue;
+            }
+            if (elementLength < 0) {
+                if (!appendValue(fingerprint, element)) {
+                    return false;
+                }
+                elementLength = fingerprint.length() - start;
+            } else {
+                int end = fingerprint.length();
+                if (!appendValue(fingerprint, element)) {
+                    return false;
+                }
+                boolean same = fingerprint.length() - end == elementLength && regionMatches(fingerprint, start, end, elementLength);
+                fingerprint.setLength(end);
+                if (!same) {
+                    return false;
+                }
+            }
+        }
+        fingerprint.append(']');
+        return true;
+    }
+
+    private static boolean regionMatches(StringBuilder fingerprint, int first, int second, int length) {
+        for (int i = 0; i < length; i++) {
+            if (fingerprint.charAt(first + i) != fingerprint.charAt(second + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.transforms;
+
+/**
+ * The JMX metrics of the cache of schemas inferred by {@link MapToStruct}.
+ */
+public interface SchemaCacheMXBean {
+
+    /**
+     * @return the number of values whose schema was found in the cache
+     */
+    long getHits();
+
+    /**
+     * @return the number of values whose schema was inferred
+     */
+    long getMisses();
+
+    /**
+     * @return the number of values whose schema could not be cached, such as arrays of differently shaped objects
+     */
+    long getUncached();
+
+    /**
+     * @return the number of schemas evicted from the cache
+     */
+    long getEvictions();
+
+    /**
+     * @return the number of schemas in the cache
+     */
+    int getSize();
+}
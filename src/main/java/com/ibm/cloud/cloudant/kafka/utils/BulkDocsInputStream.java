@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * The {@code _bulk_docs} request body of a list of documents, read as it is generated. The bytes
+ * of each document are read as they are, so nothing is held besides the documents themselves.
+ */
+class BulkDocsInputStream extends InputStream {
+
+    private static final byte[] BULK_DOCS_START = "{\"docs\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SEPARATOR = {','};
+    private static final byte[] BULK_DOCS_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final List<RawDocument> docs;
+    // the next part of the body: the start, each document and the separator after it, then the end
+    private int part = 0;
+    private byte[] bytes = new byte[0];
+    private int position = 0;
+
+    BulkDocsInputStream(List<RawDocument> docs) {
+        this.docs = docs;
+    }
+
+    @Override
+    public int read() {
+        if (!nextBytes()) {
+            return -1;
+        }
+        return bytes[position++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int read = 0;
+        while (read < len && nextBytes()) {
+            int n = Math.min(len - read, bytes.length - position);
+            System.arraycopy(bytes, position, b, off + read, n);
+            position += n;
+            read += n;
+        }
+        return (read == 0) ? -1 : read;
+    }
+
+    @Override
+    public int available() {
+        return bytes.length - position;
+    }
+
+    // move on to the next part of the body once the bytes of this one have been read
+    private boolean nextBytes() {
+        while (position == bytes.length) {
+            int lastPart = Math.max(1, 2 * docs.size());
+            if (part > lastPart) {
+                return false;
+            }
+            if (part == 0) {
+                bytes = BULK_DOCS_START;
+            } else if (part == lastPart) {
+                bytes = BULK_DOCS_END;
+            } else if (part % 2 == 0) {
+                bytes = SEPARATOR;
+            } else {
+                bytes = docs.get(part / 2).getJson();
+            }
+            part++;
+            position = 0;
+        }
+        return true;
+    }
+}
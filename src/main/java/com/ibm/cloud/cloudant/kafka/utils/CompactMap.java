@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable Map of String keys, kept in arrays in insertion order, for record values and the
+ * objects nested in them.
+ *
+ * Unlike a HashMap it has no entry objects or table of them: a map of n entries is two arrays of
+ * n references. Keys are found by a linear scan of up to {@link #HASH_THRESHOLD} entries, which
+ * covers most documents; larger maps also have an open addressing index of the key hashes.
+ * Null values are allowed, null keys are not.
+ */
+public final class CompactMap extends AbstractMap<String, Object> {
+
+    /**
+     * The number of entries above which a map has a hash index.
+     */
+    public static final int HASH_THRESHOLD = 16;
+
+    private static final CompactMap EMPTY = new CompactMap(new String[0], new Object[0], 0, null);
+
+    private final String[] keys;
+    private final Object[] values;
+    private final int size;
+    // the positions of the keys plus one, by hash, or null for a small map
+    private final int[] index;
+
+    private CompactMap(String[] keys, Object[] values, int size, int[] index) {
+        this.keys = keys;
+        this.values = values;
+        this.size = size;
+        this.index = index;
+    }
+
+    /**
+     * @param expectedSize the number of entries expected, to size the arrays
+     * @return a builder of a map
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(expectedSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf(keys, size, index, (String) key) >= 0;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int i = indexOf(keys, size, index, (String) key);
+        return (i < 0) ? null : values[i];
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Object> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<Entry<String, Object>>() {
+
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<Entry<String, Object>>() {
+
+                    private int next = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (next >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = next++;
+                        return new SimpleImmutableEntry<>(keys[i], values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private static int indexOf(String[] keys, int size, int[] index, String key) {
+        if (index == null) {
+            for (int i = 0; i < size; i++) {
+                if (key.equals(keys[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = index.length - 1;
+        for (int slot = hash(key) & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int i = index[slot] - 1;
+            if (key.equals(keys[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // an index at most half full
+    private static int[] buildIndex(String[] keys, int size) {
+        int[] index = new int[Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1];
+        int mask = index.length - 1;
+        for (int i = 0; i < size; i++) {
+            int slot = hash(keys[i]) & mask;
+            while (index[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            index[slot] = i + 1;
+        }
+        return index;
+    }
+
+    private static int hash(String key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Collects the entries of a map. Putting a key that was already put replaces its value,
+     * keeping its position. A builder builds one map.
+     */
+    public static final class Builder {
+
+        private String[] keys;
+        private Object[] values;
+        private int size = 0;
+        private int[] index = null;
+
+        private Builder(int expectedSize) {
+            int capacity = Math.max(expectedSize, 1);
+            keys = new String[capacity];
+            values = new Object[capacity];
+        }
+
+        /**
+         * @param key the key, not null
+         * @param value the value
+         * @return this builder
+         */
+        public Builder put(String key, Object value) {
+            if (key == null) {
+                throw new NullPointerException("key");
+            }
+            int i = indexOf(keys, size, index, key);
+            if (i >= 0) {
+                values[i] = value;
+                return this;
+            }
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            if (size > HASH_THRESHOLD && (index == null || size * 2 > index.length)) {
+                index = buildIndex(keys, size);
+            } else if (index != null) {
+                // add the new key to the index
+                int mask = index.length - 1;
+                int slot = hash(key) & mask;
+                while (index[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                index[slot] = size;
+            }
+            return this;
+        }
+
+        /**
+         * @return the number of entries put so far
+         */
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the map of the entries put
+         */
+        public CompactMap build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            String[] builtKeys = (size == keys.length) ? keys : Arrays.copyOf(keys, size);
+            Object[] builtValues = (size == values.length) ? values : Arrays.copyOf(values, size);
+            // the builder must not change the arrays of the map
+            keys = null;
+            values = null;
+            return new CompactMap(builtKeys, builtValues, size, index);
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -17,6 +17,8 @@ public class InterfaceConst {
 
     public final static String URL = "cloudant.url";
     public final static String DB = "cloudant.db";
+    public final static String DBS = "cloudant.dbs";
+    public final static String DB_REGEX = "cloudant.db.regex";
     public final static String USERNAME = "cloudant.username";
     public final static String PASSWORD = "cloudant.password";
     public final static String BEARER_TOKEN = "cloudant.bearer.token";
@@ -44,4 +46,70 @@ public class InterfaceConst {
     public static final int DEFAULT_BATCH_SIZE_SINK = 1000;
     public static final int BATCH_SIZE_MIN_SINK = 1;
     public static final int BATCH_SIZE_MAX_SINK = 2000;
+
+    public final static String WRITE_CONCURRENCY = "cloudant.write.concurrency";
+
+    public static final int DEFAULT_WRITE_CONCURRENCY = 1;
+    public static final int WRITE_CONCURRENCY_MAX = 32;
+
+    public final static String PREFETCH_BATCHES = "cloudant.prefetch.batches";
+    public final static String PREFETCH_MAX_BYTES = "cloudant.prefetch.max.bytes";
+
+    public static final int DEFAULT_PREFETCH_BATCHES = 0;
+    public static final int PREFETCH_BATCHES_MAX = 100;
+    public static final long DEFAULT_PREFETCH_MAX_BYTES = 64L * 1024 * 1024;
+
+    public final static String FEED = "cloudant.feed";
+    public final static String MAX_BATCH_BYTES = "cloudant.max.batch.bytes";
+    public final static String LINGER_MS = "cloudant.linger.ms";
+
+    public static final long DEFAULT_MAX_BATCH_BYTES = 16L * 1024 * 1024;
+    public static final long DEFAULT_LINGER_MS = 10L;
+    public static final long DEFAULT_SINK_LINGER_MS = 500L;
+
+    public final static String DOC_FETCH = "cloudant.doc.fetch";
+    public final static String BULK_GET_CHUNK_SIZE = "cloudant.bulk.get.chunk.size";
+    public final static String BULK_GET_CONCURRENCY = "cloudant.bulk.get.concurrency";
+
+    public final static String DOC_FETCH_CHANGES = "changes";
+    public final static String DOC_FETCH_BULK_GET = "bulk_get";
+
+    public static final int DEFAULT_BULK_GET_CHUNK_SIZE = 100;
+    public static final int BULK_GET_CHUNK_SIZE_MAX = 2000;
+    public static final int DEFAULT_BULK_GET_CONCURRENCY = 4;
+    public static final int BULK_GET_CONCURRENCY_MAX = 32;
+
+    public final static String VALUE_FORMAT = "cloudant.value.format";
+
+    public final static String VALUE_FORMAT_MAP = "map";
+    public final static String VALUE_FORMAT_RAW = "raw";
+
+    public final static String FILTER = "cloudant.filter";
+    public final static String SELECTOR = "cloudant.selector";
+    public final static String DOC_IDS = "cloudant.doc.ids";
+
+    public final static String FILTER_NONE = "none";
+    public final static String FILTER_SELECTOR = "_selector";
+    public final static String FILTER_DOC_IDS = "_doc_ids";
+    public final static String FILTER_DESIGN = "_design";
+
+    public final static String FETCH_THREADS = "cloudant.fetch.threads";
+    public final static String IDLE_BACKOFF_MAX_MS = "cloudant.idle.backoff.max.ms";
+
+    public static final int DEFAULT_FETCH_THREADS = 2;
+    public static final int FETCH_THREADS_MAX = 64;
+    public static final long DEFAULT_IDLE_BACKOFF_MAX_MS = 30 * 1000L;
+
+    public final static String DB_UPDATES = "cloudant.db.updates";
+
+    public final static String BATCH_ADAPTIVE = "cloudant.batch.adaptive";
+    public final static String BATCH_SIZE_MIN = "cloudant.batch.size.min";
+    public final static String BATCH_SIZE_MAX = "cloudant.batch.size.max";
+    public final static String BATCH_TARGET_LATENCY_MS = "cloudant.batch.target.latency.ms";
+
+    public static final int DEFAULT_BATCH_SIZE_MIN = 10;
+    public static final long DEFAULT_BATCH_TARGET_LATENCY_MS = 1000L;
+
+    // Task property assigned by the sink connector, not user configuration
+    public final static String TASK_NUMBER = "cloudant.task.number";
 }
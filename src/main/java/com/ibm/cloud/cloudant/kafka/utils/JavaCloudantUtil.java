@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2023 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -15,17 +15,22 @@ package com.ibm.cloud.cloudant.kafka.utils;
 
 import com.ibm.cloud.cloudant.v1.Cloudant;
 import com.ibm.cloud.cloudant.v1.model.*;
+import com.ibm.cloud.sdk.core.service.exception.NotFoundException;
 import com.ibm.cloud.sdk.core.service.exception.ServiceResponseException;
 import com.ibm.cloud.cloudant.kafka.caching.CachedClientManager;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.regex.Pattern;
 
 public class JavaCloudantUtil {
 
@@ -54,25 +59,54 @@ public class JavaCloudantUtil {
         );
     }
 
-	public static List<DocumentResult> batchWrite(Map<String, String> props, List<Document> listOfDocs)
+	public static List<DocumentResult> batchWrite(Map<String, String> props, List<RawDocument> listOfDocs)
 		throws RuntimeException {
 		Cloudant service = CachedClientManager.getInstance(props);
+		String dbName = props.get(InterfaceConst.DB);
 
-		// attempt to create database
-		createTargetDb(service, props.get(InterfaceConst.DB));
+		// create the database unless it is known to exist
+		ensureTargetDb(props);
 
 		// perform bulk insert for array of documents
-		BulkDocs docs = new BulkDocs.Builder().docs(listOfDocs).build();
-		PostBulkDocsOptions postBulkDocsOptions = new PostBulkDocsOptions.Builder()
-			.db(props.get(InterfaceConst.DB))
-			.bulkDocs(docs)
-			.build();
-
 		// caller's responsibility to catch RuntimeException on execute() if thrown
-		List<DocumentResult> resList = service.postBulkDocs(postBulkDocsOptions).execute().getResult();
-		return resList;
+		try {
+			return service.postBulkDocs(postBulkDocsOptions(dbName, listOfDocs)).execute().getResult();
+		} catch (NotFoundException nfe) {
+			// the database has been deleted since it was known to exist, so create it again
+			LOG.warn("Database {} not found when writing documents, creating it again.", dbName);
+			CachedClientManager.getKnownDbs(props).remove(dbName);
+			ensureTargetDb(props);
+			return service.postBulkDocs(postBulkDocsOptions(dbName, listOfDocs)).execute().getResult();
+		}
 	}
 
+    // the body is generated from the documents as it is read, rather than serialized as a whole first
+    private static PostBulkDocsOptions postBulkDocsOptions(String dbName, List<RawDocument> listOfDocs) {
+        return new PostBulkDocsOptions.Builder()
+                .db(dbName)
+                .body(bulkDocsBody(listOfDocs))
+                .build();
+    }
+
+    // the _bulk_docs request body, with the bytes of the documents spliced in as they are
+    static InputStream bulkDocsBody(List<RawDocument> listOfDocs) {
+        return new BulkDocsInputStream(listOfDocs);
+    }
+
+    /**
+     * Create the target database of a connector, unless it is already known to exist.
+     *
+     * @param props the connector configuration
+     */
+    public static void ensureTargetDb(Map<String, String> props) {
+        String dbName = props.get(InterfaceConst.DB);
+        Set<String> knownDbs = CachedClientManager.getKnownDbs(props);
+        if (!knownDbs.contains(dbName)) {
+            createTargetDb(CachedClientManager.getInstance(props), dbName);
+            knownDbs.add(dbName);
+        }
+    }
+
     public static void createTargetDb(Cloudant service, String dbName) {
         PutDatabaseOptions dbOptions = new PutDatabaseOptions.Builder()
                 .db(dbName)
@@ -91,4 +125,25 @@ public class JavaCloudantUtil {
             }
         }
     }
+
+    public static List<String> getMatchingDbs(Cloudant service, Pattern dbNamePattern) {
+        List<String> dbs = new ArrayList<>();
+        for (String db : service.getAllDbs(new GetAllDbsOptions.Builder().build()).execute().getResult()) {
+            if (dbNamePattern.matcher(db).matches()) {
+                dbs.add(db);
+            }
+        }
+        return dbs;
+    }
+
+    // _db_updates is deprecated in the SDK, but it has no replacement for following database events
+    @SuppressWarnings("deprecation")
+    public static DbUpdates getDbUpdates(Cloudant service, String since, long timeoutMs) {
+        GetDbUpdatesOptions dbUpdatesOptions = new GetDbUpdatesOptions.Builder()
+                .feed(GetDbUpdatesOptions.Feed.LONGPOLL)
+                .timeout(timeoutMs)
+                .since(since)
+                .build();
+        return service.getDbUpdates(dbUpdatesOptions).execute().getResult();
+    }
 }
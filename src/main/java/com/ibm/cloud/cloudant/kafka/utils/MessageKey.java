@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -19,6 +19,14 @@ public class MessageKey {
     public static final String VALIDATION_AUTH_AT_LEAST_ONE_MUST_BE_SET = "ValidationAuthAtLeastOneMustBeSet";
     public static final String VALIDATION_MUST_BE_ONE_OF = "ValidationMustBeOneOf";
     public static final String VALIDATION_NOT_A_URL = "ValidationNotAUrl";
+    public static final String VALIDATION_MUST_BE_SET = "ValidationMustBeSet";
+    public static final String VALIDATION_EXACTLY_ONE_MUST_BE_SET = "ValidationExactlyOneMustBeSet";
+    public static final String VALIDATION_NOT_A_REGEX = "ValidationNotARegex";
+    public static final String VALIDATION_NOT_GREATER = "ValidationNotGreater";
+    public static final String VALIDATION_FILTER_MUST_BE_SET = "ValidationFilterMustBeSet";
+    public static final String VALIDATION_NOT_A_JSON_OBJECT = "ValidationNotAJsonObject";
+    public static final String VALIDATION_NOT_SUPPORTED_WITH = "ValidationNotSupportedWith";
+    public static final String VALIDATION_NOT_SUPPORTED_WHEN_SET = "ValidationNotSupportedWhenSet";
 
     public static final String CLOUDANT_CONNECTION_URL_DOC = "CloudantConnectUrlDoc";
     public static final String CLOUDANT_CONNECTION_DB_DOC = "CloudantConnectDbDoc";
@@ -56,6 +64,51 @@ public class MessageKey {
     public static final String CLOUDANT_LAST_SEQ_NUM_DOC = "CloudantLastSeqNumDoc";
     public static final String CLOUDANT_LAST_SEQ_NUM_DISP = "CloudantLastSeqNumDisp";
     public static final String CLOUDANT_BATCH_SIZE_DISP = "CloudantBatchSizeDisp";
+    public static final String CLOUDANT_PREFETCH_BATCHES_DOC = "CloudantPrefetchBatchesDoc";
+    public static final String CLOUDANT_PREFETCH_BATCHES_DISP = "CloudantPrefetchBatchesDisp";
+    public static final String CLOUDANT_PREFETCH_MAX_BYTES_DOC = "CloudantPrefetchMaxBytesDoc";
+    public static final String CLOUDANT_PREFETCH_MAX_BYTES_DISP = "CloudantPrefetchMaxBytesDisp";
+    public static final String CLOUDANT_FEED_DOC = "CloudantFeedDoc";
+    public static final String CLOUDANT_FEED_DISP = "CloudantFeedDisp";
+    public static final String CLOUDANT_MAX_BATCH_BYTES_DOC = "CloudantMaxBatchBytesDoc";
+    public static final String CLOUDANT_MAX_BATCH_BYTES_DISP = "CloudantMaxBatchBytesDisp";
+    public static final String CLOUDANT_LINGER_MS_DOC = "CloudantLingerMsDoc";
+    public static final String CLOUDANT_LINGER_MS_DISP = "CloudantLingerMsDisp";
+    public static final String CLOUDANT_DOC_FETCH_DOC = "CloudantDocFetchDoc";
+    public static final String CLOUDANT_DOC_FETCH_DISP = "CloudantDocFetchDisp";
+    public static final String CLOUDANT_VALUE_FORMAT_DOC = "CloudantValueFormatDoc";
+    public static final String CLOUDANT_VALUE_FORMAT_DISP = "CloudantValueFormatDisp";
+    public static final String CLOUDANT_BULK_GET_CHUNK_SIZE_DOC = "CloudantBulkGetChunkSizeDoc";
+    public static final String CLOUDANT_BULK_GET_CHUNK_SIZE_DISP = "CloudantBulkGetChunkSizeDisp";
+    public static final String CLOUDANT_BULK_GET_CONCURRENCY_DOC = "CloudantBulkGetConcurrencyDoc";
+    public static final String CLOUDANT_BULK_GET_CONCURRENCY_DISP = "CloudantBulkGetConcurrencyDisp";
+    public static final String CLOUDANT_CONNECTION_DBS_DOC = "CloudantConnectDbsDoc";
+    public static final String CLOUDANT_CONNECTION_DBS_DISP = "CloudantConnectDbsDisp";
+    public static final String CLOUDANT_CONNECTION_DB_REGEX_DOC = "CloudantConnectDbRegexDoc";
+    public static final String CLOUDANT_CONNECTION_DB_REGEX_DISP = "CloudantConnectDbRegexDisp";
+    public static final String CLOUDANT_FETCH_THREADS_DOC = "CloudantFetchThreadsDoc";
+    public static final String CLOUDANT_FETCH_THREADS_DISP = "CloudantFetchThreadsDisp";
+    public static final String CLOUDANT_IDLE_BACKOFF_MAX_MS_DOC = "CloudantIdleBackoffMaxMsDoc";
+    public static final String CLOUDANT_IDLE_BACKOFF_MAX_MS_DISP = "CloudantIdleBackoffMaxMsDisp";
+    public static final String CLOUDANT_DB_UPDATES_DOC = "CloudantDbUpdatesDoc";
+    public static final String CLOUDANT_DB_UPDATES_DISP = "CloudantDbUpdatesDisp";
+    public static final String CLOUDANT_FILTER_DOC = "CloudantFilterDoc";
+    public static final String CLOUDANT_FILTER_DISP = "CloudantFilterDisp";
+    public static final String CLOUDANT_SELECTOR_DOC = "CloudantSelectorDoc";
+    public static final String CLOUDANT_SELECTOR_DISP = "CloudantSelectorDisp";
+    public static final String CLOUDANT_DOC_IDS_DOC = "CloudantDocIdsDoc";
+    public static final String CLOUDANT_DOC_IDS_DISP = "CloudantDocIdsDisp";
+    public static final String CLOUDANT_WRITE_CONCURRENCY_DOC = "CloudantWriteConcurrencyDoc";
+    public static final String CLOUDANT_WRITE_CONCURRENCY_DISP = "CloudantWriteConcurrencyDisp";
+    public static final String CLOUDANT_SINK_LINGER_MS_DOC = "CloudantSinkLingerMsDoc";
+    public static final String CLOUDANT_BATCH_ADAPTIVE_DOC = "CloudantBatchAdaptiveDoc";
+    public static final String CLOUDANT_BATCH_ADAPTIVE_DISP = "CloudantBatchAdaptiveDisp";
+    public static final String CLOUDANT_BATCH_SIZE_MIN_DOC = "CloudantBatchSizeMinDoc";
+    public static final String CLOUDANT_BATCH_SIZE_MIN_DISP = "CloudantBatchSizeMinDisp";
+    public static final String CLOUDANT_BATCH_SIZE_MAX_DOC = "CloudantBatchSizeMaxDoc";
+    public static final String CLOUDANT_BATCH_SIZE_MAX_DISP = "CloudantBatchSizeMaxDisp";
+    public static final String CLOUDANT_BATCH_TARGET_LATENCY_MS_DOC = "CloudantBatchTargetLatencyMsDoc";
+    public static final String CLOUDANT_BATCH_TARGET_LATENCY_MS_DISP = "CloudantBatchTargetLatencyMsDisp";
 
     public static final String KAFKA_TOPIC_LIST_DOC = "KafkaTopicListDoc";
     public static final String KAFKA_TOPIC_LIST_DISP = "KafkaTopicListDisp";
@@ -64,6 +117,7 @@ public class MessageKey {
 
     public static final String CLOUDANT_ARRAY_DELIMITER_DOC = "CloudantArrayDelimiterDoc";
     public static final String CLOUDANT_ARRAY_PURPOSE = "CloudantArrayPurpose";
+    public static final String CLOUDANT_ARRAY_UNKNOWN_TYPE = "CloudantArrayUnknownType";
 
     public static final String CLOUDANT_STRUCT_PURPOSE = "CloudantStructPurpose";
     public static final String CLOUDANT_STRUCT_UNDETECTABLE_ARRAY = "CloudantStructUndetectableArrayType";
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The SDK Gson, for reading documents with numbers that are already narrowed.
+ *
+ * The SDK reads the numbers of a Document's properties, and of the maps and lists inside them,
+ * as GSON's LazilyParsedNumber, which the Kafka JsonConverter does not support. This Gson reads
+ * those numbers with {@link NumberNarrowing} as they are parsed, so the documents need not be
+ * walked and copied again to convert them. The properties are put straight into the Document,
+ * and the objects nested in them are read into {@link CompactMap}s.
+ */
+public final class NarrowingGson {
+
+    private static final Gson GSON = GsonSingleton.getGsonWithoutPrettyPrinting().newBuilder()
+            .setObjectToNumberStrategy(NarrowingGson::readNumber)
+            .registerTypeAdapterFactory(new DocumentAdapterFactory())
+            .create();
+
+    private NarrowingGson() {
+    }
+
+    /**
+     * @return the Gson, which is thread safe
+     */
+    public static Gson getGson() {
+        return GSON;
+    }
+
+    private static Number readNumber(JsonReader reader) throws IOException {
+        return NumberNarrowing.narrow(reader.nextString());
+    }
+
+    // read a JSON value as a String, narrowed Number, Boolean, CompactMap, List or null
+    private static Object readValue(JsonReader in) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_OBJECT:
+                CompactMap.Builder object = CompactMap.builder(8);
+                in.beginObject();
+                while (in.hasNext()) {
+                    object.put(in.nextName(), readValue(in));
+                }
+                in.endObject();
+                return object.build();
+            case BEGIN_ARRAY:
+                List<Object> array = new ArrayList<>();
+                in.beginArray();
+                while (in.hasNext()) {
+                    array.add(readValue(in));
+                }
+                in.endArray();
+                return array;
+            case STRING:
+                return in.nextString();
+            case NUMBER:
+                return readNumber(in);
+            case BOOLEAN:
+                return in.nextBoolean();
+            case NULL:
+                in.nextNull();
+                return null;
+            default:
+                throw new IllegalStateException("Unexpected JSON token " + in.peek());
+        }
+    }
+
+    /**
+     * Reads the properties of a Document with {@link #readValue(JsonReader)} instead of the SDK
+     * adapter, which always makes LazilyParsedNumbers. The meta properties, whose names start
+     * with an underscore, are still read by the SDK adapter into their typed fields.
+     */
+    private static final class DocumentAdapterFactory implements TypeAdapterFactory {
+
+        private static final String META_PREFIX = "_";
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            if (type.getRawType() != Document.class) {
+                return null;
+            }
+            TypeAdapter<Document> delegate = gson.getDelegateAdapter(this, TypeToken.get(Document.class));
+            TypeAdapter<JsonElement> elementAdapter = gson.getAdapter(JsonElement.class);
+            return (TypeAdapter<T>) new TypeAdapter<Document>() {
+
+                @Override
+                public void write(JsonWriter out, Document document) throws IOException {
+                    delegate.write(out, document);
+                }
+
+                @Override
+                public Document read(JsonReader in) throws IOException {
+                    JsonObject meta = new JsonObject();
+                    Document document = new Document();
+                    in.beginObject();
+                    while (in.hasNext()) {
+                        String name = in.nextName();
+                        if (name.startsWith(META_PREFIX)) {
+                            meta.add(name, elementAdapter.read(in));
+                        } else {
+                            document.put(name, readValue(in));
+                        }
+                    }
+                    in.endObject();
+                    if (meta.size() > 0) {
+                        // the meta properties may follow the others, so they are read last
+                        copyMeta(delegate.fromJsonTree(meta), document);
+                    }
+                    return document;
+                }
+            }.nullSafe();
+        }
+
+        private static void copyMeta(Document from, Document to) {
+            to.setId(from.getId());
+            to.setRev(from.getRev());
+            to.setDeleted(from.isDeleted());
+            to.setAttachments(from.getAttachments());
+            to.setConflicts(from.getConflicts());
+            to.setDeletedConflicts(from.getDeletedConflicts());
+            to.setLocalSeq(from.getLocalSeq());
+            to.setRevisions(from.getRevisions());
+            to.setRevsInfo(from.getRevsInfo());
+            // meta properties the SDK does not know
+            for (String name : from.getPropertyNames()) {
+                to.put(name, from.get(name));
+            }
+        }
+    }
+}
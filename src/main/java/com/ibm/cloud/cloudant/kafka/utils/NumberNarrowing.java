@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+/**
+ * Narrows the text of a number to the most specific Number type that can hold its value.
+ *
+ * The result is the same as converting the text to a BigDecimal and trying, in order, byte,
+ * short, int, long and BigInteger exact conversions, then a float that is exactly
+ * {@code BigDecimal.valueOf(f)}, and finally a double. Rather than building a BigDecimal and
+ * catching the ArithmeticException of each conversion that fails, the text is read once for its
+ * sign, significant digits and scale, and the type is chosen from those.
+ *
+ * Text that is not a plain ASCII decimal number (for example with non-ASCII digits, or an exponent
+ * too large for an int scale) is read by BigDecimal instead, which also rejects text that is not a
+ * number with a NumberFormatException.
+ */
+public final class NumberNarrowing {
+
+    // long has at most 19 decimal digits
+    private static final int MAX_LONG_DIGITS = 19;
+
+    // the most decimal digits a BigInteger can hold, larger whole numbers are left to double
+    private static final long MAX_BIG_INTEGER_DIGITS = (long) (Integer.MAX_VALUE * Math.log10(2));
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS];
+
+    static {
+        POWERS_OF_TEN[0] = 1L;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private NumberNarrowing() {
+    }
+
+    /**
+     * @param text the decimal text of a number, for example a JSON number
+     * @return the value as the narrowest of Byte, Short, Integer, Long, BigInteger, Float or Double
+     * @throws NumberFormatException if the text is not a number
+     */
+    public static Number narrow(String text) {
+        Decimal decimal = Decimal.parse(text);
+        if (decimal == null) {
+            BigDecimal number = new BigDecimal(text);
+            decimal = new Decimal(number.signum() < 0, number.unscaledValue().abs().toString(), number.scale());
+            text = number.toString();
+        }
+        return narrow(decimal, text);
+    }
+
+    private static Number narrow(Decimal decimal, String text) {
+        if (decimal.length == 0) {
+            // zero at any scale
+            return (byte) 0;
+        }
+        // trailing zeros of the digits may only be padding of a whole number
+        int length = decimal.length;
+        long scale = decimal.scale;
+        while (length > 1 && decimal.digits[length - 1] == '0') {
+            length--;
+            scale--;
+        }
+        if (scale <= 0 && length - scale <= MAX_BIG_INTEGER_DIGITS) {
+            return narrowWhole(decimal.negative, decimal.digits, length, -scale);
+        }
+        float f = Float.parseFloat(text);
+        if (!Float.isInfinite(f) && decimal.equals(Decimal.parse(Double.toString(f)))) {
+            // exactly BigDecimal.valueOf(f), including the scale
+            return f;
+        }
+        return Double.parseDouble(text);
+    }
+
+    // the whole number of the digits followed by the given count of zeros
+    private static Number narrowWhole(boolean negative, char[] digits, int length, long zeros) {
+        if (length + zeros <= MAX_LONG_DIGITS) {
+            // accumulate negatively, as Long.parseLong does, to reach Long.MIN_VALUE
+            long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+            long multiplyLimit = limit / 10;
+            long value = 0;
+            boolean overflow = false;
+            for (int i = 0; i < length; i++) {
+                int digit = digits[i] - '0';
+                if (value < multiplyLimit || value * 10 < limit + digit) {
+                    overflow = true;
+                    break;
+                }
+                value = value * 10 - digit;
+            }
+            if (!overflow && zeros > 0) {
+                long power = POWERS_OF_TEN[(int) zeros];
+                if (value < limit / power) {
+                    overflow = true;
+                } else {
+                    value *= power;
+                }
+            }
+            if (!overflow) {
+                return narrowLong(negative ? value : -value);
+            }
+        }
+        BigInteger value = new BigInteger(new String(digits, 0, length));
+        if (zeros > 0) {
+            value = value.multiply(BigInteger.TEN.pow((int) zeros));
+        }
+        return negative ? value.negate() : value;
+    }
+
+    private static Number narrowLong(long value) {
+        if (value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE) {
+            return (byte) value;
+        } else if (value >= Short.MIN_VALUE && value <= Short.MAX_VALUE) {
+            return (short) value;
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return (int) value;
+        } else {
+            return value;
+        }
+    }
+
+    /**
+     * The sign, unscaled digits (without leading zeros) and scale of a decimal number. Two are
+     * equal when BigDecimals of them would be equal.
+     */
+    private static final class Decimal {
+
+        private final boolean negative;
+        private final char[] digits;
+        private final int length;
+        private final long scale;
+
+        private Decimal(boolean negative, char[] digits, int length, long scale) {
+            this.negative = negative;
+            this.digits = digits;
+            this.length = length;
+            this.scale = scale;
+        }
+
+        private Decimal(boolean negative, String digits, int scale) {
+            this(negative, digits.toCharArray(), "0".equals(digits) ? 0 : digits.length(), scale);
+        }
+
+        /**
+         * @return the decimal of text of the form [+-]digits[.digits][(e|E)[+-]digits], or null
+         * if the text is not of that form or its scale is not an int
+         */
+        private static Decimal parse(String text) {
+            int end = text.length();
+            int i = 0;
+            boolean negative = false;
+            if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                negative = text.charAt(i) == '-';
+                i++;
+            }
+            char[] digits = new char[end - i];
+            int length = 0;
+            int fractionDigits = 0;
+            boolean point = false;
+            boolean anyDigits = false;
+            for (; i < end; i++) {
+                char c = text.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    anyDigits = true;
+                    if (point) {
+                        fractionDigits++;
+                    }
+                    // leading zeros are not significant
+                    if (length > 0 || c != '0') {
+                        digits[length++] = c;
+                    }
+                } else if (c == '.' && !point) {
+                    point = true;
+                } else {
+                    break;
+                }
+            }
+            if (!anyDigits) {
+                return null;
+            }
+            long exponent = 0;
+            if (i < end) {
+                char c = text.charAt(i++);
+                if (c != 'e' && c != 'E') {
+                    return null;
+                }
+                boolean negativeExponent = false;
+                if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+                    negativeExponent = text.charAt(i) == '-';
+                    i++;
+                }
+                if (i == end) {
+                    return null;
+                }
+                for (; i < end; i++) {
+                    c = text.charAt(i);
+                    if (c < '0' || c > '9') {
+                        return null;
+                    }
+                    exponent = exponent * 10 + (c - '0');
+                    // an exponent this large is not an int, leave it to BigDecimal to reject
+                    if (exponent > Integer.MAX_VALUE) {
+                        return null;
+                    }
+                }
+                if (negativeExponent) {
+                    exponent = -exponent;
+                }
+            }
+            long scale = fractionDigits - exponent;
+            if (scale < Integer.MIN_VALUE || scale > Integer.MAX_VALUE) {
+                return null;
+            }
+            return new Decimal(negative, digits, length, scale);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Decimal)) {
+                return false;
+            }
+            Decimal other = (Decimal) o;
+            if (length != other.length || scale != other.scale || (length > 0 && negative != other.negative)) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (digits[i] != other.digits[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(scale);
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + digits[i];
+            }
+            return length > 0 && negative ? -hash : hash;
+        }
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022, 2023 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -16,21 +16,18 @@ package com.ibm.cloud.cloudant.kafka.utils;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
 import java.util.function.UnaryOperator;
 
 /**
  * An extension of HashMap that converts Number type entries being added to the Map.
  * It recurses into Collections being added to ensure their Number values are also converted.
  * 
- * The principle is that the string value of a number is converted to a BigDecimal that can
- * hold arbitrary precision values. Then it attempts to narrow down to the most specific Number
- * type that can hold the value. This means that any use in a schema later can easily widen the
+ * The principle is that the string value of a number, which can represent arbitrary precision
+ * values, is narrowed down to the most specific Number type that can hold the value
+ * (see {@link NumberNarrowing}). This means that any use in a schema later can easily widen the
  * value without losing precision, whereas returning a wider type might cause narrow schema
  * types to fail.
  * 
@@ -71,26 +68,6 @@ public class NumberSafeMap extends HashMap<String, Object> {
     @SuppressWarnings("unchecked")
     private static final class NumberMapper implements UnaryOperator<Object> {
 
-        // A list of the preference order by which we try to narrow the value into a specific Number type.
-        private static final List<Function<BigDecimal, ? extends Number>> narrowingFunctions = Collections.unmodifiableList(
-            Arrays.asList(
-                BigDecimal::byteValueExact,
-                BigDecimal::shortValueExact,
-                BigDecimal::intValueExact,
-                BigDecimal::longValueExact,
-                BigDecimal::toBigIntegerExact,
-                (n) -> {
-                    float f = n.floatValue();
-                    if (f != Float.NEGATIVE_INFINITY && f != Float.POSITIVE_INFINITY && n.equals(BigDecimal.valueOf(f))) {
-                        // Exactly representable by float
-                        return f;
-                    } else {
-                        throw new ArithmeticException();
-                    }
-                },
-                (n) -> n.doubleValue() // Last resort is a double value, noting that CouchDB/Cloudant JSON source numbers are limited to IEEE754 doubles
-                ));
-
         @Override
         public Object apply(Object value) {
             // The underlying client SDK uses GSON's LazilyParsedNumber.
@@ -98,20 +75,8 @@ public class NumberSafeMap extends HashMap<String, Object> {
             // need to change them to a built-in Number type.
             // Leave BigInteger and BigDecimal as is
             if (value instanceof Number && !(value instanceof BigInteger || value instanceof BigDecimal)) {
-                // Make a BigDecimal from the Number as it can hold the values of all other types
-                BigDecimal number = new BigDecimal(value.toString());
-                for (Function<BigDecimal, ? extends Number> narrowingFunction : narrowingFunctions) {
-                    try{
-                        return narrowingFunction.apply(number);
-                    } catch(ArithmeticException n) {
-                        // The narrowing function was not suitable, try the next one.
-                        continue;
-                    }
-                }
-                // The last resort narrowing function should always return a double so this code should be unreachable.
-                // In case the list of narrowing functions changes without updating this code, fallback
-                // to returning the BigDecimal value of arbitrary precision.
-                return number;
+                // Narrow the string value, which can represent the values of all other types
+                return NumberNarrowing.narrow(value.toString());
             } else if (value instanceof Map) {
                 return new NumberSafeMap((Map<String, Object>) value);
             } else if (value instanceof List) {
@@ -0,0 +1,138 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only views of values, such as GSON LazilyParsedNumbers, that are not compatible with the
+ * Kafka JsonConverter. It is the lazy counterpart of {@link NumberSafeMap}: rather than copying
+ * the whole structure up front, a number is narrowed with {@link NumberNarrowing} when it is
+ * read, and a nested Map or List is wrapped in a view when it is read. Parts of a structure that
+ * are never read are never converted.
+ *
+ * Numbers that are already Java types Kafka Connect supports are returned as they are, so values
+ * read with {@link NarrowingGson} pass through without conversion.
+ */
+public final class NumberSafeView {
+
+    private NumberSafeView() {
+    }
+
+    /**
+     * @param value a value of a document
+     * @return the value, a narrowed number, or a read-only view of a Map or List
+     */
+    @SuppressWarnings("unchecked")
+    public static Object of(Object value) {
+        if (value instanceof Number) {
+            return isSupportedNumber(value) ? value : NumberNarrowing.narrow(value.toString());
+        } else if (value instanceof MapView || value instanceof ListView) {
+            return value;
+        } else if (value instanceof Map) {
+            return new MapView((Map<String, Object>) value);
+        } else if (value instanceof List) {
+            return new ListView((List<Object>) value);
+        } else {
+            return value;
+        }
+    }
+
+    private static boolean isSupportedNumber(Object value) {
+        // Leave BigInteger and BigDecimal as is, as NumberSafeMap does
+        return value instanceof Byte || value instanceof Short || value instanceof Integer || value instanceof Long
+                || value instanceof Float || value instanceof Double
+                || value instanceof BigInteger || value instanceof BigDecimal;
+    }
+
+    private static final class MapView extends AbstractMap<String, Object> {
+
+        private final Map<String, Object> map;
+
+        private MapView(Map<String, Object> map) {
+            this.map = map;
+        }
+
+        @Override
+        public Object get(Object key) {
+            return of(map.get(key));
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return map.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return map.size();
+        }
+
+        @Override
+        public Set<Entry<String, Object>> entrySet() {
+            return new AbstractSet<Entry<String, Object>>() {
+
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    Iterator<Entry<String, Object>> entries = map.entrySet().iterator();
+                    return new Iterator<Entry<String, Object>>() {
+
+                        @Override
+                        public boolean hasNext() {
+                            return entries.hasNext();
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            Entry<String, Object> entry = entries.next();
+                            return new SimpleImmutableEntry<>(entry.getKey(), of(entry.getValue()));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return map.size();
+                }
+            };
+        }
+    }
+
+    private static final class ListView extends AbstractList<Object> {
+
+        private final List<Object> list;
+
+        private ListView(List<Object> list) {
+            this.list = list;
+        }
+
+        @Override
+        public Object get(int index) {
+            return of(list.get(index));
+        }
+
+        @Override
+        public int size() {
+            return list.size();
+        }
+    }
+}
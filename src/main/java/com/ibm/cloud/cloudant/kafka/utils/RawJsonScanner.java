@@ -0,0 +1,371 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A minimal scanner of UTF-8 JSON bytes, for reading a few values from a stream and skipping or
+ * copying the rest without parsing it.
+ *
+ * Skipped values are only checked for balanced brackets and quotes, not fully validated. A value
+ * can be recorded: the exact bytes consumed from the value after {@link #startRecording()} to
+ * {@link #stopRecording()} are returned.
+ */
+public final class RawJsonScanner {
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private final InputStream in;
+    private final byte[] buffer;
+    private int pos = 0;
+    private int limit = 0;
+    // the number of bytes in earlier buffers
+    private long consumed = 0;
+
+    // the bytes recorded from earlier buffers, and where the recording starts in this buffer, or -1
+    private byte[] recorded = new byte[0];
+    private int recordedLength = 0;
+    private int recordStart = -1;
+
+    // the bytes of the string being read
+    private byte[] scratch = new byte[64];
+
+    /**
+     * @param in the JSON to scan, not closed by the scanner
+     */
+    public RawJsonScanner(InputStream in) {
+        this.in = in;
+        this.buffer = new byte[BUFFER_SIZE];
+    }
+
+    /**
+     * @param json the JSON to scan, which is not copied
+     */
+    public RawJsonScanner(byte[] json) {
+        this.in = null;
+        this.buffer = json;
+        this.limit = json.length;
+    }
+
+    /**
+     * @return the next byte that is not whitespace, without consuming it, or -1 at the end of the input
+     * @throws IOException if the input could not be read
+     */
+    public int peek() throws IOException {
+        while (true) {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            byte b = buffer[pos];
+            if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                pos++;
+            } else {
+                return b;
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes consumed, which for a byte array is the index of the next byte
+     */
+    public long position() {
+        return consumed + pos;
+    }
+
+    /**
+     * Consume the next byte that is not whitespace.
+     *
+     * @param expected the byte expected
+     * @throws IOException if the input could not be read or the byte is not the one expected
+     */
+    public void consume(char expected) throws IOException {
+        int b = peek();
+        if (b != expected) {
+            throw syntaxError("Expected '" + expected + "'");
+        }
+        pos++;
+    }
+
+    /**
+     * Consume a comma or the closing bracket of an object or array.
+     *
+     * @param close the closing bracket
+     * @return true if there is another member, false if the closing bracket was consumed
+     * @throws IOException if the input could not be read or is neither
+     */
+    public boolean hasNext(char close) throws IOException {
+        int b = peek();
+        if (b == close) {
+            pos++;
+            return false;
+        }
+        if (b != ',') {
+            throw syntaxError("Expected ',' or '" + close + "'");
+        }
+        pos++;
+        return true;
+    }
+
+    /**
+     * Consume the opening bracket of an object or array.
+     *
+     * @param open the opening bracket
+     * @param close the closing bracket
+     * @return true if the object or array has a member, false if it was empty and has been consumed
+     * @throws IOException if the input could not be read or has no opening bracket
+     */
+    public boolean begin(char open, char close) throws IOException {
+        consume(open);
+        if (peek() == close) {
+            pos++;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return the string value
+     * @throws IOException if the input could not be read or is not a string
+     */
+    public String readString() throws IOException {
+        consume('"');
+        int length = 0;
+        boolean escaped = false;
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            byte b = buffer[pos++];
+            if (b == '"') {
+                break;
+            }
+            if (b == '\\') {
+                escaped = true;
+                if (pos == limit && !fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                // keep the escape and the escaped byte, which may be a quote
+                scratch = append(scratch, length++, b);
+                b = buffer[pos++];
+            }
+            scratch = append(scratch, length++, b);
+        }
+        String raw = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        return escaped ? unescape(raw) : raw;
+    }
+
+    /**
+     * Read a string, number, boolean or null as a string.
+     *
+     * @return the string, the text of any other value, or null for null
+     * @throws IOException if the input could not be read or the value is an object or array
+     */
+    public String readScalar() throws IOException {
+        int b = peek();
+        if (b == '"') {
+            return readString();
+        }
+        if (b == '{' || b == '[') {
+            throw syntaxError("Expected a scalar value");
+        }
+        StringBuilder text = new StringBuilder();
+        while ((b = peekRaw()) >= 0 && !isDelimiter(b)) {
+            text.append((char) b);
+            pos++;
+        }
+        if (text.length() == 0) {
+            throw syntaxError("Expected a value");
+        }
+        String value = text.toString();
+        return "null".equals(value) ? null : value;
+    }
+
+    /**
+     * Skip a value of any type.
+     *
+     * @throws IOException if the input could not be read or ends within the value
+     */
+    public void skipValue() throws IOException {
+        int b = peek();
+        if (b == '"') {
+            skipString();
+        } else if (b == '{' || b == '[') {
+            int depth = 0;
+            do {
+                if (pos == limit && !fill()) {
+                    throw syntaxError("Unterminated value");
+                }
+                b = buffer[pos];
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                pos++;
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        } else {
+            readScalar();
+        }
+    }
+
+    /**
+     * Start recording the bytes consumed, from the next value.
+     *
+     * @throws IOException if the input could not be read
+     */
+    public void startRecording() throws IOException {
+        peek();
+        recordedLength = 0;
+        recordStart = pos;
+    }
+
+    /**
+     * @return the bytes consumed since {@link #startRecording()}
+     */
+    public byte[] stopRecording() {
+        int length = pos - recordStart;
+        byte[] bytes;
+        if (recordedLength == 0) {
+            bytes = Arrays.copyOfRange(buffer, recordStart, pos);
+        } else {
+            bytes = Arrays.copyOf(recorded, recordedLength + length);
+            System.arraycopy(buffer, recordStart, bytes, recordedLength, length);
+        }
+        recordStart = -1;
+        recordedLength = 0;
+        return bytes;
+    }
+
+    private void skipString() throws IOException {
+        pos++;
+        while (true) {
+            if (pos == limit && !fill()) {
+                throw syntaxError("Unterminated string");
+            }
+            byte b = buffer[pos++];
+            if (b == '"') {
+                return;
+            }
+            if (b == '\\') {
+                if (pos == limit && !fill()) {
+                    throw syntaxError("Unterminated string");
+                }
+                pos++;
+            }
+        }
+    }
+
+    private int peekRaw() throws IOException {
+        if (pos == limit && !fill()) {
+            return -1;
+        }
+        return buffer[pos];
+    }
+
+    private static boolean isDelimiter(int b) {
+        return b == ',' || b == '}' || b == ']' || b == ':' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    // refill the buffer once it has been consumed, keeping the bytes being recorded
+    private boolean fill() throws IOException {
+        if (in == null) {
+            return false;
+        }
+        if (recordStart >= 0) {
+            int length = limit - recordStart;
+            if (recordedLength + length > recorded.length) {
+                recorded = Arrays.copyOf(recorded, Math.max(recordedLength + length, 2 * recorded.length));
+            }
+            System.arraycopy(buffer, recordStart, recorded, recordedLength, length);
+            recordedLength += length;
+            recordStart = 0;
+        }
+        consumed += limit;
+        pos = 0;
+        limit = 0;
+        int n;
+        do {
+            n = in.read(buffer, 0, buffer.length);
+        } while (n == 0);
+        if (n < 0) {
+            return false;
+        }
+        limit = n;
+        return true;
+    }
+
+    private static byte[] append(byte[] bytes, int length, byte b) {
+        if (length == bytes.length) {
+            bytes = Arrays.copyOf(bytes, 2 * length);
+        }
+        bytes[length] = b;
+        return bytes;
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " in JSON");
+    }
+
+    private String unescape(String raw) throws IOException {
+        StringBuilder builder = new StringBuilder(raw.length());
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            char escape = raw.charAt(++i);
+            switch (escape) {
+                case 'b':
+                    builder.append('\b');
+                    break;
+                case 'f':
+                    builder.append('\f');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'u':
+                    if (i + 4 >= raw.length()) {
+                        throw syntaxError("Invalid escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                    } catch (NumberFormatException e) {
+                        throw syntaxError("Invalid escape");
+                    }
+                    i += 4;
+                    break;
+                default:
+                    // quote, backslash and slash stand for themselves
+                    builder.append(escape);
+            }
+        }
+        return builder.toString();
+    }
+}
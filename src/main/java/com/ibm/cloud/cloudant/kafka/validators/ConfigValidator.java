@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -14,10 +14,13 @@
 
 package com.ibm.cloud.cloudant.kafka.validators;
 
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.MessageKey;
 import com.ibm.cloud.cloudant.kafka.utils.ResourceBundleUtil;
 import com.ibm.cloud.cloudant.security.CouchDbSessionAuthenticator;
+import com.ibm.cloud.cloudant.v1.model.PostChangesOptions;
 import com.ibm.cloud.sdk.core.security.Authenticator;
 import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
@@ -42,6 +45,11 @@ public class ConfigValidator {
     }
 
     public Config validate() {
+        validateDatabases();
+        validateBatchSizeBounds();
+        validateChangesFilter();
+        validateValueFormat();
+        validateFeed();
         validateBasicAuth();
         validateIamAuth();
         validateSessionAuth();
@@ -51,6 +59,102 @@ public class ConfigValidator {
         return new Config(validations);
     }
 
+    private void validateDatabases() {
+        if (!values.containsKey(InterfaceConst.DBS)) {
+            // sink: a single database
+            if (nullOrEmpty(values.get(InterfaceConst.DB).value())) {
+                String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_MUST_BE_SET),
+                        InterfaceConst.DB);
+                addErrorMessage(InterfaceConst.DB, messsage);
+            }
+            return;
+        }
+        // source: one of a single database, a list of databases or a database name pattern
+        int set = 0;
+        set += nullOrEmpty(values.get(InterfaceConst.DB).value()) ? 0 : 1;
+        set += nullOrEmpty(values.get(InterfaceConst.DBS).value()) ? 0 : 1;
+        set += nullOrEmpty(values.get(InterfaceConst.DB_REGEX).value()) ? 0 : 1;
+        if (set != 1) {
+            String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_EXACTLY_ONE_MUST_BE_SET),
+                    String.join(", ", InterfaceConst.DB, InterfaceConst.DBS, InterfaceConst.DB_REGEX));
+            addErrorMessage(InterfaceConst.DB, messsage);
+        }
+    }
+
+    private void validateBatchSizeBounds() {
+        if (!values.containsKey(InterfaceConst.BATCH_SIZE_MIN)) {
+            return;
+        }
+        Integer minBatchSize = (Integer) values.get(InterfaceConst.BATCH_SIZE_MIN).value();
+        Integer maxBatchSize = (Integer) values.get(InterfaceConst.BATCH_SIZE_MAX).value();
+        if (minBatchSize != null && maxBatchSize != null && minBatchSize > maxBatchSize) {
+            String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_NOT_GREATER),
+                    InterfaceConst.BATCH_SIZE_MIN,
+                    InterfaceConst.BATCH_SIZE_MAX);
+            addErrorMessage(InterfaceConst.BATCH_SIZE_MIN, messsage);
+        }
+    }
+
+    private void validateChangesFilter() {
+        if (!values.containsKey(InterfaceConst.FILTER)) {
+            return;
+        }
+        String filter = (String) values.get(InterfaceConst.FILTER).value();
+        if (InterfaceConst.FILTER_SELECTOR.equalsIgnoreCase(filter)) {
+            Object selector = values.get(InterfaceConst.SELECTOR).value();
+            if (nullOrEmpty(selector)) {
+                String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_FILTER_MUST_BE_SET),
+                        InterfaceConst.SELECTOR,
+                        InterfaceConst.FILTER,
+                        InterfaceConst.FILTER_SELECTOR);
+                addErrorMessage(InterfaceConst.FILTER, messsage);
+            } else if (!isJsonObject((String) selector)) {
+                String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_NOT_A_JSON_OBJECT), selector);
+                addErrorMessage(InterfaceConst.SELECTOR, messsage);
+            }
+        } else if (InterfaceConst.FILTER_DOC_IDS.equalsIgnoreCase(filter)) {
+            if (nullOrEmpty(values.get(InterfaceConst.DOC_IDS).value())) {
+                String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_FILTER_MUST_BE_SET),
+                        InterfaceConst.DOC_IDS,
+                        InterfaceConst.FILTER,
+                        InterfaceConst.FILTER_DOC_IDS);
+                addErrorMessage(InterfaceConst.FILTER, messsage);
+            }
+        }
+    }
+
+    private void validateValueFormat() {
+        if (!values.containsKey(InterfaceConst.VALUE_FORMAT)) {
+            return;
+        }
+        if (InterfaceConst.VALUE_FORMAT_RAW.equalsIgnoreCase((String) values.get(InterfaceConst.VALUE_FORMAT).value())
+                && InterfaceConst.DOC_FETCH_BULK_GET.equalsIgnoreCase((String) values.get(InterfaceConst.DOC_FETCH).value())) {
+            String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_NOT_SUPPORTED_WITH),
+                    InterfaceConst.VALUE_FORMAT,
+                    InterfaceConst.VALUE_FORMAT_RAW,
+                    InterfaceConst.DOC_FETCH,
+                    InterfaceConst.DOC_FETCH_BULK_GET);
+            addErrorMessage(InterfaceConst.VALUE_FORMAT, messsage);
+        }
+    }
+
+    private void validateFeed() {
+        if (!values.containsKey(InterfaceConst.FEED)
+                || !PostChangesOptions.Feed.CONTINUOUS.equalsIgnoreCase((String) values.get(InterfaceConst.FEED).value())) {
+            return;
+        }
+        // the continuous feed reads a single database over one connection
+        for (String property : new String[]{InterfaceConst.DBS, InterfaceConst.DB_REGEX}) {
+            if (!nullOrEmpty(values.get(property).value())) {
+                String messsage = String.format(ResourceBundleUtil.get(MessageKey.VALIDATION_NOT_SUPPORTED_WHEN_SET),
+                        InterfaceConst.FEED,
+                        PostChangesOptions.Feed.CONTINUOUS,
+                        property);
+                addErrorMessage(InterfaceConst.FEED, messsage);
+            }
+        }
+    }
+
     private void validateBasicAuth() {
         if (Authenticator.AUTHTYPE_BASIC.equalsIgnoreCase((String) values.get(InterfaceConst.AUTH_TYPE).value())) {
             if (nullOrEmpty(values.get(InterfaceConst.USERNAME).value()) || nullOrEmpty(values.get(InterfaceConst.PASSWORD).value())) {
@@ -132,6 +236,14 @@ public class ConfigValidator {
         values.get(property).addErrorMessage(error);
     }
 
+    private static boolean isJsonObject(String json) {
+        try {
+            return JsonParser.parseString(json).isJsonObject();
+        } catch (JsonParseException e) {
+            return false;
+        }
+    }
+
     private static boolean nullOrEmpty(Object str) {
         if (str == null) {
             return true;
@@ -141,6 +253,11 @@ public class ConfigValidator {
                 return true;
             }
         }
+        if (str instanceof List) {
+            if (((List<?>) str).isEmpty()) {
+                return true;
+            }
+        }
         if (str instanceof Password) {
             if (((Password) str).value().isEmpty()) {
                 return true;
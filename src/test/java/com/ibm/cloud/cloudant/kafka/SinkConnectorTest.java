@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -72,4 +72,19 @@ public class SinkConnectorTest extends TestCase {
 
         PowerMock.verifyAll();
     }
+
+    public void testTaskConfigsNumbered() {
+        PowerMock.replayAll();
+        connector.start(targetProperties);
+
+        List<Map<String, String>> taskConfigs = connector.taskConfigs(3);
+
+        Assert.assertEquals(3, taskConfigs.size());
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals("Each task should have its own number.", Integer.toString(i),
+                    taskConfigs.get(i).get(InterfaceConst.TASK_NUMBER));
+            Assert.assertEquals(targetProperties.get(InterfaceConst.URL), taskConfigs.get(i).get(InterfaceConst.URL));
+        }
+        PowerMock.verifyAll();
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2023 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -17,7 +17,10 @@ import com.ibm.cloud.cloudant.kafka.caching.CachedClientManager;
 import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.ConnectorUtils;
+import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
 import com.ibm.cloud.cloudant.v1.Cloudant;
+import com.ibm.cloud.cloudant.v1.model.DbUpdates;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import junit.framework.TestCase;
 import org.apache.kafka.connect.connector.ConnectorContext;
 import org.junit.Assert;
@@ -25,9 +28,18 @@ import org.powermock.api.easymock.PowerMock;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.reflect.Whitebox;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.expectLastCall;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
 
 /**
  * @author holger
@@ -51,6 +63,11 @@ public class SourceChangesConnectorTest extends TestCase {
         connector.initialize(context);
     }
 
+    protected void tearDown() throws Exception {
+        PowerMock.resetAll();
+        super.tearDown();
+    }
+
     /**
      * Test method for {@link SourceChangesConnector#stop()}.
      */
@@ -109,4 +126,114 @@ public class SourceChangesConnectorTest extends TestCase {
 
         PowerMock.verifyAll();
     }
+
+    /**
+     * Test method for
+     * {@link SourceChangesConnector#taskConfigs(int)} with more than one task for a single database.
+     */
+    public void testTaskConfigsSingleDatabase() {
+        connector.start(sourceProperties);
+
+        List<Map<String, String>> taskConfigs = connector.taskConfigs(3);
+
+        Assert.assertEquals("A single database should be read by one task.", 1, taskConfigs.size());
+        Assert.assertEquals(sourceProperties.get(InterfaceConst.DB), taskConfigs.get(0).get(InterfaceConst.DB));
+    }
+
+    /**
+     * Test method for
+     * {@link SourceChangesConnector#taskConfigs(int)} with a list of databases.
+     */
+    public void testTaskConfigsDatabaseList() {
+        sourceProperties.remove(InterfaceConst.DB);
+        sourceProperties.put(InterfaceConst.DBS, "db1, db2,db3,db4,db5");
+        connector.start(sourceProperties);
+
+        List<Map<String, String>> taskConfigs = connector.taskConfigs(2);
+
+        Assert.assertEquals(2, taskConfigs.size());
+        Assert.assertEquals("db1,db3,db5", taskConfigs.get(0).get(InterfaceConst.DBS));
+        Assert.assertEquals("db2,db4", taskConfigs.get(1).get(InterfaceConst.DBS));
+    }
+
+    /**
+     * Test method for
+     * {@link SourceChangesConnector#taskConfigs(int)} with fewer databases than tasks.
+     */
+    public void testTaskConfigsFewerDatabasesThanTasks() {
+        sourceProperties.remove(InterfaceConst.DB);
+        sourceProperties.put(InterfaceConst.DBS, "db1,db2");
+        connector.start(sourceProperties);
+
+        List<Map<String, String>> taskConfigs = connector.taskConfigs(4);
+
+        Assert.assertEquals(2, taskConfigs.size());
+        Assert.assertEquals("db1", taskConfigs.get(0).get(InterfaceConst.DBS));
+        Assert.assertEquals("db2", taskConfigs.get(1).get(InterfaceConst.DBS));
+    }
+
+    /**
+     * Test method for
+     * {@link SourceChangesConnector#taskConfigs(int)} with a database name pattern.
+     */
+    public void testTaskConfigsDatabaseRegex() {
+        sourceProperties.remove(InterfaceConst.DB);
+        sourceProperties.put(InterfaceConst.DB_REGEX, "orders-.*");
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        expect(mockCloudant.getAllDbs(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(
+                Arrays.asList("_replicator", "orders-1", "orders-2", "customers", "old-orders-3")));
+        ClientManagerUtils.addClientToCache(sourceProperties.get("name"), mockCloudant);
+        replay(mockCloudant);
+        connector.start(sourceProperties);
+
+        List<Map<String, String>> taskConfigs = connector.taskConfigs(1);
+
+        Assert.assertEquals(1, taskConfigs.size());
+        Assert.assertEquals("orders-1,orders-2", taskConfigs.get(0).get(InterfaceConst.DBS));
+        Assert.assertNull("The pattern should be resolved by the connector.", taskConfigs.get(0).get(InterfaceConst.DB_REGEX));
+        verify(mockCloudant);
+        connector.stop();
+    }
+
+    /**
+     * Test method for {@link SourceChangesConnector#start(Map)} following _db_updates
+     * for databases matching a pattern.
+     */
+    // mocks the deprecated _db_updates call made by JavaCloudantUtil.getDbUpdates
+    @SuppressWarnings("deprecation")
+    public void testDatabaseCreatedReconfiguresTasks() throws Exception {
+        sourceProperties.remove(InterfaceConst.DB);
+        sourceProperties.put(InterfaceConst.DB_REGEX, "orders-.*");
+        sourceProperties.put(InterfaceConst.DB_UPDATES, "true");
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        ConnectorContext context = PowerMock.createMock(ConnectorContext.class);
+        CountDownLatch reconfigured = new CountDownLatch(1);
+        expect(mockCloudant.getDbUpdates(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(
+                GsonSingleton.getGson().fromJson("{\"results\":["
+                        + "{\"db_name\":\"customers\",\"type\":\"created\",\"seq\":\"1-a\"},"
+                        + "{\"db_name\":\"orders-3\",\"type\":\"updated\",\"seq\":\"2-a\"},"
+                        + "{\"db_name\":\"orders-4\",\"type\":\"created\",\"seq\":\"3-a\"}],"
+                        + "\"last_seq\":\"3-a\"}", DbUpdates.class)));
+        expect(mockCloudant.getDbUpdates(anyObject())).andAnswer(() -> {
+            Thread.sleep(100);
+            return ServiceCallUtils.makeServiceCallWithResult(
+                    GsonSingleton.getGson().fromJson("{\"results\":[],\"last_seq\":\"3-a\"}", DbUpdates.class));
+        }).anyTimes();
+        context.requestTaskReconfiguration();
+        expectLastCall().andAnswer(() -> {
+            reconfigured.countDown();
+            return null;
+        }).once();
+        ClientManagerUtils.addClientToCache(sourceProperties.get("name"), mockCloudant);
+        replay(mockCloudant, context);
+        connector.initialize(context);
+        connector.start(sourceProperties);
+
+        Assert.assertTrue("Tasks should be reconfigured for the created database.",
+                reconfigured.await(5, TimeUnit.SECONDS));
+        // give any unexpected reconfiguration a chance to happen
+        Thread.sleep(200);
+        connector.stop();
+        verify(context);
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -19,5 +19,6 @@ public class ClientManagerUtils {
 
     public static void addClientToCache(String name, Cloudant cloudant) {
         CachedClientManager.clientCache.put(name, cloudant);
+        CachedClientManager.knownDbsCache.remove(name);
     }
 }
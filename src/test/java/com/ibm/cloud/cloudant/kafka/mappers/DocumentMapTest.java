@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.mappers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.json.JsonConverter;
+import org.junit.Test;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.ibm.cloud.cloudant.v1.model.Document;
+
+public class DocumentMapTest {
+
+    // The map that putting the meta properties and then the properties into a HashMap would make
+    private static Map<String, Object> copied(Document document) {
+        Map<String, Object> map = new HashMap<>();
+        for (DocumentToSourceRecord.MetaProperty metaProp : DocumentToSourceRecord.MetaProperty.values()) {
+            Object value = metaProp.getValueFromDoc(document);
+            if (value != null) {
+                map.put(metaProp.toString(), value);
+            }
+        }
+        map.putAll(document.getProperties());
+        return map;
+    }
+
+    @Test
+    public void testEqualsCopiedMap() {
+        for (Document document : new Document[] {DocumentHelpers.EMPTY_DOC, DocumentHelpers.MIN_DOC,
+                DocumentHelpers.ALL_META_DOC, DocumentHelpers.ALL_TYPES_DOC, DocumentHelpers.EVERYTHING_DOC}) {
+            Map<String, Object> expected = copied(document);
+            Map<String, Object> actual = new DocumentMap(document);
+            assertEquals(expected, actual);
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.keySet(), actual.keySet());
+        }
+    }
+
+    @Test
+    public void testPropertyOverlaysMeta() {
+        Document document = new Document.Builder().id("meta").rev("1-a").add("_id", "property").build();
+        Map<String, Object> map = new DocumentMap(document);
+        assertEquals("property", map.get("_id"));
+        assertEquals("1-a", map.get("_rev"));
+        assertEquals("The overlaid meta property should not be counted.", 2, map.size());
+        assertEquals(2, map.entrySet().size());
+    }
+
+    @Test
+    public void testMissingAndNullEntries() {
+        Document document = new Document.Builder().id("doc1").add("null", null).build();
+        Map<String, Object> map = new DocumentMap(document);
+        assertTrue(map.containsKey("null"));
+        assertNull(map.get("null"));
+        assertFalse("An unset meta property should not be in the map.", map.containsKey("_rev"));
+        assertFalse(map.containsKey("missing"));
+        assertNull(map.get("missing"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNumbersConvertedWhenRead() {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("n", new LazilyParsedNumber("300"));
+        nested.put("list", Collections.singletonList(new LazilyParsedNumber("0.5")));
+        Document document = new Document.Builder().id("doc1")
+                .add("n", new LazilyParsedNumber("1"))
+                .add("nested", nested)
+                .build();
+        Map<String, Object> map = new DocumentMap(document);
+        assertEquals((byte) 1, map.get("n"));
+        Map<String, Object> actualNested = (Map<String, Object>) map.get("nested");
+        assertEquals((short) 300, actualNested.get("n"));
+        assertEquals(0.5f, ((List<Object>) actualNested.get("list")).get(0));
+        // the document itself is not changed
+        assertEquals(LazilyParsedNumber.class, nested.get("n").getClass());
+        try (JsonConverter converter = new JsonConverter()) {
+            converter.configure(Collections.singletonMap("schemas.enable", false), false);
+            converter.fromConnectData("test", null, map);
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        new DocumentMap(DocumentHelpers.MIN_DOC).put("k", "v");
+    }
+}
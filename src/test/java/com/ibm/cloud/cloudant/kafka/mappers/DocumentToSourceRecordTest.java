@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -15,18 +15,30 @@ package com.ibm.cloud.cloudant.kafka.mappers;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.Test;
 import com.ibm.cloud.cloudant.kafka.mappers.DocumentToSourceRecord.MetaProperty;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
 import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 
 
 public class DocumentToSourceRecordTest {
     
     // We don't need real offset functions for this test, just return empty maps
-    DocumentToSourceRecord mapper = new DocumentToSourceRecord(Collections.emptyMap(), (s) -> Collections.emptyMap());
+    DocumentToSourceRecord mapper = new DocumentToSourceRecord(Collections.emptyMap(), (s) -> Collections.emptyMap(),
+            Collections.singletonList("topic"));
 
 
     private void assertMetadata(Document expected, Map<String, Object> actual) {
@@ -85,4 +97,57 @@ public class DocumentToSourceRecordTest {
         assertEquals("There should be the right number of entries in the map.", DocumentHelpers.allTypesAsMap().size() + 9, map.entrySet().size());
         assertActualMapAgainstExpected(DocumentHelpers.EVERYTHING_DOC, map);
     }
+
+    private static ChangesResultItem change(String json) {
+        return GsonSingleton.getGson().fromJson(json, ChangesResultItem.class);
+    }
+
+    @Test
+    public void testChangeMappedOnceForAllTopics() {
+        DocumentToSourceRecord mapper = new DocumentToSourceRecord(Collections.singletonMap("cloudant.db", "db"),
+                (s) -> Collections.singletonMap("cloudant.since", s), Arrays.asList("t1", "t2", "t3"));
+        List<SourceRecord> records = mapper.apply(change(
+                "{\"seq\":\"1-a\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":{\"_id\":\"doc1\",\"_rev\":\"1-a\",\"k\":\"v\"}}"));
+        assertEquals("There should be a record for each topic.", 3, records.size());
+        assertEquals(Arrays.asList("t1", "t2", "t3"), records.stream().map(SourceRecord::topic).collect(Collectors.toList()));
+        for (SourceRecord record : records) {
+            assertSame("The key should be shared between topics.", records.get(0).key(), record.key());
+            assertSame("The value should be shared between topics.", records.get(0).value(), record.value());
+            assertSame("The offset should be shared between topics.", records.get(0).sourceOffset(), record.sourceOffset());
+        }
+        assertEquals("v", ((Map<?, ?>) records.get(0).value()).get("k"));
+        assertEquals("1-a", records.get(0).sourceOffset().get("cloudant.since"));
+    }
+
+    @Test
+    public void testDeletedChangeTombstoneForEachTopic() {
+        DocumentToSourceRecord mapper = new DocumentToSourceRecord(Collections.emptyMap(), (s) -> Collections.emptyMap(),
+                Arrays.asList("t1", "t2"));
+        List<SourceRecord> records = mapper.apply(change(
+                "{\"seq\":\"2-a\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"2-a\"}],\"deleted\":true,\"doc\":{\"_id\":\"doc1\",\"_rev\":\"2-a\",\"_deleted\":true}}"));
+        assertEquals("There should be a record and a tombstone for each topic.", 4, records.size());
+        assertEquals("t1", records.get(0).topic());
+        assertNotNull(records.get(0).value());
+        assertEquals("t1", records.get(1).topic());
+        assertNull("The tombstone should have no value.", records.get(1).value());
+        assertSame(records.get(0).key(), records.get(1).key());
+        assertEquals("t2", records.get(2).topic());
+        assertNull(records.get(3).value());
+    }
+
+    @Test
+    public void testRawChangeBytesValue() {
+        DocumentToSourceRecord mapper = new DocumentToSourceRecord(Collections.emptyMap(), (s) -> Collections.emptyMap(),
+                Arrays.asList("t1", "t2"));
+        byte[] rawDoc = "{\"_id\":\"doc1\",\"_rev\":\"2-a\",\"_deleted\":true}".getBytes(StandardCharsets.UTF_8);
+        Document stub = new Document();
+        stub.setId("doc1");
+        List<SourceRecord> records = mapper.apply(new RawChangesResultItem("2-a", "doc1", true, stub, rawDoc));
+        assertEquals("There should be a record and a tombstone for each topic.", 4, records.size());
+        assertSame("The value should be the raw document.", rawDoc, records.get(0).value());
+        assertEquals(Schema.OPTIONAL_BYTES_SCHEMA, records.get(0).valueSchema());
+        assertEquals("doc1", ((Struct) records.get(0).key()).get("_id"));
+        assertNull("The tombstone should have no value.", records.get(1).value());
+        assertSame(rawDoc, records.get(2).value());
+    }
 }
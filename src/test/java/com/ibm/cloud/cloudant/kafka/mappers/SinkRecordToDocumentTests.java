@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -13,7 +13,10 @@
  */
 package com.ibm.cloud.cloudant.kafka.mappers;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -22,14 +25,20 @@ import org.apache.kafka.connect.sink.SinkRecord;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static com.ibm.cloud.cloudant.kafka.mappers.SinkRecordToDocument.HEADER_DOC_ID_KEY;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class SinkRecordToDocumentTests {
@@ -37,6 +46,10 @@ public class SinkRecordToDocumentTests {
     // for these tests we will operate on SinkRecords, but they could just as easily be SourceRecords - for our purposes they are equivalent
     SinkRecordToDocument mapper = new SinkRecordToDocument();
 
+    private JsonObject convert(SinkRecord sr) {
+        return JsonParser.parseString(json(mapper.apply(sr))).getAsJsonObject();
+    }
+
     @Test
     public void testConvertToMapSchema() {
         // given...
@@ -45,9 +58,9 @@ public class SinkRecordToDocumentTests {
         value.put("hello", "world");
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         // when...
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
         // then...
-        assertEquals("world", converted.get("hello"));
+        assertEquals("world", converted.get("hello").getAsString());
     }
 
     @Test
@@ -58,9 +71,9 @@ public class SinkRecordToDocumentTests {
         value.put("hello", "world");
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         // when...
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
         // then...
-        assertEquals("world", converted.get("hello"));
+        assertEquals("world", converted.get("hello").getAsString());
     }
 
     @Test
@@ -73,10 +86,10 @@ public class SinkRecordToDocumentTests {
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         sr.headers().addString(HEADER_DOC_ID_KEY, headerValue);
         // when...
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
         // then...
-        assertEquals("world", converted.get("hello"));
-        assertEquals(headerValue, converted.get("_id"));
+        assertEquals("world", converted.get("hello").getAsString());
+        assertEquals(headerValue, converted.get("_id").getAsString());
     }
 
     @Test
@@ -92,14 +105,13 @@ public class SinkRecordToDocumentTests {
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         sr.headers().addMap(HEADER_DOC_ID_KEY, headerValue, headerSchema);
         // when...
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
         // then...
-        assertEquals("world", converted.get("hello"));
-        assertEquals("foo", converted.get("_id"));
+        assertEquals("world", converted.get("hello").getAsString());
+        assertEquals("foo", converted.get("_id").getAsString());
     }
 
     @Test
-    @SuppressWarnings("unchecked")
     public void testConvertComplexStruct() {
         // given...
         Schema s = SchemaBuilder.struct()
@@ -148,24 +160,23 @@ public class SinkRecordToDocumentTests {
 
         // do conversion
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
 
         // then...
-        assertEquals("foo1", converted.get("_id"));
-        assertEquals("foo2", converted.get("_rev"));
-        assertEquals(true, converted.get("boolean"));
-        assertEquals(3.14d, converted.get("double"));
-        assertEquals(3.14f, converted.get("float"));
-        assertEquals(42, converted.get("integer"));
-        assertEquals(42l, converted.get("long"));
-        assertEquals(null, converted.get("null"));
-        assertEquals("foo3", converted.get("string"));
-        assertEquals("foo4", ((Map<String, Object>) converted.get("struct")).get("string_1"));
-        assertEquals("foo5", ((Map<String, Object>) ((Map<String, Object>) ((Map<String, Object>) converted.get("struct")).get("map")).get("struct2")).get("string_2"));
+        assertEquals("foo1", converted.get("_id").getAsString());
+        assertEquals("foo2", converted.get("_rev").getAsString());
+        assertEquals(true, converted.get("boolean").getAsBoolean());
+        assertEquals(3.14d, converted.get("double").getAsDouble(), 0);
+        assertEquals(3.14f, converted.get("float").getAsFloat(), 0);
+        assertEquals(42, converted.get("integer").getAsInt());
+        assertEquals(42l, converted.get("long").getAsLong());
+        assertTrue(converted.get("null").isJsonNull());
+        assertEquals("foo3", converted.get("string").getAsString());
+        assertEquals("foo4", converted.getAsJsonObject("struct").get("string_1").getAsString());
+        assertEquals("foo5", converted.getAsJsonObject("struct").getAsJsonObject("map").getAsJsonObject("struct2").get("string_2").getAsString());
 
     }
 
-    @SuppressWarnings("unchecked")
     @Test
     public void testConvertArrayOfStructs() {
         // given...
@@ -194,11 +205,11 @@ public class SinkRecordToDocumentTests {
 
         // do conversion
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
 
         // then...
-        assertEquals(((List<Map<String, Object>>) converted.get("struct_array")).get(0).get("string"), "foo1");
-        assertEquals(((List<Map<String, Object>>) converted.get("struct_array")).get(1).get("string"), "foo2");
+        assertEquals(converted.getAsJsonArray("struct_array").get(0).getAsJsonObject().get("string").getAsString(), "foo1");
+        assertEquals(converted.getAsJsonArray("struct_array").get(1).getAsJsonObject().get("string").getAsString(), "foo2");
     }
 
     @Test
@@ -224,11 +235,11 @@ public class SinkRecordToDocumentTests {
         // do conversion
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         sr.headers().addString(HEADER_DOC_ID_KEY, headerValue);
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
 
         // then...
-        assertEquals(headerValue, converted.get("_id"));
-        assertEquals("foo2", converted.get("_rev"));
+        assertEquals(headerValue, converted.get("_id").getAsString());
+        assertEquals("foo2", converted.get("_rev").getAsString());
     }
 
     @Test
@@ -252,11 +263,11 @@ public class SinkRecordToDocumentTests {
         // do conversion
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         sr.headers().addString(HEADER_DOC_ID_KEY, headerValue);
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
 
         // then...
-        assertEquals(headerValue, converted.get("_id"));
-        assertEquals("foo2", converted.get("_rev"));
+        assertEquals(headerValue, converted.get("_id").getAsString());
+        assertEquals("foo2", converted.get("_rev").getAsString());
     }
 
     @Test
@@ -280,11 +291,11 @@ public class SinkRecordToDocumentTests {
         // do conversion
         SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
         sr.headers().addInt(HEADER_DOC_ID_KEY, headerValue);
-        Document converted = mapper.apply(sr);
+        JsonObject converted = convert(sr);
 
         // then...
-        assertNull(converted.get("_id"));
-        assertEquals("foo2", converted.get("_rev"));
+        assertFalse(converted.has("_id"));
+        assertEquals("foo2", converted.get("_rev").getAsString());
     }
 
     @Test
@@ -298,4 +309,157 @@ public class SinkRecordToDocumentTests {
         } catch (IllegalArgumentException iae) {
         }
     }
+
+    private static String json(RawDocument document) {
+        return new String(document.getJson(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testConvertJsonBytes() {
+        byte[] value = "{\"_id\":\"foo1\", \"nested\":{\"_id\":\"bar\"},\"n\":1.50}".getBytes(StandardCharsets.UTF_8);
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", Schema.OPTIONAL_BYTES_SCHEMA, value, 0);
+        RawDocument converted = mapper.apply(sr);
+        assertSame("The bytes should be written as they are.", value, converted.getJson());
+    }
+
+    @Test
+    public void testConvertJsonStringWithHeader() {
+        String value = "{ \"hello\" : \"world\", \"_id\":\"foo1\" ,\"list\":[1, {\"_id\":2}] }";
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", Schema.STRING_SCHEMA, value, 0);
+        sr.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id\"");
+        RawDocument converted = mapper.apply(sr);
+        assertEquals("{\"_id\":\"example-doc-id\\\"\",\"hello\" : \"world\",\"list\":[1, {\"_id\":2}]}",
+                json(converted));
+    }
+
+    @Test
+    public void testConvertEmptyJsonWithHeader() {
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", null, " {} ", 0);
+        sr.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id");
+        assertEquals("The _id should not be set on an empty document.", " {} ", json(mapper.apply(sr)));
+    }
+
+    @Test
+    public void testConvertInvalidJsonFails() {
+        for (String value : new String[] {"[1]", "{\"a\":1", "{\"a\":1} {}", "{\"a\" 1}"}) {
+            SinkRecord sr = new SinkRecord("test", 13, null, "0001", null, value.getBytes(StandardCharsets.UTF_8), 0);
+            try {
+                mapper.apply(sr);
+                Assert.fail("should throw IllegalArgumentException for " + value);
+            } catch (IllegalArgumentException iae) {
+            }
+        }
+    }
+
+    // the raw document of a record should be the JSON the SDK serializes a document of its members to
+    private void assertRawDocumentSameAsDocument(Map<String, Object> members, SinkRecord sr) {
+        Document document = new Document();
+        document.setProperties(members);
+        String expected = GsonSingleton.getGsonWithoutPrettyPrinting().toJson(document);
+        String actual = json(mapper.apply(sr));
+        assertEquals(JsonParser.parseString(expected), JsonParser.parseString(actual));
+    }
+
+    @Test
+    public void testRawDocumentOfMap() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("_id", "foo1");
+        value.put("string", "a \"quoted\" \u00e9");
+        value.put("integer", 42);
+        value.put("double", 3.14d);
+        value.put("float", 3.14f);
+        value.put("boolean", true);
+        value.put("null", null);
+        value.put("bytes", new byte[] {1, 2, 3});
+        value.put("date", new Date(0));
+        value.put("list", Arrays.asList(1, null, Collections.singletonMap("a", Arrays.asList("b", 2L))));
+        value.put("map", Collections.singletonMap("nested", Collections.singletonMap("null", null)));
+        value.put("empty", Collections.emptyList());
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", null, value, 0);
+        assertRawDocumentSameAsDocument(value, sr);
+        sr.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id");
+        Map<String, Object> withId = new LinkedHashMap<>(value);
+        withId.put("_id", "example-doc-id");
+        assertRawDocumentSameAsDocument(withId, sr);
+    }
+
+    @Test
+    public void testRawDocumentOfStruct() {
+        Schema inner = SchemaBuilder.struct().field("string_2", Schema.STRING_SCHEMA).build();
+        Schema s = SchemaBuilder.struct()
+                .field("_id", Schema.STRING_SCHEMA)
+                .field("boolean", Schema.BOOLEAN_SCHEMA)
+                .field("int8", Schema.INT8_SCHEMA)
+                .field("long", Schema.INT64_SCHEMA)
+                .field("double", Schema.FLOAT64_SCHEMA)
+                .field("null", Schema.OPTIONAL_STRING_SCHEMA)
+                .field("bytes", Schema.BYTES_SCHEMA)
+                .field("array", SchemaBuilder.array(inner).build())
+                .field("map", SchemaBuilder.map(Schema.STRING_SCHEMA, inner).build())
+                .field("struct", inner)
+                .build();
+        Struct innerValue = new Struct(inner).put("string_2", "foo5");
+        Struct value = new Struct(s)
+                .put("_id", "foo1")
+                .put("boolean", false)
+                .put("int8", (byte) 8)
+                .put("long", 42L)
+                .put("double", -0.5d)
+                .put("bytes", new byte[] {4, 5})
+                .put("array", Arrays.asList(innerValue, innerValue))
+                .put("map", Collections.singletonMap("struct2", innerValue))
+                .put("struct", innerValue);
+        value.validate();
+        Map<String, Object> innerMembers = Collections.singletonMap("string_2", "foo5");
+        Map<String, Object> members = new LinkedHashMap<>();
+        members.put("_id", "foo1");
+        members.put("boolean", false);
+        members.put("int8", (byte) 8);
+        members.put("long", 42L);
+        members.put("double", -0.5d);
+        members.put("null", null);
+        members.put("bytes", new byte[] {4, 5});
+        members.put("array", Arrays.asList(innerMembers, innerMembers));
+        members.put("map", Collections.singletonMap("struct2", innerMembers));
+        members.put("struct", innerMembers);
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", s, value, 0);
+        assertRawDocumentSameAsDocument(members, sr);
+        sr.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id");
+        members.put("_id", "example-doc-id");
+        assertRawDocumentSameAsDocument(members, sr);
+    }
+
+    @Test
+    public void testRawDocumentOfEmptyValues() {
+        SinkRecord nullValue = new SinkRecord("test", 13, null, "0001", null, null, 0);
+        nullValue.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id");
+        assertEquals("{}", json(mapper.apply(nullValue)));
+        SinkRecord emptyMap = new SinkRecord("test", 13, null, "0001", null, Collections.emptyMap(), 0);
+        emptyMap.headers().addString(HEADER_DOC_ID_KEY, "example-doc-id");
+        assertEquals("The _id should not be set on an empty document.", "{}", json(mapper.apply(emptyMap)));
+    }
+
+    @Test
+    public void testRawDocumentOfJson() {
+        byte[] value = "{\"_id\":\"foo1\"}".getBytes(StandardCharsets.UTF_8);
+        SinkRecord sr = new SinkRecord("test", 13, null, "0001", Schema.OPTIONAL_BYTES_SCHEMA, value, 0);
+        assertSame("The bytes should be written as they are.", value, mapper.apply(sr).getJson());
+    }
+
+    @Test
+    public void testRawDocumentOfInvalidValuesFails() {
+        SinkRecord[] records = {
+            new SinkRecord("test", 13, null, "0001", null, 1, 0),
+            new SinkRecord("test", 13, null, "0001", Schema.INT32_SCHEMA, 1, 0),
+            new SinkRecord("test", 13, null, "0001", null, Collections.singletonMap(1, "a"), 0),
+            new SinkRecord("test", 13, null, "0001", null, Collections.singletonMap("a", Collections.singletonMap(1, "b")), 0)
+        };
+        for (SinkRecord sr : records) {
+            try {
+                mapper.apply(sr);
+                Assert.fail("should throw IllegalArgumentException for " + sr.value());
+            } catch (IllegalArgumentException iae) {
+            }
+        }
+    }
 }
@@ -0,0 +1,125 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.performance;
+
+import com.carrotsearch.junitbenchmarks.AbstractBenchmark;
+import com.carrotsearch.junitbenchmarks.BenchmarkOptions;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.ibm.cloud.cloudant.kafka.utils.NumberNarrowing;
+import com.ibm.cloud.cloudant.kafka.utils.NumberSafeMap;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Compares narrowing the numbers of a numeric document with the BigDecimal narrowing that
+ * NumberNarrowing replaced.
+ */
+@BenchmarkOptions(benchmarkRounds = 20, warmupRounds = 5)
+public class NumberNarrowingPerformanceTest extends AbstractBenchmark {
+
+    private static final int NUMBERS = 100000;
+
+    private static final List<String> numbers = new ArrayList<>(NUMBERS);
+    private static final Map<String, Object> document = new HashMap<>();
+
+    // Consumes the results so the work is not optimized away
+    private static volatile Object sink;
+
+    @BeforeClass
+    public static void setUp() {
+        // A mix of the numbers in a typical document: small counts, ids, prices and measurements
+        Random random = new Random(11);
+        for (int i = 0; i < NUMBERS; i++) {
+            switch (i % 4) {
+                case 0:
+                    numbers.add(Integer.toString(random.nextInt(100)));
+                    break;
+                case 1:
+                    numbers.add(Long.toString(random.nextLong()));
+                    break;
+                case 2:
+                    numbers.add(BigDecimal.valueOf(random.nextInt(100000), 2).toString());
+                    break;
+                default:
+                    numbers.add(Double.toString(random.nextDouble() * 1000));
+            }
+        }
+        for (int i = 0; i < 1000; i++) {
+            document.put("field" + i, new LazilyParsedNumber(numbers.get(i)));
+        }
+    }
+
+    @Test
+    public void testNarrowing() {
+        for (String number : numbers) {
+            sink = NumberNarrowing.narrow(number);
+        }
+    }
+
+    @Test
+    public void testBigDecimalNarrowing() {
+        for (String number : numbers) {
+            sink = bigDecimalNarrow(number);
+        }
+    }
+
+    @Test
+    public void testNumberSafeMap() {
+        for (int i = 0; i < 100; i++) {
+            sink = new NumberSafeMap(document);
+        }
+    }
+
+    // The narrowing NumberSafeMap did before NumberNarrowing
+    private static Number bigDecimalNarrow(String text) {
+        BigDecimal n = new BigDecimal(text);
+        try {
+            return n.byteValueExact();
+        } catch (ArithmeticException e) {
+            // try the next
+        }
+        try {
+            return n.shortValueExact();
+        } catch (ArithmeticException e) {
+            // try the next
+        }
+        try {
+            return n.intValueExact();
+        } catch (ArithmeticException e) {
+            // try the next
+        }
+        try {
+            return n.longValueExact();
+        } catch (ArithmeticException e) {
+            // try the next
+        }
+        try {
+            return n.toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            // try the next
+        }
+        float f = n.floatValue();
+        if (!Float.isInfinite(f) && n.equals(BigDecimal.valueOf(f))) {
+            return f;
+        }
+        return n.doubleValue();
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.util.Collections;
+import org.junit.Test;
+
+public class AdaptiveBatchSizeTest {
+
+    private static final long MB = 1024 * 1024;
+
+    private static final ChangesResultItem ROW = GsonSingleton.getGson().fromJson(
+            "{\"seq\":\"1-x\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}]}", ChangesResultItem.class);
+
+    // A batch of rows read, only the number of results is used
+    private static ChangesBatch batch(int rows, long bytes) {
+        return new ChangesBatch(Collections.nCopies(rows, ROW), "1-x", bytes);
+    }
+
+    @Test
+    public void testGrowsAtMostDoubleWhenFast() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 10, 1000, 1000, 64 * MB);
+        // 0.1 ms per row would allow 10000 rows in the target latency
+        batchSize.recordFetch(100, batch(100, 100), 10);
+        assertEquals(200, batchSize.limit());
+        batchSize.recordFetch(200, batch(200, 200), 20);
+        assertEquals(400, batchSize.limit());
+        batchSize.recordFetch(400, batch(400, 400), 40);
+        batchSize.recordFetch(800, batch(800, 800), 80);
+        assertEquals("The limit should not exceed the maximum.", 1000, batchSize.limit());
+    }
+
+    @Test
+    public void testShrinksWhenSlow() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 10, 10000, 1000, 64 * MB);
+        // 5 ms per row allows 200 rows in the target latency
+        batchSize.recordFetch(1000, batch(1000, 1000), 5000);
+        assertEquals(200, batchSize.limit());
+    }
+
+    @Test
+    public void testPartialBatchIgnored() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 10, 10000, 1000, 64 * MB);
+        // a long poll that returned a few rows after waiting for them
+        batchSize.recordFetch(1000, batch(3, 300), 30000);
+        assertEquals("The limit should not change while tailing the feed.", 1000, batchSize.limit());
+    }
+
+    @Test
+    public void testLimitedByBytesPerRow() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 1, 10000, 1000, 10 * MB);
+        // 1 MB rows, stopped by the byte budget before the limit
+        batchSize.recordFetch(100, batch(12, 12 * MB), 1);
+        assertEquals("The limit should fit the byte budget.", 10, batchSize.limit());
+    }
+
+    @Test
+    public void testProduceTimeCounted() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(1000, 10, 10000, 1000, 64 * MB);
+        // 9 ms per row to produce, 1 ms per row to fetch allows 100 rows in the target latency
+        batchSize.recordProduce(1000, 9000);
+        batchSize.recordFetch(1000, batch(1000, 1000), 1000);
+        assertEquals(100, batchSize.limit());
+    }
+
+    @Test
+    public void testNotBelowMinimum() {
+        AdaptiveBatchSize batchSize = new AdaptiveBatchSize(100, 50, 10000, 1000, 64 * MB);
+        batchSize.recordFetch(100, batch(100, 100), 100000);
+        assertEquals(50, batchSize.limit());
+    }
+}
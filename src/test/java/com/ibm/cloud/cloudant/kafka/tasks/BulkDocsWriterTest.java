@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+
+public class BulkDocsWriterTest {
+
+    private BulkDocsWriter writer;
+
+    @After
+    public void close() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private static List<List<RawDocument>> batches(int n, int size) {
+        List<List<RawDocument>> batches = new ArrayList<>();
+        for (int b = 0; b < n; b++) {
+            List<RawDocument> batch = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                batch.add(new RawDocument(("{\"_id\":\"" + b + "-" + i + "\"}").getBytes(StandardCharsets.UTF_8)));
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    // a result for each document, with its id
+    private static List<DocumentResult> results(List<RawDocument> docs) {
+        return docs.stream()
+            .map(doc -> GsonSingleton.getGson().fromJson("{\"ok\":true,\"id\":\"" + id(doc) + "\"}", DocumentResult.class))
+            .collect(Collectors.toList());
+    }
+
+    private static String id(RawDocument doc) {
+        return JsonParser.parseString(new String(doc.getJson(), StandardCharsets.UTF_8)).getAsJsonObject().get("_id").getAsString();
+    }
+
+    @Test
+    public void testResultsOfEachBatch() {
+        writer = new BulkDocsWriter("test", BulkDocsWriterTest::results, 4);
+        List<List<RawDocument>> batches = batches(10, 3);
+        List<Future<List<DocumentResult>>> writes = batches.stream().map(writer::submit).collect(Collectors.toList());
+        for (int b = 0; b < batches.size(); b++) {
+            List<DocumentResult> results = BulkDocsWriter.results(writes.get(b));
+            assertEquals(batches.get(b).size(), results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(id(batches.get(b).get(i)), results.get(i).getId());
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentRequests() {
+        int concurrency = 3;
+        CountDownLatch inFlight = new CountDownLatch(concurrency);
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger current = new AtomicInteger();
+        writer = new BulkDocsWriter("test", docs -> {
+            maxInFlight.accumulateAndGet(current.incrementAndGet(), Math::max);
+            inFlight.countDown();
+            try {
+                // each request waits for the others to be in flight
+                assertTrue(inFlight.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            current.decrementAndGet();
+            return results(docs);
+        }, concurrency);
+        batches(2 * concurrency, 1).stream().map(writer::submit).collect(Collectors.toList())
+            .forEach(BulkDocsWriter::results);
+        assertEquals(concurrency, maxInFlight.get());
+    }
+
+    @Test
+    public void testFailureThrown() {
+        IllegalStateException failure = new IllegalStateException("test");
+        writer = new BulkDocsWriter("test", docs -> {
+            throw failure;
+        }, 2);
+        try {
+            BulkDocsWriter.results(writer.submit(batches(1, 1).get(0)));
+            fail("The failure should be thrown");
+        } catch (IllegalStateException e) {
+            assertSame(failure, e);
+        }
+    }
+
+    @Test
+    public void testSkipBeforeStart() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger requests = new AtomicInteger();
+        writer = new BulkDocsWriter("test", docs -> {
+            requests.incrementAndGet();
+            started.countDown();
+            try {
+                assertTrue(release.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return results(docs);
+        }, 1);
+        List<List<RawDocument>> batches = batches(2, 1);
+        BulkDocsWriter.Write first = writer.submit(batches.get(0));
+        BulkDocsWriter.Write second = writer.submit(batches.get(1));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+        // the first request is in flight, the second waits for it
+        assertFalse(first.skip());
+        assertTrue(second.skip());
+        release.countDown();
+        assertEquals(1, BulkDocsWriter.results(first).size());
+        assertTrue(second.isCancelled());
+        try {
+            BulkDocsWriter.results(second);
+            fail("The skipped write should have no results");
+        } catch (CancellationException e) {
+            // expected
+        }
+        assertEquals(1, requests.get());
+    }
+}
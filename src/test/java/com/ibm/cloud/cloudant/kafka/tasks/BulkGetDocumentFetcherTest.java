@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+import com.google.gson.Gson;
+import com.ibm.cloud.cloudant.v1.model.BulkGetQueryDocument;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import org.apache.kafka.connect.errors.ConnectException;
+
+public class BulkGetDocumentFetcherTest {
+
+    private static final Gson GSON = GsonSingleton.getGson();
+
+    // The sizes of the _bulk_get requests made
+    private final List<Integer> requests = new CopyOnWriteArrayList<>();
+    // The total size of the _bulk_get responses
+    private final AtomicLong responseBytes = new AtomicLong();
+
+    private BulkGetDocumentFetcher fetcher;
+
+    @After
+    public void tearDown() {
+        if (fetcher != null) {
+            fetcher.close();
+        }
+    }
+
+    private static ChangesResultItem row(int i, boolean deleted) {
+        return GSON.fromJson(String.format("{\"seq\":\"%d-x\",\"id\":\"doc%d\",\"changes\":[{\"rev\":\"1-%d\"}]%s}",
+                i, i, i, deleted ? ",\"deleted\":true" : ""), ChangesResultItem.class);
+    }
+
+    private static ChangesBatch batch(int rows) {
+        List<ChangesResultItem> results = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            results.add(row(i, false));
+        }
+        return new ChangesBatch(results, rows + "-x", 100);
+    }
+
+    // Returns each requested document with a "value" of its ID, or an error for "missing" IDs
+    private InputStream bulkGet(String db, List<BulkGetQueryDocument> docs) {
+        requests.add(docs.size());
+        try {
+            // complete the requests out of order
+            Thread.sleep(ThreadLocalRandom.current().nextInt(20));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String results = docs.stream().map(doc -> doc.id().startsWith("missing")
+                ? String.format("{\"id\":\"%s\",\"docs\":[{\"error\":{\"id\":\"%s\",\"rev\":\"%s\",\"error\":\"not_found\",\"reason\":\"missing\"}}]}",
+                        doc.id(), doc.id(), doc.rev())
+                : String.format("{\"id\":\"%s\",\"docs\":[{\"ok\":{\"_id\":\"%s\",\"_rev\":\"%s\",\"value\":\"%s\"}}]}",
+                        doc.id(), doc.id(), doc.rev(), doc.id()))
+                .collect(Collectors.joining(","));
+        byte[] response = ("{\"results\":[" + results + "]}").getBytes(StandardCharsets.UTF_8);
+        responseBytes.addAndGet(response.length);
+        return new ByteArrayInputStream(response);
+    }
+
+    @Test
+    public void testDocumentsInSeqOrder() {
+        fetcher = new BulkGetDocumentFetcher("test", this::bulkGet, 2, 3);
+        ChangesBatch batch = fetcher.apply("db", batch(7));
+        assertEquals("7 rows in chunks of 2 should make 4 requests.", 4, requests.size());
+        requests.forEach(size -> assertTrue("No request should exceed the chunk size.", size <= 2));
+        assertEquals("7-x", batch.getLastSeq());
+        assertEquals("The batch size should include the _bulk_get responses.",
+                100 + responseBytes.get(), batch.getBytes());
+        assertEquals(7, batch.getResults().size());
+        for (int i = 0; i < 7; i++) {
+            ChangesResultItem row = batch.getResults().get(i);
+            String id = "doc" + (i + 1);
+            assertEquals(id, row.getId());
+            assertEquals((i + 1) + "-x", row.getSeq());
+            assertEquals(id, row.getDoc().getId());
+            assertEquals("1-" + (i + 1), row.getDoc().getRev());
+            assertEquals(id, row.getDoc().get("value"));
+        }
+    }
+
+    @Test
+    public void testMissingDocumentFailsBatch() {
+        fetcher = new BulkGetDocumentFetcher("test", this::bulkGet, 10, 1);
+        ChangesResultItem missing = GSON.fromJson("{\"seq\":\"1-x\",\"id\":\"missing1\",\"changes\":[{\"rev\":\"2-a\"}],\"deleted\":true}",
+                ChangesResultItem.class);
+        List<ChangesResultItem> rows = new ArrayList<>();
+        rows.add(missing);
+        rows.add(row(2, true));
+        try {
+            fetcher.apply("db", new ChangesBatch(rows, "2-x", 0));
+            fail("A document that cannot be fetched should fail the batch.");
+        } catch (ConnectException e) {
+            assertTrue(e.getMessage().contains("missing1"));
+        }
+    }
+
+    @Test
+    public void testFailure() {
+        RuntimeException failure = new RuntimeException("test failure");
+        fetcher = new BulkGetDocumentFetcher("test", (db, docs) -> {
+            throw failure;
+        }, 2, 2);
+        try {
+            fetcher.apply("db", batch(5));
+            fail("The _bulk_get failure should be thrown.");
+        } catch (RuntimeException e) {
+            assertEquals(failure, e);
+        }
+    }
+}
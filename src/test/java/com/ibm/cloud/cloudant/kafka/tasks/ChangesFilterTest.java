@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
+import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
+import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
+import com.ibm.cloud.cloudant.v1.Cloudant;
+import com.ibm.cloud.cloudant.v1.model.PostChangesOptions;
+import org.apache.kafka.connect.source.SourceTaskContext;
+import org.easymock.Capture;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.easymock.EasyMock.capture;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.replay;
+
+public class ChangesFilterTest {
+
+    private static final String CONNECTION_NAME = "_mock";
+
+    // base options for config
+    private static final Map<String, String> CONFIG_MAP = new HashMap<>();
+
+    static {
+        CONFIG_MAP.put("name", CONNECTION_NAME);
+        CONFIG_MAP.put("cloudant.url", "http://foo");
+        CONFIG_MAP.put("cloudant.db", "foo");
+        CONFIG_MAP.put("topics", "foo");
+    }
+
+    @After
+    public void tearDown() {
+        // the mocks are replayed individually, reset them so a later replayAll works
+        PowerMock.resetAll();
+    }
+
+    @Test
+    public void testSelectorFilter() throws Exception {
+        Map<String, String> configMap = new HashMap<>(CONFIG_MAP);
+        configMap.put(InterfaceConst.FILTER, "_selector");
+        configMap.put(InterfaceConst.SELECTOR, "{\"type\": \"order\", \"total\": {\"$gt\": 100}}");
+        PostChangesOptions options = requestedOptions(configMap);
+        Assert.assertEquals("_selector", options.filter());
+        Assert.assertEquals("order", options.selector().get("type"));
+        Assert.assertEquals("{$gt=100}", options.selector().get("total").toString());
+        Assert.assertNull(options.docIds());
+    }
+
+    @Test
+    public void testDocIdsFilter() throws Exception {
+        Map<String, String> configMap = new HashMap<>(CONFIG_MAP);
+        configMap.put(InterfaceConst.FILTER, "_doc_ids");
+        configMap.put(InterfaceConst.DOC_IDS, "doc1,doc2");
+        PostChangesOptions options = requestedOptions(configMap);
+        Assert.assertEquals("_doc_ids", options.filter());
+        Assert.assertEquals(Arrays.asList("doc1", "doc2"), options.docIds());
+        Assert.assertNull(options.selector());
+    }
+
+    @Test
+    public void testDesignFilter() throws Exception {
+        Map<String, String> configMap = new HashMap<>(CONFIG_MAP);
+        configMap.put(InterfaceConst.FILTER, "_design");
+        Assert.assertEquals("_design", requestedOptions(configMap).filter());
+    }
+
+    @Test
+    public void testNoFilter() throws Exception {
+        PostChangesOptions options = requestedOptions(new HashMap<>(CONFIG_MAP));
+        Assert.assertNull(options.filter());
+        Assert.assertNull(options.selector());
+        Assert.assertNull(options.docIds());
+    }
+
+    // start a task with the config, poll it once and return the options of its _changes request
+    private static PostChangesOptions requestedOptions(Map<String, String> configMap) throws Exception {
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        SourceTaskContext mockContext = PowerMock.createMock(SourceTaskContext.class);
+        Capture<PostChangesOptions> options = Capture.newInstance();
+        expect(mockCloudant.postChangesAsStream(capture(options))).andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(
+                new ByteArrayInputStream("{\"results\":[],\"last_seq\":\"1-a\",\"pending\":0}".getBytes(StandardCharsets.UTF_8))));
+        expect(mockContext.offsetStorageReader()).andReturn(null);
+        ClientManagerUtils.addClientToCache(CONNECTION_NAME, mockCloudant);
+        SourceChangesTask sourceChangesTask = new SourceChangesTask();
+        sourceChangesTask.initialize(mockContext);
+
+        replay(mockCloudant);
+        replay(mockContext);
+
+        sourceChangesTask.start(configMap);
+        sourceChangesTask.poll();
+        sourceChangesTask.stop();
+
+        return options.getValue();
+    }
+}
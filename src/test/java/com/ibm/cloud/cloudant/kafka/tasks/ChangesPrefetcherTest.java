@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChangesPrefetcherTest {
+
+    // Records the since values requested, each batch continues from since + 1
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private ChangesPrefetcher prefetcher;
+
+    private Function<String, ChangesBatch> fetcher(long bytes) {
+        return since -> {
+            requests.add(since);
+            return new ChangesBatch(Collections.emptyList(), String.valueOf(Integer.parseInt(since) + 1), bytes);
+        };
+    }
+
+    @After
+    public void tearDown() {
+        if (prefetcher != null) {
+            prefetcher.close();
+        }
+    }
+
+    private void awaitRequests(int n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.size() < n && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("The expected number of fetches should have been made.", n, requests.size());
+    }
+
+    @Test
+    public void testBatchesInSequence() throws Exception {
+        prefetcher = new ChangesPrefetcher("test", fetcher(1), "0", 2, 1000);
+        prefetcher.start();
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(String.valueOf(i), prefetcher.poll(5, TimeUnit.SECONDS).getLastSeq());
+        }
+        assertEquals("0", requests.get(0));
+        assertEquals("1", requests.get(1));
+    }
+
+    @Test
+    public void testReadAheadLimitedByBatches() throws Exception {
+        prefetcher = new ChangesPrefetcher("test", fetcher(1), "0", 3, 1000);
+        prefetcher.start();
+        awaitRequests(3);
+        Thread.sleep(100);
+        assertEquals("The prefetcher should stop at the batch limit.", 3, requests.size());
+        prefetcher.poll(5, TimeUnit.SECONDS);
+        awaitRequests(4);
+    }
+
+    @Test
+    public void testReadAheadLimitedByBytes() throws Exception {
+        prefetcher = new ChangesPrefetcher("test", fetcher(400), "0", 10, 1000);
+        prefetcher.start();
+        // 3 batches are needed to reach 1000 bytes
+        awaitRequests(3);
+        Thread.sleep(100);
+        assertEquals("The prefetcher should stop at the memory limit.", 3, requests.size());
+        prefetcher.poll(5, TimeUnit.SECONDS);
+        prefetcher.poll(5, TimeUnit.SECONDS);
+        awaitRequests(5);
+    }
+
+    @Test
+    public void testFailureAfterFetchedBatches() throws Exception {
+        RuntimeException failure = new RuntimeException("test failure");
+        prefetcher = new ChangesPrefetcher("test", since -> {
+            if ("2".equals(since)) {
+                throw failure;
+            }
+            return fetcher(1).apply(since);
+        }, "0", 5, 1000);
+        prefetcher.start();
+        assertEquals("1", prefetcher.poll(5, TimeUnit.SECONDS).getLastSeq());
+        assertEquals("2", prefetcher.poll(5, TimeUnit.SECONDS).getLastSeq());
+        try {
+            prefetcher.poll(5, TimeUnit.SECONDS);
+            fail("The fetch failure should be thrown.");
+        } catch (RuntimeException e) {
+            assertEquals(failure, e);
+        }
+    }
+
+    @Test
+    public void testPollTimeout() throws Exception {
+        prefetcher = new ChangesPrefetcher("test", fetcher(1), "0", 1, 1000);
+        // not started, so nothing is ever ready
+        assertNull(prefetcher.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testCloseReleasesPoll() throws Exception {
+        prefetcher = new ChangesPrefetcher("test", fetcher(1), "0", 1, 1000);
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            prefetcher.close();
+        }).start();
+        long start = System.nanoTime();
+        assertNull(prefetcher.poll(1, TimeUnit.MINUTES));
+        assertEquals("Closing should release a waiting poll.", 0,
+                TimeUnit.NANOSECONDS.toMinutes(System.nanoTime() - start));
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+
+public class ChangesResponseReaderTest {
+
+    // A document big enough to fill the reader buffers, so the byte count advances row by row
+    private static final String PADDING = new String(new char[20000]).replace('\0', 'x');
+
+    private static InputStream response(int rows, String lastSeq) {
+        List<String> results = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            results.add(String.format("{\"seq\":\"%d-x\",\"id\":\"doc%d\",\"changes\":[{\"rev\":\"1-a\"}],"
+                    + "\"doc\":{\"_id\":\"doc%d\",\"_rev\":\"1-a\",\"padding\":\"%s\"}}", i, i, i, PADDING));
+        }
+        String body = String.format("{\"results\":[%s],\"last_seq\":\"%s\",\"pending\":0}",
+                String.join(",", results), lastSeq);
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static List<String> ids(ChangesBatch batch) {
+        return batch.getResults().stream().map(ChangesResultItem::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testReadAll() throws IOException {
+        ChangesBatch batch = new ChangesResponseReader(Long.MAX_VALUE).read(response(3, "9-x"));
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), ids(batch));
+        assertEquals("The batch should continue from the last_seq.", "9-x", batch.getLastSeq());
+        assertEquals("padding", batch.getResults().get(0).getDoc().getProperties().keySet().iterator().next());
+        assertTrue("The response bytes should be counted.", batch.getBytes() > 3 * PADDING.length());
+    }
+
+    @Test
+    public void testReadStopsAtByteBudget() throws IOException {
+        ChangesBatch batch = new ChangesResponseReader(2 * PADDING.length()).read(response(5, "9-x"));
+        assertTrue("The read should stop before the end of the response.", batch.getResults().size() < 5);
+        assertTrue("At least one row should be read.", batch.getResults().size() >= 1);
+        ChangesResultItem last = batch.getResults().get(batch.getResults().size() - 1);
+        assertEquals("The batch should continue from the last row read.", last.getSeq(), batch.getLastSeq());
+    }
+
+    @Test
+    public void testReadAtLeastOneRow() throws IOException {
+        ChangesBatch batch = new ChangesResponseReader(1).read(response(3, "9-x"));
+        assertEquals(Arrays.asList("doc1"), ids(batch));
+        assertEquals("1-x", batch.getLastSeq());
+    }
+
+    @Test
+    public void testEmptyResults() throws IOException {
+        ChangesBatch batch = new ChangesResponseReader(1).read(response(0, "9-x"));
+        assertEquals(0, batch.getResults().size());
+        assertEquals("9-x", batch.getLastSeq());
+    }
+}
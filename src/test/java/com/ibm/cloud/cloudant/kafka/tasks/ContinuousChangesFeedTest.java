@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+
+public class ContinuousChangesFeedTest {
+
+    // The since values the feed was opened with
+    private final List<String> opened = new CopyOnWriteArrayList<>();
+
+    // The feed bodies to return, the feed blocks when they have all been read
+    private final Deque<String> bodies = new ArrayDeque<>();
+
+    // The number of times to fail opening the feed before returning a body
+    private final AtomicInteger failures = new AtomicInteger();
+
+    private ContinuousChangesFeed feed;
+
+    @After
+    public void tearDown() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    private static String row(int seq) {
+        return String.format("{\"seq\":\"%d-x\",\"id\":\"doc%d\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":{\"_id\":\"doc%d\",\"_rev\":\"1-a\"}}\n",
+                seq, seq, seq);
+    }
+
+    private static String rows(int from, int to) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i <= to; i++) {
+            builder.append(row(i));
+        }
+        return builder.toString();
+    }
+
+    private InputStream open(String since) {
+        opened.add(since);
+        if (failures.getAndDecrement() > 0) {
+            throw new RuntimeException(new IOException("connection reset"));
+        }
+        synchronized (bodies) {
+            if (!bodies.isEmpty()) {
+                return new ByteArrayInputStream(bodies.poll().getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        try {
+            // never written, so reads block until closed
+            return new PipedInputStream(new PipedOutputStream());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void startFeed(int maxBatchRows, long maxBatchBytes, long lingerMs) {
+        startFeed(new ContinuousChangesFeed.Options()
+                .maxBatchRows(maxBatchRows)
+                .maxBatchBytes(maxBatchBytes)
+                .lingerMs(lingerMs)
+                .maxBufferedRows(100)
+                .maxBufferedBytes(1024 * 1024)
+                .reconnectMs(10));
+    }
+
+    private void startFeed(ContinuousChangesFeed.Options options) {
+        feed = new ContinuousChangesFeed("test", this::open, "0", options);
+        feed.start();
+    }
+
+    private static List<String> ids(ChangesBatch batch) {
+        return batch.getResults().stream().map(ChangesResultItem::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testMicroBatchesLimitedByRows() throws Exception {
+        bodies.add(rows(1, 5));
+        startFeed(2, 1024 * 1024, 1000);
+        ChangesBatch batch = feed.poll(5, TimeUnit.SECONDS);
+        assertEquals(Arrays.asList("doc1", "doc2"), ids(batch));
+        assertEquals("2-x", batch.getLastSeq());
+        assertEquals(Arrays.asList("doc3", "doc4"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        assertEquals(Arrays.asList("doc5"), ids(feed.poll(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testMicroBatchesLimitedByBytes() throws Exception {
+        bodies.add(rows(1, 3));
+        // each row is longer than the limit, so each batch has one row
+        startFeed(100, 10, 1000);
+        assertEquals(Arrays.asList("doc1"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        assertEquals(Arrays.asList("doc2"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        assertEquals(Arrays.asList("doc3"), ids(feed.poll(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testMicroBatchAfterLinger() throws Exception {
+        bodies.add(rows(1, 1));
+        startFeed(100, 1024 * 1024, 50);
+        long start = System.nanoTime();
+        assertEquals(Arrays.asList("doc1"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals("A partial batch should be returned after the linger time.", 0, elapsedMs / 5000);
+    }
+
+    @Test
+    public void testHeartbeatsAndReconnect() throws Exception {
+        bodies.add(row(1) + "\n\n" + row(2) + "{\"last_seq\":\"9-x\",\"pending\":0}\n");
+        bodies.add(row(10));
+        startFeed(100, 1024 * 1024, 0);
+        // with no linger the rows may be returned in more than one batch
+        List<String> ids = new ArrayList<>();
+        while (ids.size() < 3) {
+            ids.addAll(ids(feed.poll(5, TimeUnit.SECONDS)));
+        }
+        assertEquals(Arrays.asList("doc1", "doc2", "doc10"), ids);
+        assertEquals("The feed should reconnect from the last_seq.", Arrays.asList("0", "9-x"), opened.subList(0, 2));
+    }
+
+    @Test
+    public void testMicroBatchBytesAreUtf8Length() throws Exception {
+        String row = row(1);
+        // three bytes in UTF-8 for each character of the id
+        String wide = row(2).replace("doc2", "\u20ac\u20ac");
+        bodies.add(row + wide);
+        // room for the first row and the ASCII length of the second, but not its UTF-8 length
+        startFeed(100, (row.length() - 1) + (wide.length() - 1), 1000);
+        assertEquals(Arrays.asList("doc1"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        assertEquals(Arrays.asList("\u20ac\u20ac"), ids(feed.poll(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void testRetriesFailedConnection() throws Exception {
+        failures.set(2);
+        bodies.add(rows(1, 1));
+        startFeed(new ContinuousChangesFeed.Options().lingerMs(0).retries(10, 20, 3));
+        assertEquals(Arrays.asList("doc1"), ids(feed.poll(5, TimeUnit.SECONDS)));
+        assertEquals("The feed should retry from the same sequence.", Arrays.asList("0", "0", "0"), opened.subList(0, 3));
+    }
+
+    @Test
+    public void testFailsAfterRetries() throws Exception {
+        failures.set(Integer.MAX_VALUE);
+        startFeed(new ContinuousChangesFeed.Options().retries(10, 20, 2));
+        try {
+            feed.poll(5, TimeUnit.SECONDS);
+            fail("The feed should fail when the retries are used up.");
+        } catch (RuntimeException e) {
+            assertEquals(3, opened.size());
+        }
+    }
+
+    @Test
+    public void testCloseReleasesPoll() throws Exception {
+        startFeed(100, 1024 * 1024, 0);
+        new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            feed.close();
+        }).start();
+        assertNull(feed.poll(1, TimeUnit.MINUTES));
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import org.junit.After;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.v1.model.DbUpdates;
+import com.ibm.cloud.sdk.core.service.exception.ForbiddenException;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+import okhttp3.MediaType;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+
+public class DatabaseUpdatesFollowerTest {
+
+    // Records the since values requested
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    // Records the events received, as db:type
+    private final List<String> events = new CopyOnWriteArrayList<>();
+
+    // Records the failures that were not retried
+    private final List<RuntimeException> failures = new CopyOnWriteArrayList<>();
+
+    private DatabaseUpdatesFollower follower;
+
+    @After
+    public void tearDown() {
+        if (follower != null) {
+            follower.close();
+        }
+    }
+
+    // Each request returns an update of database db<since> and continues from since + 1
+    private Function<String, DbUpdates> fetcher(String type) {
+        return since -> {
+            requests.add(since);
+            if (requests.size() > 3) {
+                // no more updates, but don't spin
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
+                }
+                return updates("", since);
+            }
+            int seq = Integer.parseInt(since);
+            return updates(String.format("{\"db_name\":\"db%d\",\"type\":\"%s\",\"seq\":\"%d\"}", seq, type, seq + 1),
+                    String.valueOf(seq + 1));
+        };
+    }
+
+    private static DbUpdates updates(String results, String lastSeq) {
+        return GsonSingleton.getGson().fromJson(String.format("{\"results\":[%s],\"last_seq\":\"%s\"}", results, lastSeq),
+                DbUpdates.class);
+    }
+
+    private void awaitEvents(int n) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (events.size() < n && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("The expected number of events should have been received.", n, events.size());
+    }
+
+    @Test
+    public void testEventsInSequence() throws Exception {
+        follower = new DatabaseUpdatesFollower("test", fetcher("updated"), "0",
+                (db, type) -> events.add(db + ":" + type), failures::add, 10);
+        follower.start();
+        awaitEvents(3);
+        assertEquals(Arrays.asList("db0:updated", "db1:updated", "db2:updated"), events.subList(0, 3));
+        assertEquals(Arrays.asList("0", "1", "2"), requests.subList(0, 3));
+    }
+
+    @Test
+    public void testRetryAfterFailure() throws Exception {
+        Function<String, DbUpdates> fetcher = fetcher("created");
+        follower = new DatabaseUpdatesFollower("test", since -> {
+            if (requests.size() == 1) {
+                requests.add("failed");
+                throw new RuntimeException("test failure");
+            }
+            return fetcher.apply(since);
+        }, "0", (db, type) -> events.add(db + ":" + type), failures::add, 10);
+        follower.start();
+        awaitEvents(2);
+        assertEquals("The request should be retried from the last sequence read.",
+                Arrays.asList("0", "failed", "1"), requests.subList(0, 3));
+        assertEquals(Arrays.asList("db0:created", "db1:created"), events.subList(0, 2));
+    }
+
+    @Test
+    public void testClientErrorNotRetried() throws Exception {
+        ForbiddenException forbidden = new ForbiddenException(new Response.Builder()
+                .request(new Request.Builder().url("http://localhost/_db_updates").build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(403)
+                .message("Forbidden")
+                .body(ResponseBody.create("{\"error\":\"forbidden\"}", MediaType.get("application/json")))
+                .build());
+        follower = new DatabaseUpdatesFollower("test", since -> {
+            requests.add(since);
+            throw forbidden;
+        }, "0", (db, type) -> events.add(db + ":" + type), failures::add, 10);
+        follower.start();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (failures.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals("The failure should be passed to the handler.", Arrays.asList(forbidden), failures);
+        // give any retry a chance to happen
+        Thread.sleep(100);
+        assertEquals("The request should not be retried.", Arrays.asList("0"), requests);
+        assertTrue(events.isEmpty());
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.easymock.EasyMock.mock;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import org.junit.After;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.sdk.core.service.exception.NotFoundException;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+
+public class MultiDatabaseChangesFeedTest {
+
+    private static final ChangesResultItem ROW = GsonSingleton.getGson().fromJson(
+            "{\"seq\":\"1-x\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}]}", ChangesResultItem.class);
+
+    // Records the db:since values requested, each batch continues from since + 1
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private MultiDatabaseChangesFeed feed;
+
+    @After
+    public void tearDown() {
+        if (feed != null) {
+            feed.close();
+        }
+    }
+
+    // Databases in the busy set always have a change, the others never do
+    private BiFunction<String, String, ChangesBatch> fetcher(Set<String> busy) {
+        return (db, since) -> {
+            requests.add(db + ":" + since);
+            List<ChangesResultItem> rows = busy.contains(db) ? Collections.singletonList(ROW) : Collections.emptyList();
+            return new ChangesBatch(rows, String.valueOf(Integer.parseInt(since) + 1), 1);
+        };
+    }
+
+    private static Map<String, String> since(String... dbs) {
+        Map<String, String> since = new LinkedHashMap<>();
+        for (String db : dbs) {
+            since.put(db, "0");
+        }
+        return since;
+    }
+
+    private long requestsFor(String db) {
+        return requests.stream().filter(request -> request.startsWith(db + ":")).count();
+    }
+
+    @Test
+    public void testDatabasesTakeTurns() throws Exception {
+        Set<String> dbs = new HashSet<>(Arrays.asList("a", "b", "c"));
+        feed = new MultiDatabaseChangesFeed("test", fetcher(dbs), since("a", "b", "c"), 1, 1, 1000, 1000, 1000, false);
+        feed.start();
+        List<String> order = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            order.add(feed.poll(5, TimeUnit.SECONDS).getDb());
+        }
+        assertEquals("Busy databases should take turns in order.",
+                Arrays.asList("a", "b", "c", "a", "b", "c"), order);
+    }
+
+    @Test
+    public void testBatchesContinueFromLastSeq() throws Exception {
+        feed = new MultiDatabaseChangesFeed("test", fetcher(Collections.singleton("a")), since("a"), 1, 1, 1000, 1000, 1000, false);
+        feed.start();
+        for (int i = 1; i <= 3; i++) {
+            MultiDatabaseChangesFeed.DatabaseBatch batch = feed.poll(5, TimeUnit.SECONDS);
+            assertEquals("a", batch.getDb());
+            assertEquals(String.valueOf(i), batch.getBatch().getLastSeq());
+        }
+        assertEquals("a:0", requests.get(0));
+        assertEquals("a:1", requests.get(1));
+    }
+
+    @Test
+    public void testIdleDatabaseBacksOff() throws Exception {
+        feed = new MultiDatabaseChangesFeed("test", fetcher(Collections.singleton("busy")), since("busy", "idle"),
+                2, 1, 1000, 200, 1000, false);
+        feed.start();
+        for (int i = 0; i < 20; i++) {
+            assertEquals("Only the busy database should produce batches.", "busy",
+                    feed.poll(5, TimeUnit.SECONDS).getDb());
+        }
+        assertTrue("The busy database should be fetched repeatedly.", requestsFor("busy") >= 20);
+        assertTrue("The idle database should be skipped while backing off.", requestsFor("idle") <= 2);
+    }
+
+    @Test
+    public void testReadAheadLimitedByBatches() throws Exception {
+        feed = new MultiDatabaseChangesFeed("test", fetcher(Collections.singleton("a")), since("a"), 2, 2, 1000, 1000, 1000, false);
+        feed.start();
+        Thread.sleep(200);
+        // each of the 2 threads may complete a fetch before seeing the limit
+        assertTrue("The fetchers should stop at the batch limit.", requests.size() <= 3);
+        int before = requests.size();
+        feed.poll(5, TimeUnit.SECONDS);
+        long deadline = System.currentTimeMillis() + 5000;
+        while (requests.size() == before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue("Taking a batch should allow another fetch.", requests.size() > before);
+    }
+
+    @Test
+    public void testFailureAfterReadyBatches() throws Exception {
+        RuntimeException failure = new RuntimeException("test failure");
+        BiFunction<String, String, ChangesBatch> fetcher = fetcher(Collections.singleton("a"));
+        feed = new MultiDatabaseChangesFeed("test", (db, since) -> {
+            if ("1".equals(since)) {
+                throw failure;
+            }
+            return fetcher.apply(db, since);
+        }, since("a"), 1, 5, 1000, 1000, 1000, false);
+        feed.start();
+        assertEquals("1", feed.poll(5, TimeUnit.SECONDS).getBatch().getLastSeq());
+        try {
+            feed.poll(5, TimeUnit.SECONDS);
+            fail("The fetch failure should be thrown.");
+        } catch (RuntimeException e) {
+            assertEquals(failure, e);
+        }
+    }
+
+    @Test
+    public void testDeletedDatabaseDropped() throws Exception {
+        BiFunction<String, String, ChangesBatch> fetcher = fetcher(new HashSet<>(Arrays.asList("a", "b")));
+        NotFoundException notFound = mock(NotFoundException.class);
+        feed = new MultiDatabaseChangesFeed("test", (db, since) -> {
+            if ("b".equals(db)) {
+                requests.add(db + ":" + since);
+                throw notFound;
+            }
+            return fetcher.apply(db, since);
+        }, since("a", "b"), 1, 1, 1000, 1000, 1000, false);
+        feed.start();
+        for (int i = 0; i < 3; i++) {
+            assertEquals("The other databases should still be read.", "a", feed.poll(5, TimeUnit.SECONDS).getDb());
+        }
+        assertEquals("The deleted database should be fetched once.", 1, requestsFor("b"));
+    }
+
+    @Test
+    public void testPollAfterClose() throws Exception {
+        feed = new MultiDatabaseChangesFeed("test", fetcher(Collections.emptySet()), since("a"), 1, 1, 1000, 1000, 1000, false);
+        feed.start();
+        feed.close();
+        assertNull(feed.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testParkedDatabaseWoken() throws Exception {
+        Set<String> busy = new CopyOnWriteArraySet<>();
+        feed = new MultiDatabaseChangesFeed("test", fetcher(busy), since("a", "b"), 2, 1, 1000, 10, 10, true);
+        feed.start();
+        assertNull("Idle databases should not produce batches.", feed.poll(200, TimeUnit.MILLISECONDS));
+        assertEquals("Each idle database should be fetched once, then parked.", 1, requestsFor("a"));
+        assertEquals(1, requestsFor("b"));
+        busy.add("b");
+        feed.wake("b");
+        MultiDatabaseChangesFeed.DatabaseBatch batch = feed.poll(5, TimeUnit.SECONDS);
+        assertEquals("b", batch.getDb());
+        assertTrue("The woken database should continue from its last_seq.", requests.contains("b:1"));
+        assertEquals("2", batch.getBatch().getLastSeq());
+        assertEquals("The parked database should not be fetched.", 1, requestsFor("a"));
+        // unknown databases are ignored
+        feed.wake("c");
+    }
+
+    @Test
+    public void testFailWhileParked() throws Exception {
+        feed = new MultiDatabaseChangesFeed("test", fetcher(Collections.emptySet()), since("a"), 1, 1, 1000, 10, 10, true);
+        feed.start();
+        assertNull("The idle database should be parked.", feed.poll(200, TimeUnit.MILLISECONDS));
+        RuntimeException failure = new RuntimeException("test failure");
+        feed.fail(failure);
+        try {
+            feed.poll(5, TimeUnit.SECONDS);
+            fail("The feed failure should be thrown.");
+        } catch (RuntimeException e) {
+            assertEquals(failure, e);
+        }
+    }
+}
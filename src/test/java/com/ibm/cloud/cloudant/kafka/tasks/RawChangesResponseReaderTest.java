@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.kafka.mappers.RawChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+
+public class RawChangesResponseReaderTest {
+
+    // A document big enough to fill the reader buffers, so the byte count advances row by row
+    private static final String PADDING = new String(new char[20000]).replace('\0', 'x');
+
+    private static String doc(int i) {
+        return String.format("{\"_id\":\"doc%d\",\"_rev\":\"1-a\",\"nested\":{\"_id\":\"not\"},"
+                + "\"n\":1.50, \"s\":\"\\\"}\\u00e9\",\"padding\":\"%s\"}", i, PADDING);
+    }
+
+    private static InputStream response(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream response(int rows, String lastSeq) {
+        List<String> results = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            results.add(String.format("{\"seq\":\"%d-x\",\"id\":\"doc%d\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":%s}",
+                    i, i, doc(i)));
+        }
+        return response(String.format("{\"results\":[%s],\"last_seq\":\"%s\",\"pending\":0}",
+                String.join(",", results), lastSeq));
+    }
+
+    private static List<String> ids(ChangesBatch batch) {
+        return batch.getResults().stream().map(ChangesResultItem::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    public void testReadAll() throws IOException {
+        ChangesBatch batch = new RawChangesResponseReader(Long.MAX_VALUE).read(response(3, "9-x"));
+        assertEquals(Arrays.asList("doc1", "doc2", "doc3"), ids(batch));
+        assertEquals("The batch should continue from the last_seq.", "9-x", batch.getLastSeq());
+        assertEquals(3, batch.getResults().size());
+        assertTrue("The response bytes should be counted.", batch.getBytes() > 3 * PADDING.length());
+        for (int i = 0; i < 3; i++) {
+            RawChangesResultItem row = (RawChangesResultItem) batch.getResults().get(i);
+            assertEquals((i + 1) + "-x", row.getSeq());
+            assertEquals("The document should be the bytes of the response.",
+                    doc(i + 1), new String(row.getRawDoc(), StandardCharsets.UTF_8));
+            assertEquals("doc" + (i + 1), row.getDoc().getId());
+            assertEquals("1-a", row.getDoc().getRev());
+            assertNull(row.isDeleted());
+        }
+    }
+
+    @Test
+    public void testReadStopsAtByteBudget() throws IOException {
+        ChangesBatch batch = new RawChangesResponseReader(2 * PADDING.length()).read(response(5, "9-x"));
+        assertTrue("The read should stop before the end of the response.", batch.getResults().size() < 5);
+        assertTrue("At least one row should be read.", batch.getResults().size() >= 1);
+        ChangesResultItem last = batch.getResults().get(batch.getResults().size() - 1);
+        assertEquals("The batch should continue from the last row read.", last.getSeq(), batch.getLastSeq());
+    }
+
+    @Test
+    public void testEmptyResults() throws IOException {
+        ChangesBatch batch = new RawChangesResponseReader(1).read(response("{\"results\":[],\"last_seq\":\"9-x\"}"));
+        assertEquals(0, batch.getResults().size());
+        assertEquals("9-x", batch.getLastSeq());
+    }
+
+    @Test
+    public void testDeletedAndEscapedRows() throws IOException {
+        ChangesBatch batch = new RawChangesResponseReader(Long.MAX_VALUE).read(response(
+                "{ \"results\" : [ { \"seq\" : 12 , \"id\" : \"a\\\"b\\u00e9\" , \"deleted\" : true ,"
+                        + " \"doc\" : {\"_id\":\"a\\\"b\\u00e9\",\"_rev\":\"2-b\",\"_deleted\":true} } ,"
+                        + " {\"seq\":\"13-x\",\"id\":\"c\",\"doc\":null} ] , \"last_seq\" : 13 }"));
+        RawChangesResultItem deleted = (RawChangesResultItem) batch.getResults().get(0);
+        assertEquals("A number seq should be read as its text.", "12", deleted.getSeq());
+        assertEquals("a\"bé", deleted.getId());
+        assertEquals(Boolean.TRUE, deleted.isDeleted());
+        assertEquals(Boolean.TRUE, deleted.getDoc().isDeleted());
+        assertEquals("2-b", deleted.getDoc().getRev());
+        assertEquals("{\"_id\":\"a\\\"b\\u00e9\",\"_rev\":\"2-b\",\"_deleted\":true}",
+                new String(deleted.getRawDoc(), StandardCharsets.UTF_8));
+        RawChangesResultItem noDoc = (RawChangesResultItem) batch.getResults().get(1);
+        assertNull(noDoc.getDoc());
+        assertNull(noDoc.getRawDoc());
+        assertEquals("13", batch.getLastSeq());
+    }
+
+    @Test
+    public void testReadLine() {
+        RawChangesResultItem row = (RawChangesResultItem) RawChangesResponseReader.readLine(
+                "{\"seq\":\"1-x\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":" + doc(1) + "}");
+        assertEquals("1-x", row.getSeq());
+        assertEquals("doc1", row.getId());
+        assertEquals(doc(1), new String(row.getRawDoc(), StandardCharsets.UTF_8));
+        assertNull("The last line of the feed should have no id.",
+                RawChangesResponseReader.readLine("{\"last_seq\":\"9-x\",\"pending\":0}").getId());
+    }
+}
@@ -4,10 +4,6 @@ import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
 import com.ibm.cloud.cloudant.v1.Cloudant;
-import com.ibm.cloud.cloudant.v1.model.Change;
-import com.ibm.cloud.cloudant.v1.model.ChangesResult;
-import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
-import com.ibm.cloud.cloudant.v1.model.Document;
 import com.ibm.cloud.cloudant.v1.model.PostChangesOptions;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTaskContext;
@@ -16,6 +12,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -32,6 +31,8 @@ public class SinceOptionTest {
 
     private static final String DB_NAME = "foo";
 
+    private static final String OTHER_DB_NAME = "bar";
+
     // last_seq, as stored in offset storage
     private static final String LAST_SEQ = "123-abc-xyz";
 
@@ -97,43 +98,23 @@ public class SinceOptionTest {
         // given...
         //
         Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
-        ChangesResult mockChangesResult = PowerMock.createMock(ChangesResult.class);
-        ChangesResultItem mockChangesResultItem = PowerMock.createMock(ChangesResultItem.class);
-        Change mockChange = PowerMock.createMock(Change.class);
         SourceTaskContext mockContext = PowerMock.createMock(SourceTaskContext.class);
         OffsetStorageReader mockOsr = PowerMock.createMock(OffsetStorageReader.class);
-        // dummy document to return, we don't care about contents
-        Document document = new Document();
-        document.setId(ID);
         // these options are used in the `expect` call the line below to ensure that we are matching the correct "since" value
-        PostChangesOptions options = new PostChangesOptions.Builder()
-                .feed(PostChangesOptions.Feed.LONGPOLL)
-                .timeout(60 * 1000)
-                .db(DB_NAME)
-                .includeDocs(true)
-                .since(sinceValueExpectedInRequest)
-                .limit(InterfaceConst.DEFAULT_BATCH_SIZE_SOURCE)
-                .build();
-        expect(mockCloudant.postChanges(options)).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockChangesResult)).anyTimes();
+        PostChangesOptions options = changesOptions(sinceValueExpectedInRequest);
+        // dummy document to return, we don't care about contents
+        expect(mockCloudant.postChangesAsStream(options)).andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(
+                changesResponse(String.format("{\"seq\":\"%s\",\"id\":\"%s\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":{\"_id\":\"%s\",\"_rev\":\"1-a\"}}",
+                        NEXT_LAST_SEQ, ID, ID), NEXT_LAST_SEQ))).once();
         expect(mockContext.offsetStorageReader()).andReturn(mockOsr);
         // return the offset given as an argument to us
         expect(mockOsr.offset(anyObject())).andReturn(offsetFromOffsetStorageReader);
-        expect(mockChangesResult.getResults()).andReturn(Collections.singletonList(mockChangesResultItem)).times(2);
-        expect(mockChangesResult.getLastSeq()).andReturn(NEXT_LAST_SEQ);
-        expect(mockChangesResultItem.getChanges()).andReturn(Collections.singletonList(mockChange));
-        expect(mockChangesResultItem.getSeq()).andReturn(NEXT_LAST_SEQ);
-        expect(mockChangesResultItem.getId()).andReturn(ID);
-        expect(mockChangesResultItem.getDoc()).andReturn(document);
-        expect(mockChangesResultItem.isDeleted()).andReturn(null);
         // force the task to use our mock client
         ClientManagerUtils.addClientToCache(CONNECTION_NAME, mockCloudant);
         SourceChangesTask sourceChangesTask = new SourceChangesTask();
         sourceChangesTask.initialize(mockContext);
 
         replay(mockCloudant);
-        replay(mockChangesResult);
-        replay(mockChange);
-        replay(mockChangesResultItem);
         replay(mockContext);
         replay(mockOsr);
 
@@ -142,6 +123,7 @@ public class SinceOptionTest {
         //
         sourceChangesTask.start(configMap);
         List<SourceRecord> srs = sourceChangesTask.poll();
+        sourceChangesTask.stop();
 
         //
         // then...
@@ -150,4 +132,74 @@ public class SinceOptionTest {
         Assert.assertEquals(NEXT_LAST_SEQ, srs.get(0).sourceOffset().get(InterfaceConst.LAST_CHANGE_SEQ));
     }
 
+    // test each database in a list starts from its own stored offset, or from the option:
+    // - configure cloudant.dbs to DB_NAME and OTHER_DB_NAME, and cloudant.since to CLOUDANT_SINCE
+    // - configure offset storage reader to return LAST_SEQ for DB_NAME only
+    // - expect LAST_SEQ in the DB_NAME _changes request and CLOUDANT_SINCE in the OTHER_DB_NAME one
+    @Test
+    public void testDatabaseListOffsets() throws Exception {
+        Map<String, String> configMap = new HashMap<>(CONFIG_MAP);
+        configMap.remove("cloudant.db");
+        configMap.put("cloudant.dbs", DB_NAME + "," + OTHER_DB_NAME);
+        configMap.put("cloudant.since", CLOUDANT_SINCE);
+
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        SourceTaskContext mockContext = PowerMock.createMock(SourceTaskContext.class);
+        OffsetStorageReader mockOsr = PowerMock.createMock(OffsetStorageReader.class);
+        expect(mockCloudant.postChangesAsStream(changesOptions(DB_NAME, PostChangesOptions.Feed.NORMAL, LAST_SEQ)))
+                .andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(
+                        changesResponse(String.format("{\"seq\":\"%s\",\"id\":\"%s\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":{\"_id\":\"%s\",\"_rev\":\"1-a\"}}",
+                                NEXT_LAST_SEQ, ID, ID), NEXT_LAST_SEQ))).once();
+        expect(mockCloudant.postChangesAsStream(changesOptions(OTHER_DB_NAME, PostChangesOptions.Feed.NORMAL, CLOUDANT_SINCE)))
+                .andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(changesResponse("", NEXT_LAST_SEQ))).times(0, 1);
+        // later turns continue from the last_seq of the first
+        expect(mockCloudant.postChangesAsStream(changesOptions(DB_NAME, PostChangesOptions.Feed.NORMAL, NEXT_LAST_SEQ)))
+                .andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(changesResponse("", NEXT_LAST_SEQ))).anyTimes();
+        expect(mockCloudant.postChangesAsStream(changesOptions(OTHER_DB_NAME, PostChangesOptions.Feed.NORMAL, NEXT_LAST_SEQ)))
+                .andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(changesResponse("", NEXT_LAST_SEQ))).anyTimes();
+        expect(mockContext.offsetStorageReader()).andReturn(mockOsr);
+        Map<String, String> partition = new HashMap<>();
+        partition.put(InterfaceConst.URL, CONFIG_MAP.get("cloudant.url"));
+        partition.put(InterfaceConst.DB, DB_NAME);
+        expect(mockOsr.offset(partition)).andReturn(Collections.singletonMap(InterfaceConst.LAST_CHANGE_SEQ, LAST_SEQ));
+        Map<String, String> otherPartition = new HashMap<>(partition);
+        otherPartition.put(InterfaceConst.DB, OTHER_DB_NAME);
+        expect(mockOsr.offset(otherPartition)).andReturn(null);
+        ClientManagerUtils.addClientToCache(CONNECTION_NAME, mockCloudant);
+        SourceChangesTask sourceChangesTask = new SourceChangesTask();
+        sourceChangesTask.initialize(mockContext);
+
+        replay(mockCloudant);
+        replay(mockContext);
+        replay(mockOsr);
+
+        sourceChangesTask.start(configMap);
+        List<SourceRecord> srs = sourceChangesTask.poll();
+        sourceChangesTask.stop();
+
+        Assert.assertEquals(1, srs.size());
+        Assert.assertEquals(partition, srs.get(0).sourcePartition());
+        Assert.assertEquals(NEXT_LAST_SEQ, srs.get(0).sourceOffset().get(InterfaceConst.LAST_CHANGE_SEQ));
+    }
+
+    private static PostChangesOptions changesOptions(String since) {
+        return changesOptions(DB_NAME, PostChangesOptions.Feed.LONGPOLL, since);
+    }
+
+    private static PostChangesOptions changesOptions(String db, String feed, String since) {
+        return new PostChangesOptions.Builder()
+                .feed(feed)
+                .timeout(60 * 1000)
+                .db(db)
+                .includeDocs(true)
+                .since(since)
+                .limit(InterfaceConst.DEFAULT_BATCH_SIZE_SOURCE)
+                .build();
+    }
+
+    private static InputStream changesResponse(String results, String lastSeq) {
+        String body = String.format("{\"results\":[%s],\"last_seq\":\"%s\",\"pending\":0}", results, lastSeq);
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
 }
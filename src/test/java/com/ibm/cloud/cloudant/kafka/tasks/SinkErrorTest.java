@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -14,11 +14,16 @@
 
 package com.ibm.cloud.cloudant.kafka.tasks;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
 import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
 import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
 import com.ibm.cloud.cloudant.v1.Cloudant;
 import com.ibm.cloud.cloudant.v1.model.DocumentResult;
 import com.ibm.cloud.cloudant.v1.model.Ok;
+import com.ibm.cloud.cloudant.v1.model.PostBulkDocsOptions;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.sink.ErrantRecordReporter;
 import org.apache.kafka.connect.sink.SinkRecord;
@@ -29,6 +34,9 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
@@ -113,6 +121,74 @@ public class SinkErrorTest {
         EasyMock.verify(mockRecordReporter);
     }
 
+    // test that the record reporter is invoked for the record of a bad document in a later batch written concurrently
+    @Test
+    public void testErrorsInConcurrentBatches() {
+
+        //
+        // given
+        //
+        SinkRecord sr1 = new SinkRecord("test", 13, null, "0001", null, Collections.singletonMap("_id", "foo1"), 0);
+        SinkRecord sr2 = new SinkRecord("test", 13, null, "0002", null, Collections.singletonMap("_id", "foo2"), 1);
+        SinkRecord sr3 = new SinkRecord("test", 13, null, "0003", null, Collections.singletonMap("_id", "foo3"), 2);
+
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        Ok mockOk = PowerMock.createMock(Ok.class);
+        ErrantRecordReporter mockRecordReporter = mock(ErrantRecordReporter.class);
+        SinkTaskContext mockContext = mock(SinkTaskContext.class);
+        DocumentResult mockGoodResult = mock(DocumentResult.class);
+        DocumentResult mockBadResult = mock(DocumentResult.class);
+
+        expect(mockContext.errantRecordReporter()).andReturn(mockRecordReporter).anyTimes();
+        // only the record of the second batch is reported
+        expect(mockRecordReporter.report(eq(sr2), anyObject(RuntimeException.class))).andReturn(null);
+        expect(mockCloudant.postBulkDocs(anyObject())).andAnswer(() -> {
+            PostBulkDocsOptions options = (PostBulkDocsOptions) EasyMock.getCurrentArguments()[0];
+            JsonArray docs = JsonParser.parseReader(new InputStreamReader(options.body(), StandardCharsets.UTF_8))
+                    .getAsJsonObject().getAsJsonArray("docs");
+            String id = docs.get(0).getAsJsonObject().get("_id").getAsString();
+            return ServiceCallUtils.makeServiceCallWithResult(Collections.singletonList("foo2".equals(id) ? mockBadResult : mockGoodResult));
+        }).anyTimes();
+        expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockOk)).anyTimes();
+        expect(mockBadResult.isOk()).andReturn(Boolean.FALSE).anyTimes();
+        expect(mockBadResult.getError()).andReturn("some error").anyTimes();
+        expect(mockBadResult.getReason()).andReturn("some cause").anyTimes();
+        expect(mockGoodResult.isOk()).andReturn(Boolean.TRUE).anyTimes();
+
+        // force the task to use our mock client
+        ClientManagerUtils.addClientToCache(connectionName, mockCloudant);
+        SinkTask sinkTask = new SinkTask();
+
+        Map<String, String> configMap = new HashMap<>();
+        configMap.put("name", connectionName);
+        configMap.put("cloudant.url", "http://foo");
+        configMap.put("cloudant.db", "foo");
+        configMap.put("topics", "foo");
+        configMap.put("batch.size", "1");
+        configMap.put("cloudant.write.concurrency", "3");
+
+        replay(mockCloudant);
+        replay(mockOk);
+        replay(mockRecordReporter);
+        replay(mockContext);
+        replay(mockGoodResult);
+        replay(mockBadResult);
+
+        //
+        // when
+        //
+        sinkTask.initialize(mockContext);
+        sinkTask.start(configMap);
+        sinkTask.put(Arrays.asList(sr1, sr2, sr3));
+        sinkTask.flush(new HashMap<>());
+        sinkTask.stop();
+
+        //
+        // then
+        //
+        EasyMock.verify(mockRecordReporter);
+    }
+
     // verify that throwing an exception causes connect exception to be thrown from flush
     @Test
     public void testExceptionWhenCallingPostBulkDocs() {
@@ -132,6 +208,9 @@ public class SinkErrorTest {
 
         expect(mockContext.errantRecordReporter()).andReturn(mockRecordReporter).anyTimes();
         expect(mockCloudant.postBulkDocs(anyObject())).andThrow(exception).anyTimes();
+        // the consumer is rewound to the record not written
+        mockContext.offset(Collections.singletonMap(new TopicPartition("test", 13), 0L));
+        EasyMock.expectLastCall();
         expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockOk)).anyTimes();
 
         // force the task to use our mock client
@@ -169,6 +248,67 @@ public class SinkErrorTest {
         }
         // no expects for this - should never be called
         verify(mockRecordReporter);
+        verify(mockContext);
+    }
+
+    // test that a record that cannot be mapped to a document is reported, and the others are written
+    @Test
+    public void testMappingErrorReported() {
+
+        //
+        // given
+        //
+        SinkRecord sr1 = new SinkRecord("test", 13, null, "0001", null, "not json", 0);
+        SinkRecord sr2 = new SinkRecord("test", 13, null, "0002", null, Collections.singletonMap("_id", "foo"), 1);
+
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        Ok mockOk = PowerMock.createMock(Ok.class);
+        ErrantRecordReporter mockRecordReporter = mock(ErrantRecordReporter.class);
+        SinkTaskContext mockContext = mock(SinkTaskContext.class);
+        DocumentResult mockDocumentResult = mock(DocumentResult.class);
+
+        expect(mockContext.errantRecordReporter()).andReturn(mockRecordReporter).anyTimes();
+        expect(mockRecordReporter.report(eq(sr1), anyObject(IllegalArgumentException.class))).andReturn(null);
+        // only the record that is mapped is written
+        expect(mockCloudant.postBulkDocs(anyObject())).andReturn(
+                ServiceCallUtils.makeServiceCallWithResult(Collections.singletonList(mockDocumentResult)));
+        expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockOk)).anyTimes();
+        expect(mockDocumentResult.isOk()).andReturn(Boolean.TRUE).anyTimes();
+
+        // force the task to use our mock client
+        ClientManagerUtils.addClientToCache(connectionName, mockCloudant);
+        SinkTask sinkTask = new SinkTask();
+
+        Map<String, String> configMap = new HashMap<>();
+        configMap.put("name", connectionName);
+        configMap.put("cloudant.url", "http://foo");
+        configMap.put("cloudant.db", "foo");
+        configMap.put("topics", "foo");
+
+        replay(mockCloudant);
+        replay(mockOk);
+        replay(mockRecordReporter);
+        replay(mockContext);
+        replay(mockDocumentResult);
+
+        //
+        // when
+        //
+        sinkTask.initialize(mockContext);
+        sinkTask.start(configMap);
+        sinkTask.put(Arrays.asList(sr1, sr2));
+        sinkTask.flush(new HashMap<>());
+        // the offset of the record reported is committed with the record written
+        Map<TopicPartition, OffsetAndMetadata> offsets = Collections.singletonMap(new TopicPartition("test", 13), new OffsetAndMetadata(2));
+        Map<TopicPartition, OffsetAndMetadata> committable = sinkTask.preCommit(offsets);
+        sinkTask.stop();
+
+        //
+        // then
+        //
+        EasyMock.verify(mockRecordReporter);
+        EasyMock.verify(mockCloudant);
+        Assert.assertEquals(offsets, committable);
     }
 
     @After
@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.junit.Test;
+
+public class SinkRecordBufferTest {
+
+    private static SinkRecord record(String topic, int partition, long offset) {
+        return new SinkRecord(topic, partition, null, null, null, null, offset);
+    }
+
+    private static RawDocument document(String id) {
+        return new RawDocument(("{\"_id\":\"" + id + "\"}").getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testIndexedRecordsAndDocuments() {
+        SinkRecordBuffer buffer = new SinkRecordBuffer(3, true, 0);
+        SinkRecord[] records = new SinkRecord[3];
+        RawDocument[] documents = new RawDocument[3];
+        for (int i = 0; i < 3; i++) {
+            records[i] = record("test", 0, i);
+            documents[i] = document("doc" + i);
+            buffer.add(records[i], documents[i]);
+        }
+        assertEquals(3, buffer.size());
+        assertEquals(Arrays.asList(documents), buffer.documents());
+        for (int i = 0; i < 3; i++) {
+            assertSame(records[i], buffer.record(i));
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRecordsNotKept() {
+        SinkRecordBuffer buffer = new SinkRecordBuffer(1, false, 0);
+        buffer.add(record("test", 0, 0), document("doc"));
+        assertEquals(1, buffer.size());
+        buffer.record(0);
+    }
+
+    @Test
+    public void testOffsetsOfEachPartition() {
+        SinkRecordBuffer buffer = new SinkRecordBuffer(4, false, 0);
+        buffer.add(record("a", 0, 5), document("1"));
+        buffer.add(record("a", 1, 7), document("2"));
+        buffer.add(record("a", 0, 6), document("3"));
+        buffer.add(record("b", 0, 2), document("4"));
+        Map<TopicPartition, OffsetAndMetadata> expected = new HashMap<>();
+        expected.put(new TopicPartition("a", 0), new OffsetAndMetadata(7));
+        expected.put(new TopicPartition("a", 1), new OffsetAndMetadata(8));
+        expected.put(new TopicPartition("b", 0), new OffsetAndMetadata(3));
+        assertEquals(expected, buffer.offsets());
+    }
+
+    @Test
+    public void testSkippedRecordOffsets() {
+        SinkRecordBuffer buffer = new SinkRecordBuffer(2, true, 0);
+        buffer.skip(record("a", 0, 5));
+        buffer.add(record("a", 0, 6), document("1"));
+        buffer.skip(record("a", 1, 7));
+        assertEquals(1, buffer.size());
+        Map<TopicPartition, OffsetAndMetadata> expected = new HashMap<>();
+        expected.put(new TopicPartition("a", 0), new OffsetAndMetadata(7));
+        expected.put(new TopicPartition("a", 1), new OffsetAndMetadata(8));
+        assertEquals(expected, buffer.offsets());
+        Map<TopicPartition, Long> expectedFirst = new HashMap<>();
+        expectedFirst.put(new TopicPartition("a", 0), 5L);
+        expectedFirst.put(new TopicPartition("a", 1), 7L);
+        assertEquals(expectedFirst, buffer.firstOffsets());
+    }
+
+    @Test
+    public void testAge() {
+        SinkRecordBuffer buffer = new SinkRecordBuffer(1, false, 1000);
+        assertEquals(500, buffer.ageMs(1500));
+    }
+
+    @Test
+    public void testRawDocumentBytes() {
+        byte[] json = "{\"_id\":\"doc\",\"a\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+        SinkRecordBuffer buffer = new SinkRecordBuffer(2, false, 0);
+        buffer.add(record("test", 0, 0), new RawDocument(json));
+        buffer.add(record("test", 0, 1), new RawDocument(json));
+        assertEquals(2L * json.length, buffer.bytes());
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+
+package com.ibm.cloud.cloudant.kafka.tasks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
+import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
+import com.ibm.cloud.cloudant.v1.Cloudant;
+import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import com.ibm.cloud.cloudant.v1.model.Ok;
+import com.ibm.cloud.cloudant.v1.model.PostBulkDocsOptions;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.connect.sink.SinkRecord;
+import org.apache.kafka.connect.sink.SinkTaskContext;
+import org.easymock.EasyMock;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.powermock.api.easymock.PowerMock;
+
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.replay;
+
+public class SinkTaskPreCommitTest {
+
+    private static final String connectionName = "_mock";
+    private static final TopicPartition PARTITION = new TopicPartition("test", 13);
+    private static final TopicPartition OTHER_PARTITION = new TopicPartition("test", 14);
+
+    private final SinkTask sinkTask = new SinkTask();
+    // permits for the _bulk_docs requests, which wait for one
+    private final Semaphore writes = new Semaphore(0);
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    private volatile RuntimeException writeFailure = null;
+    // the _id prefix of the documents of the batches that fail, or null for all
+    private volatile String failingIds = null;
+    private final List<Map<TopicPartition, Long>> rewinds = Collections.synchronizedList(new ArrayList<>());
+    private SinkTaskContext mockContext;
+
+    @Before
+    public void setup() {
+        Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
+        Ok mockOk = PowerMock.createMock(Ok.class);
+        DocumentResult mockDocumentResult = mock(DocumentResult.class);
+        mockContext = mock(SinkTaskContext.class);
+
+        expect(mockContext.errantRecordReporter()).andReturn(null).anyTimes();
+        mockContext.offset(EasyMock.<Map<TopicPartition, Long>>anyObject());
+        EasyMock.expectLastCall().andAnswer(() -> {
+            @SuppressWarnings("unchecked")
+            Map<TopicPartition, Long> offsets = (Map<TopicPartition, Long>) EasyMock.getCurrentArguments()[0];
+            rewinds.add(offsets);
+            return null;
+        }).anyTimes();
+        expect(mockCloudant.postBulkDocs(anyObject())).andAnswer(() -> {
+            if (!writes.tryAcquire(10, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("No write permitted");
+            }
+            PostBulkDocsOptions options = (PostBulkDocsOptions) EasyMock.getCurrentArguments()[0];
+            JsonArray docs = JsonParser.parseReader(new InputStreamReader(options.body(), StandardCharsets.UTF_8))
+                    .getAsJsonObject().getAsJsonArray("docs");
+            if (writeFailure != null && (failingIds == null
+                    || docs.get(0).getAsJsonObject().get("_id").getAsString().startsWith(failingIds))) {
+                throw writeFailure;
+            }
+            int size = docs.size();
+            batchSizes.add(size);
+            return ServiceCallUtils.makeServiceCallWithResult(Collections.nCopies(size, mockDocumentResult));
+        }).anyTimes();
+        expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockOk)).anyTimes();
+        expect(mockDocumentResult.isOk()).andReturn(Boolean.TRUE).anyTimes();
+
+        // force the task to use our mock client
+        ClientManagerUtils.addClientToCache(connectionName, mockCloudant);
+        replay(mockCloudant);
+        replay(mockOk);
+        replay(mockDocumentResult);
+    }
+
+    private void start(int batchSize, long lingerMs) {
+        start(batchSize, lingerMs, 2);
+    }
+
+    private void start(int batchSize, long lingerMs, int writeConcurrency) {
+        Map<String, String> configMap = new HashMap<>();
+        configMap.put("name", connectionName);
+        configMap.put("cloudant.url", "http://foo");
+        configMap.put("cloudant.db", "foo");
+        configMap.put("topics", "foo");
+        configMap.put("batch.size", Integer.toString(batchSize));
+        configMap.put("cloudant.linger.ms", Long.toString(lingerMs));
+        configMap.put("cloudant.write.concurrency", Integer.toString(writeConcurrency));
+        replay(mockContext);
+        sinkTask.initialize(mockContext);
+        sinkTask.start(configMap);
+    }
+
+    private static List<SinkRecord> records(long firstOffset, int n) {
+        return records(PARTITION, firstOffset, n);
+    }
+
+    private static List<SinkRecord> records(TopicPartition partition, long firstOffset, int n) {
+        List<SinkRecord> records = new ArrayList<>();
+        for (long offset = firstOffset; offset < firstOffset + n; offset++) {
+            records.add(new SinkRecord(partition.topic(), partition.partition(), null, null, null,
+                    Collections.singletonMap("_id", "doc" + partition.partition() + "-" + offset), offset));
+        }
+        return records;
+    }
+
+    private static Map<TopicPartition, OffsetAndMetadata> currentOffsets(long offset) {
+        return Collections.singletonMap(PARTITION, new OffsetAndMetadata(offset));
+    }
+
+    // pre-commit until the offset is reported as written
+    private void awaitWritten(long offset) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!currentOffsets(offset).equals(sinkTask.preCommit(currentOffsets(offset)))) {
+            Assert.assertTrue("The offset should be written", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void testFullBatchesWrittenFromPut() throws Exception {
+        start(2, Long.MAX_VALUE);
+        writes.release(2);
+        sinkTask.put(records(0, 5));
+        // two full batches are written without a commit, the partial batch waits
+        long deadline = System.currentTimeMillis() + 10000;
+        while (batchSizes.size() < 2) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Arrays.asList(2, 2), batchSizes);
+        writes.release();
+        awaitWritten(5);
+        Assert.assertEquals(Arrays.asList(2, 2, 1), batchSizes);
+    }
+
+    @Test
+    public void testOnlyWrittenOffsetsCommitted() throws Exception {
+        // one request at a time, so the batches are written in order
+        start(2, Long.MAX_VALUE, 1);
+        sinkTask.put(records(0, 2));
+        sinkTask.put(records(2, 2));
+        Assert.assertEquals("Nothing should be committed before it is written.",
+                Collections.emptyMap(), sinkTask.preCommit(currentOffsets(4)));
+        writes.release();
+        awaitWritten(2);
+        writes.release();
+        awaitWritten(4);
+    }
+
+    @Test
+    public void testPartialBatchWrittenAfterLinger() throws Exception {
+        start(100, 0);
+        writes.release();
+        sinkTask.put(records(0, 3));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (batchSizes.isEmpty()) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Collections.singletonList(3), batchSizes);
+    }
+
+    // request commits on the put after a write fails, until the failure rewinds the consumer
+    private Map<TopicPartition, OffsetAndMetadata> awaitRewind(Map<TopicPartition, OffsetAndMetadata> currentOffsets)
+            throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (true) {
+            sinkTask.put(Collections.emptyList());
+            Map<TopicPartition, OffsetAndMetadata> committable = sinkTask.preCommit(currentOffsets);
+            if (!rewinds.isEmpty()) {
+                return committable;
+            }
+            Assert.assertTrue("The consumer should be rewound", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private void expectRequestCommit() {
+        mockContext.requestCommit();
+        EasyMock.expectLastCall().anyTimes();
+    }
+
+    @Test
+    public void testWriteFailureRewinds() throws Exception {
+        expectRequestCommit();
+        start(2, Long.MAX_VALUE);
+        writeFailure = new RuntimeException("eek!");
+        writes.release(2);
+        sinkTask.put(records(0, 4));
+        Assert.assertEquals("Nothing should be committed after a failure.",
+                Collections.emptyMap(), awaitRewind(currentOffsets(4)));
+        Assert.assertEquals(Collections.singletonList(Collections.singletonMap(PARTITION, 0L)), rewinds);
+        // the records are put again after the consumer is rewound
+        writeFailure = null;
+        writes.release(2);
+        sinkTask.put(records(0, 4));
+        awaitWritten(4);
+    }
+
+    @Test
+    public void testWrittenOffsetsCommittedAfterFailure() throws Exception {
+        expectRequestCommit();
+        start(2, Long.MAX_VALUE);
+        writeFailure = new RuntimeException("eek!");
+        failingIds = "doc" + PARTITION.partition() + "-";
+        sinkTask.put(records(PARTITION, 0, 2));
+        sinkTask.put(records(OTHER_PARTITION, 5, 2));
+        // both batches are in flight, the first fails and the second is written
+        writes.release(2);
+        Map<TopicPartition, OffsetAndMetadata> currentOffsets = new HashMap<>();
+        currentOffsets.put(PARTITION, new OffsetAndMetadata(2));
+        currentOffsets.put(OTHER_PARTITION, new OffsetAndMetadata(7));
+        Map<TopicPartition, OffsetAndMetadata> committable = awaitRewind(currentOffsets);
+        Assert.assertEquals(Collections.singletonList(Collections.singletonMap(PARTITION, 0L)), rewinds);
+        // the other batch may still be completing when the failure is seen
+        long deadline = System.currentTimeMillis() + 10000;
+        while (committable.isEmpty()) {
+            Assert.assertTrue("The written offsets should be committed", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+            committable = sinkTask.preCommit(currentOffsets);
+        }
+        Assert.assertEquals(Collections.singletonMap(OTHER_PARTITION, new OffsetAndMetadata(7)), committable);
+        Assert.assertEquals(Collections.singletonList(2), batchSizes);
+    }
+
+    @Test
+    public void testRecordsAfterFailureRewound() throws Exception {
+        expectRequestCommit();
+        start(2, Long.MAX_VALUE, 1);
+        writeFailure = new RuntimeException("eek!");
+        writes.release();
+        sinkTask.put(records(0, 2));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (writes.availablePermits() > 0) {
+            Assert.assertTrue(System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+        // put after the failed write, the records of the other partition are not written
+        sinkTask.put(records(OTHER_PARTITION, 5, 1));
+        Map<TopicPartition, OffsetAndMetadata> currentOffsets = new HashMap<>();
+        currentOffsets.put(PARTITION, new OffsetAndMetadata(2));
+        currentOffsets.put(OTHER_PARTITION, new OffsetAndMetadata(6));
+        Assert.assertEquals(Collections.emptyMap(), awaitRewind(currentOffsets));
+        Map<TopicPartition, Long> expected = new HashMap<>();
+        expected.put(PARTITION, 0L);
+        expected.put(OTHER_PARTITION, 5L);
+        Assert.assertEquals(Collections.singletonList(expected), rewinds);
+        Assert.assertTrue(batchSizes.isEmpty());
+    }
+
+    @Test
+    public void testCloseWaitsForPendingBatches() throws Exception {
+        start(2, Long.MAX_VALUE);
+        sinkTask.put(records(0, 2));
+        Thread permit = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writes.release();
+        });
+        permit.start();
+        sinkTask.close(Collections.singleton(PARTITION));
+        // the batch is written before close returns, and its offsets are not committed
+        Assert.assertEquals(Collections.singletonList(2), batchSizes);
+        Assert.assertEquals(Collections.emptyMap(), sinkTask.preCommit(currentOffsets(2)));
+        permit.join();
+    }
+
+    @After
+    public void teardown() {
+        sinkTask.stop();
+        PowerMock.resetAll();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2016, 2022 IBM Corp. All rights reserved.
+ * Copyright © 2016, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -18,16 +18,19 @@ import java.lang.reflect.Type;
 import java.util.ArrayList;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
 import com.ibm.cloud.cloudant.kafka.utils.CloudantConst;
 import com.ibm.cloud.cloudant.kafka.utils.InterfaceConst;
 import com.ibm.cloud.cloudant.kafka.utils.JavaCloudantUtil;
 import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
 import com.ibm.cloud.cloudant.kafka.utils.CloudantDbUtils;
 import com.ibm.cloud.cloudant.kafka.utils.ConnectorUtils;
 import junit.framework.TestCase;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.powermock.api.easymock.PowerMock;
 import java.io.FileReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -36,6 +39,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public class SourceChangesTaskTest extends TestCase {
 
@@ -49,6 +53,13 @@ public class SourceChangesTaskTest extends TestCase {
 
     private Gson gson = new Gson();
 
+    // the documents as raw documents, serialized as the SDK would serialize them
+    private static List<RawDocument> raw(List<Document> documents) {
+        return documents.stream()
+                .map(document -> new RawDocument(GsonSingleton.getGsonWithoutPrettyPrinting().toJson(document).getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.toList());
+    }
+
     protected void setUp() throws Exception {
 
         super.setUp();
@@ -63,7 +74,7 @@ public class SourceChangesTaskTest extends TestCase {
         }
 
         // Load data into the source database (create if it does not exist)
-        JavaCloudantUtil.batchWrite(sourceProperties, data);
+        JavaCloudantUtil.batchWrite(sourceProperties, raw(data));
 
         /*
          * 2. Create connector
@@ -154,7 +165,7 @@ public class SourceChangesTaskTest extends TestCase {
             data2.add(data.get(i));
         }
 
-        JavaCloudantUtil.batchWrite(sourceProperties, data2);
+        JavaCloudantUtil.batchWrite(sourceProperties, raw(data2));
 
         // Poll again for changes and expect to get the 20 we just inserted
         // (even though database has 999 + 20 documents now)
@@ -177,7 +188,7 @@ public class SourceChangesTaskTest extends TestCase {
             }
 
             // Load data into the source database (create if it does not exist)
-            JavaCloudantUtil.batchWrite(sourceProps2, data2);
+            JavaCloudantUtil.batchWrite(sourceProps2, raw(data2));
 
             // Create second connector
             SourceChangesTask task2 = ConnectorUtils.createCloudantSourceConnector(sourceProps2);
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -17,10 +17,6 @@ import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
 import com.ibm.cloud.cloudant.kafka.utils.CloudantConst;
 import com.ibm.cloud.cloudant.kafka.utils.ServiceCallUtils;
 import com.ibm.cloud.cloudant.v1.Cloudant;
-import com.ibm.cloud.cloudant.v1.model.Change;
-import com.ibm.cloud.cloudant.v1.model.ChangesResult;
-import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
-import com.ibm.cloud.cloudant.v1.model.Document;
 import org.apache.kafka.connect.connector.ConnectorContext;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.source.SourceRecord;
@@ -29,7 +25,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.powermock.api.easymock.PowerMock;
 
-import java.util.Collections;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,28 +46,16 @@ public class TombstoneTest {
         // given
         //
 
-        // chain of mocks is Cloudant (client) response -> changes result -> changes result item -> change -> document
+        // Cloudant (client) response is a changes feed body with a deleted document
         Cloudant mockCloudant = PowerMock.createMock(Cloudant.class);
-        ChangesResult mockChangesResult = PowerMock.createMock(ChangesResult.class);
-        ChangesResultItem mockChangesResultItem = PowerMock.createMock(ChangesResultItem.class);
-        Change mockChange = PowerMock.createMock(Change.class);
         SourceTaskContext mockContext = PowerMock.createMock(SourceTaskContext.class);
 
-        // NB document not mocked
         String id = "123";
-        Document document = new Document();
-        document.setId(id);
-        document.setDeleted(Boolean.TRUE);
-        // expects in same order as above (could mock ServiceCall, but it's just as easy to use an anonymous class)
-        expect(mockCloudant.postChanges(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mockChangesResult)).anyTimes();
-        // NB mocked twice - first for logging call, second for actual use
-        expect(mockChangesResult.getResults()).andReturn(Collections.singletonList(mockChangesResultItem)).times(2);
-        expect(mockChangesResult.getLastSeq()).andReturn("100");
-        expect(mockChangesResultItem.getChanges()).andReturn(Collections.singletonList(mockChange));
-        expect(mockChangesResultItem.getSeq()).andReturn("123-abc");
-        expect(mockChangesResultItem.getId()).andReturn(id);
-        expect(mockChangesResultItem.getDoc()).andReturn(document);
-        expect(mockChangesResultItem.isDeleted()).andReturn(Boolean.TRUE);
+        String changes = String.format("{\"results\":[{\"seq\":\"123-abc\",\"id\":\"%s\",\"changes\":[{\"rev\":\"2-b\"}],"
+                + "\"deleted\":true,\"doc\":{\"_id\":\"%s\",\"_rev\":\"2-b\",\"_deleted\":true}}],\"last_seq\":\"100\",\"pending\":0}", id, id);
+        // (could mock ServiceCall, but it's just as easy to use an anonymous class)
+        expect(mockCloudant.postChangesAsStream(anyObject())).andAnswer(() -> ServiceCallUtils.makeServiceCallWithResult(
+                new ByteArrayInputStream(changes.getBytes(StandardCharsets.UTF_8)))).anyTimes();
         expect(mockContext.offsetStorageReader()).andReturn(null);
         
         // force the task to use our mock client
@@ -90,12 +75,10 @@ public class TombstoneTest {
         //
 
         replay(mockCloudant);
-        replay(mockChangesResult);
-        replay(mockChange);
-        replay(mockChangesResultItem);
         replay(mockContext);
         sourceChangesTask.start(configMap);
         List<SourceRecord> records = sourceChangesTask.poll();
+        sourceChangesTask.stop();
 
         //
         // then
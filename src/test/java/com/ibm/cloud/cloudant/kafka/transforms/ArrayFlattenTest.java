@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -17,11 +17,15 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.Test;
 
@@ -180,4 +184,60 @@ public class ArrayFlattenTest {
         // Assert null from flatten, which means filtering the bad record.
         assertNull(arrayFlattenTransform.apply(badValueRecord));
     }
+
+    @Test(expected = DataException.class)
+    public void testUnknownType() {
+        getFlattened(Collections.singletonMap("unknown", new Object()));
+    }
+
+    @Test(expected = DataException.class)
+    public void testUnknownTypeInArray() {
+        getFlattened(Collections.singletonMap(ARRAY_KEY, Arrays.asList("foo0", new Object())));
+    }
+
+    @Test
+    public void testFlattenedSize() {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("empty", Collections.emptyList());
+        assertEquals(0, ArrayFlatten.flattenedSize(doc));
+        doc.put("first", 1);
+        doc.put(ARRAY_KEY, Arrays.asList("a", Arrays.asList("b", Arrays.asList("c", "d")), Collections.emptyList(), "e"));
+        doc.put(MAP_KEY, Collections.singletonMap(ARRAY_KEY, Arrays.asList(1, 2)));
+        assertEquals(getFlattened(doc).size(), ArrayFlatten.flattenedSize(doc));
+        assertEquals(7, ArrayFlatten.flattenedSize(doc));
+    }
+
+    @Test
+    public void testFlattenedKeyOrder() {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("first", 1);
+        doc.put(ARRAY_KEY, Arrays.asList("a", Arrays.asList("b", Arrays.asList("c")), Collections.emptyList(), "d"));
+        doc.put("last", null);
+        Map<String, Object> flattenedDoc = getFlattened(doc);
+        assertEquals("The flattened keys should be in document then array order.",
+            Arrays.asList("first", "array.0", "array.1.0", "array.1.1.0", "array.3", "last"),
+            new ArrayList<>(flattenedDoc.keySet()));
+        assertEquals(Arrays.asList(1, "a", "b", "c", "d", null), new ArrayList<>(flattenedDoc.values()));
+    }
+
+    @Test
+    public void testLargeArray() {
+        List<Object> testArray = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            testArray.add(i);
+        }
+        Map<String, Object> flattenedDoc = getFlattened(Collections.singletonMap(ARRAY_KEY, testArray));
+        assertEquals(testArray.size(), flattenedDoc.size());
+        assertEntries(flattenedDoc, ARRAY_KEY, testArray);
+    }
+
+    @Test
+    public void testFlattenedKeysShared() {
+        List<Object> testArray = Arrays.asList("foo0", "foo1");
+        Map<String, Object> first = getFlattened(Collections.singletonMap(ARRAY_KEY, testArray));
+        Map<String, Object> second = getFlattened(Collections.singletonMap(ARRAY_KEY, testArray));
+        assertSame("The flattened keys of each record should be the same strings.",
+            first.keySet().iterator().next(), second.keySet().iterator().next());
+        assertEquals(first, second);
+    }
 }
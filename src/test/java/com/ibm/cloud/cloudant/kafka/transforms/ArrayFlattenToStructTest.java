@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.transforms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import java.io.FileReader;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.connect.errors.DataException;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.Test;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.ibm.cloud.cloudant.kafka.mappers.DocumentHelpers;
+
+public class ArrayFlattenToStructTest {
+
+    private static final Type mapStringObjectType = new TypeToken<Map<String, Object>>(){}.getType();
+
+    private final ArrayFlattenToStruct transformer = new ArrayFlattenToStruct();
+
+    private SourceRecord wrapInRecord(Object value) {
+        return new SourceRecord(Collections.emptyMap(), Collections.emptyMap(), "test", null, null, null, value);
+    }
+
+    // the record from ArrayFlatten then MapToStruct
+    private SourceRecord chain(SourceRecord record) {
+        try (ArrayFlatten flattener = new ArrayFlatten(); MapToStruct toStruct = new MapToStruct()) {
+            flattener.configure(Collections.singletonMap(ArrayFlatten.DELIMITER_CONFIG_NAME, "_"));
+            return toStruct.apply(flattener.apply(record));
+        }
+    }
+
+    private void assertSameAsChain(Map<String, Object> doc) {
+        transformer.configure(Collections.singletonMap(ArrayFlatten.DELIMITER_CONFIG_NAME, "_"));
+        SourceRecord expected = chain(wrapInRecord(doc));
+        SourceRecord actual = transformer.apply(wrapInRecord(doc));
+        assertEquals("The schema fields should match the chained transforms", expected.valueSchema().fields(), actual.valueSchema().fields());
+        assertEquals("The schema should match the chained transforms", expected.valueSchema(), actual.valueSchema());
+        assertEquals("The value should match the chained transforms", expected.value(), actual.value());
+    }
+
+    @Test
+    public void testSampleDoc() throws Exception {
+        try (FileReader reader = new FileReader("./src/test/resources/sample_doc_from_data.json")) {
+            assertSameAsChain(new Gson().fromJson(reader, mapStringObjectType));
+        }
+    }
+
+    @Test
+    public void testTypesDoc() throws Exception {
+        try (FileReader reader = new FileReader("./src/test/resources/schema_types.json")) {
+            assertSameAsChain(new Gson().fromJson(reader, mapStringObjectType));
+        }
+    }
+
+    @Test
+    public void testAllTypes() {
+        Map<String, Object> doc = DocumentHelpers.allTypesAsMap(() -> DocumentHelpers.primitiveTypesAsMap(),
+            () -> DocumentHelpers.arrayOf(() -> DocumentHelpers.primitiveTypesAsMap(), 3));
+        doc.put("decimal", new BigDecimal("1.25"));
+        doc.put("date", new Date(0));
+        doc.put("null", null);
+        assertSameAsChain(doc);
+    }
+
+    @Test
+    public void testNestedArraysAndMaps() {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("z", Arrays.asList(Arrays.asList(1, 2), Collections.emptyList(), Arrays.asList(Collections.singletonMap("a", Arrays.asList("x", null)))));
+        doc.put("m", Collections.singletonMap("n", Collections.singletonMap("o", Arrays.asList(true, false))));
+        doc.put("e", Collections.emptyList());
+        assertSameAsChain(doc);
+    }
+
+    @Test
+    public void testFlattenedKeyCollision() {
+        // the flattened key of the array element is also a key of the document
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("b_0", "first");
+        doc.put("a", 1);
+        doc.put("b", Arrays.asList(2L, "second"));
+        assertSameAsChain(doc);
+        Map<String, Object> reversed = new LinkedHashMap<>();
+        reversed.put("b", Arrays.asList("first", 2L));
+        reversed.put("b_0", 1.5);
+        assertSameAsChain(reversed);
+    }
+
+    @Test
+    public void testSchemaSharedWithMapToStruct() {
+        Map<String, Object> doc = new LinkedHashMap<>();
+        doc.put("schemaSharedWithMapToStruct", Arrays.asList("a", Collections.singletonMap("b", 1)));
+        transformer.configure(Collections.singletonMap(ArrayFlatten.DELIMITER_CONFIG_NAME, "_"));
+        SourceRecord expected = chain(wrapInRecord(doc));
+        long hits = MapToStruct.SCHEMA_CACHE.getHits();
+        SourceRecord actual = transformer.apply(wrapInRecord(doc));
+        assertSame("The schema should be the one cached by MapToStruct.", expected.valueSchema(), actual.valueSchema());
+        assertEquals(hits + 1, MapToStruct.SCHEMA_CACHE.getHits());
+        assertEquals(expected.value(), actual.value());
+    }
+
+    @Test(expected = DataException.class)
+    public void testUnknownType() {
+        transformer.apply(wrapInRecord(Collections.singletonMap("unknown", new Object())));
+    }
+
+    @Test
+    public void testNullRecordValue() {
+        SourceRecord record = wrapInRecord(null);
+        assertSame(record, transformer.apply(record));
+    }
+
+    @Test
+    public void testIncompatibleRecord() {
+        // Assert null from the transform, which means filtering the bad record.
+        assertNull(transformer.apply(wrapInRecord("notAMap")));
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -15,6 +15,7 @@ package com.ibm.cloud.cloudant.kafka.transforms;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import java.io.FileReader;
 import java.lang.reflect.Type;
 import java.util.Collections;
@@ -242,4 +243,19 @@ public class MapToStructTest {
         }
     }
 
+    @Test
+    public void testCachedSchemaReused() {
+        List<Object> nestedArray = DocumentHelpers.arrayOf(() -> 1, 3);
+        Map<String, Object> first = DocumentHelpers.allTypesAsMap(() -> DocumentHelpers.primitiveTypesAsMap(), () -> nestedArray);
+        first.put("cachedSchemaReused", "first");
+        Map<String, Object> second = DocumentHelpers.allTypesAsMap(() -> DocumentHelpers.primitiveTypesAsMap(), () -> nestedArray);
+        second.put("cachedSchemaReused", "second");
+        long hits = MapToStruct.SCHEMA_CACHE.getHits();
+        SchemaAndValue firstActual = transformMap(first);
+        SchemaAndValue secondActual = transformMap(second);
+        assertSame("The schema should be shared by values of the same structure.", firstActual.schema(), secondActual.schema());
+        assertEquals(hits + 1, MapToStruct.SCHEMA_CACHE.getHits());
+        assertEquals("The value should be the value inferred without the cache.", MapToStruct.mapToStruct(second), secondActual);
+        assertEquals("second", ((Struct) secondActual.value()).get("cachedSchemaReused"));
+    }
 }
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.transforms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Test;
+
+public class SchemaCacheTest {
+
+    private static Map<String, Object> map(Object... keysAndValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            map.put((String) keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return map;
+    }
+
+    @Test
+    public void testSameStructureSameFingerprint() {
+        assertEquals(SchemaCache.fingerprint(map("a", "x", "b", 1, "c", map("d", Arrays.asList(1L, null, 2L)))),
+                SchemaCache.fingerprint(map("a", "y", "b", 2, "c", map("d", Arrays.asList(3L)))));
+        assertEquals(SchemaCache.fingerprint(map("a", Collections.emptyList())),
+                SchemaCache.fingerprint(map("a", Arrays.asList(null, null))));
+    }
+
+    @Test
+    public void testDifferentStructureDifferentFingerprint() {
+        String fingerprint = SchemaCache.fingerprint(map("a", "x", "b", 1));
+        assertNotEquals(fingerprint, SchemaCache.fingerprint(map("a", "x", "b", 1L)));
+        assertNotEquals(fingerprint, SchemaCache.fingerprint(map("a", "x", "b", null)));
+        assertNotEquals(fingerprint, SchemaCache.fingerprint(map("a", "x", "c", 1)));
+        assertNotEquals(fingerprint, SchemaCache.fingerprint(map("a", "x")));
+        assertNotEquals("Keys should not run together.",
+                SchemaCache.fingerprint(map("ab", "x")), SchemaCache.fingerprint(map("a", "x", "b", "x")));
+        assertNotEquals("A decimal schema has its scale.",
+                SchemaCache.fingerprint(map("a", new BigDecimal("1.0"))), SchemaCache.fingerprint(map("a", new BigDecimal("1.00"))));
+        assertNotEquals(SchemaCache.fingerprint(map("a", new Date())), SchemaCache.fingerprint(map("a", "x")));
+        assertNotEquals(SchemaCache.fingerprint(map("a", Arrays.asList(map("b", 1)))),
+                SchemaCache.fingerprint(map("a", Arrays.asList(map("b", "x")))));
+    }
+
+    @Test
+    public void testNoFingerprint() {
+        assertNull("Mixed type arrays are not cached.", SchemaCache.fingerprint(map("a", Arrays.asList(1, "x"))));
+        assertNull(SchemaCache.fingerprint(map("a", Arrays.asList(map("b", 1), map("b", 1, "c", 1)))));
+        assertNull("Unknown types are not cached.", SchemaCache.fingerprint(map("a", new Object())));
+        assertNotNull(SchemaCache.fingerprint(map("a", Arrays.asList(map("b", 1), null, map("b", 2)))));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEviction() {
+        SchemaCache cache = new SchemaCache(2);
+        cache.put("a", Schema.INT8_SCHEMA);
+        cache.put("b", Schema.INT16_SCHEMA);
+        assertEquals(Schema.INT8_SCHEMA, cache.get("a"));
+        cache.put("c", Schema.INT32_SCHEMA);
+        assertNull("The least recently used should be evicted.", cache.get("b"));
+        assertEquals(Schema.INT8_SCHEMA, cache.get("a"));
+        assertEquals(Schema.INT32_SCHEMA, cache.get("c"));
+        assertEquals(2, cache.getSize());
+        assertEquals(3, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(1, cache.getEvictions());
+    }
+}
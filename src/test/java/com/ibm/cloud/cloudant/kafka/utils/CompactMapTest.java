@@ -0,0 +1,112 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.cloudant.v1.model.Document;
+import com.ibm.cloud.sdk.core.util.GsonSingleton;
+
+public class CompactMapTest {
+
+    private static Map<String, Object> entries(int n) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < n; i++) {
+            map.put("key" + i, i);
+        }
+        return map;
+    }
+
+    private static CompactMap compact(Map<String, Object> map) {
+        CompactMap.Builder builder = CompactMap.builder(map.size());
+        map.forEach(builder::put);
+        return builder.build();
+    }
+
+    @Test
+    public void testEqualsHashMapAtAllSizes() {
+        // either side of the hash threshold
+        for (int n = 0; n <= 4 * CompactMap.HASH_THRESHOLD; n++) {
+            Map<String, Object> expected = entries(n);
+            Map<String, Object> actual = compact(expected);
+            assertEquals(expected, actual);
+            assertEquals(expected.hashCode(), actual.hashCode());
+            assertEquals(n, actual.size());
+            for (int i = 0; i < n; i++) {
+                assertEquals(i, actual.get("key" + i));
+            }
+            assertFalse(actual.containsKey("key" + n));
+            assertNull(actual.get("missing"));
+        }
+    }
+
+    @Test
+    public void testInsertionOrder() {
+        Map<String, Object> map = CompactMap.builder(2).put("b", 1).put("a", 2).put("c", 3).build();
+        assertEquals(Arrays.asList("b", "a", "c"), new ArrayList<>(map.keySet()));
+    }
+
+    @Test
+    public void testPutReplacesValue() {
+        for (int n : new int[] {3, 3 * CompactMap.HASH_THRESHOLD}) {
+            CompactMap.Builder builder = CompactMap.builder(1);
+            entries(n).forEach(builder::put);
+            builder.put("key1", "replaced");
+            Map<String, Object> map = builder.build();
+            assertEquals(n, map.size());
+            assertEquals("replaced", map.get("key1"));
+            assertEquals("The replaced key should keep its position.", "key1", new ArrayList<>(map.keySet()).get(1));
+        }
+    }
+
+    @Test
+    public void testNullValues() {
+        Map<String, Object> map = CompactMap.builder(1).put("null", null).build();
+        assertTrue(map.containsKey("null"));
+        assertNull(map.get("null"));
+        assertEquals(1, map.size());
+        assertFalse(map.containsKey(null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutable() {
+        compact(entries(2)).put("k", "v");
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testImmutableEntries() {
+        compact(entries(2)).entrySet().iterator().next().setValue("v");
+    }
+
+    @Test
+    public void testSerializedInDocument() {
+        Map<String, Object> nested = new HashMap<>();
+        nested.put("n", 1);
+        List<Object> list = Arrays.asList(compact(nested), "s");
+        Document document = new Document();
+        document.put("map", CompactMap.builder(2).put("list", list).put("null", null).build());
+        assertEquals(JsonParser.parseString("{\"map\":{\"list\":[{\"n\":1},\"s\"]}}"),
+                JsonParser.parseString(GsonSingleton.getGsonWithoutPrettyPrinting().toJson(document)));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.easymock.EasyMock.anyObject;
+import static org.easymock.EasyMock.expect;
+import static org.easymock.EasyMock.mock;
+import static org.easymock.EasyMock.replay;
+import static org.easymock.EasyMock.verify;
+import static org.junit.Assert.assertEquals;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import com.google.gson.JsonParser;
+import com.ibm.cloud.cloudant.kafka.caching.ClientManagerUtils;
+import com.ibm.cloud.cloudant.kafka.mappers.RawDocument;
+import com.ibm.cloud.cloudant.v1.Cloudant;
+import com.ibm.cloud.cloudant.v1.model.DocumentResult;
+import com.ibm.cloud.cloudant.v1.model.Ok;
+import com.ibm.cloud.sdk.core.service.exception.NotFoundException;
+
+public class JavaCloudantUtilTest {
+
+    @Test
+    public void testBulkDocsBodySplicesRawDocuments() throws IOException {
+        RawDocument document = new RawDocument("{\"_id\":\"doc1\",\"n\":1}".getBytes(StandardCharsets.UTF_8));
+        String raw = "{\"_id\":\"doc2\", \"n\":1.50}";
+        String json = read(JavaCloudantUtil.bulkDocsBody(Arrays.asList(
+                document, new RawDocument(raw.getBytes(StandardCharsets.UTF_8)), document)));
+        assertEquals("{\"docs\":[{\"_id\":\"doc1\",\"n\":1}," + raw + ",{\"_id\":\"doc1\",\"n\":1}]}", json);
+        assertEquals(3, JsonParser.parseString(json).getAsJsonObject().getAsJsonArray("docs").size());
+    }
+
+    private static String read(InputStream body) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[3];
+        for (int n = body.read(buffer); n != -1; n = body.read(buffer)) {
+            bytes.write(buffer, 0, n);
+        }
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testBulkDocsBodyOfNoDocuments() throws IOException {
+        assertEquals("{\"docs\":[]}", read(JavaCloudantUtil.bulkDocsBody(Collections.emptyList())));
+    }
+
+    @Test
+    public void testBulkDocsBodyReadByByte() throws IOException {
+        InputStream body = JavaCloudantUtil.bulkDocsBody(Arrays.asList(
+                new RawDocument("{}".getBytes(StandardCharsets.UTF_8)), new RawDocument(new byte[0]),
+                new RawDocument("{\"a\":1}".getBytes(StandardCharsets.UTF_8))));
+        StringBuilder json = new StringBuilder();
+        for (int b = body.read(); b != -1; b = body.read()) {
+            json.append((char) b);
+        }
+        assertEquals("{\"docs\":[{},,{\"a\":1}]}", json.toString());
+    }
+
+    private static Map<String, String> props(Cloudant mockCloudant) {
+        ClientManagerUtils.addClientToCache("_mock", mockCloudant);
+        Map<String, String> props = new HashMap<>();
+        props.put("name", "_mock");
+        props.put(InterfaceConst.DB, "foo");
+        return props;
+    }
+
+    @Test
+    public void testTargetDbCreatedOnce() {
+        Cloudant mockCloudant = mock(Cloudant.class);
+        List<DocumentResult> results = Collections.emptyList();
+        expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mock(Ok.class))).once();
+        expect(mockCloudant.postBulkDocs(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(results)).times(3);
+        replay(mockCloudant);
+        Map<String, String> props = props(mockCloudant);
+        JavaCloudantUtil.ensureTargetDb(props);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(results, JavaCloudantUtil.batchWrite(props, Collections.singletonList(new RawDocument("{}".getBytes(StandardCharsets.UTF_8)))));
+        }
+        verify(mockCloudant);
+    }
+
+    @Test
+    public void testTargetDbCreatedAgainWhenNotFound() {
+        Cloudant mockCloudant = mock(Cloudant.class);
+        List<DocumentResult> results = Collections.emptyList();
+        expect(mockCloudant.putDatabase(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(mock(Ok.class))).times(2);
+        expect(mockCloudant.postBulkDocs(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(results));
+        // the database is deleted
+        expect(mockCloudant.postBulkDocs(anyObject())).andThrow(mock(NotFoundException.class));
+        expect(mockCloudant.postBulkDocs(anyObject())).andReturn(ServiceCallUtils.makeServiceCallWithResult(results)).times(2);
+        replay(mockCloudant);
+        Map<String, String> props = props(mockCloudant);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(results, JavaCloudantUtil.batchWrite(props, Collections.singletonList(new RawDocument("{}".getBytes(StandardCharsets.UTF_8)))));
+        }
+        verify(mockCloudant);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.junit.Assert.assertEquals;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.json.JsonConverter;
+import org.junit.Test;
+import com.ibm.cloud.cloudant.v1.model.BulkGetResult;
+import com.ibm.cloud.cloudant.v1.model.ChangesResultItem;
+import com.ibm.cloud.cloudant.v1.model.Document;
+
+public class NarrowingGsonTest {
+
+    private static final String DOC = "{\"_id\":\"doc1\",\"_rev\":\"1-a\",\"_revisions\":{\"start\":1,\"ids\":[\"a\"]},"
+            + "\"byte\":1,\"short\":300,\"int\":70000,\"long\":5000000000,\"big\":123456789012345678901234567890,"
+            + "\"float\":0.5,\"double\":0.1,\"whole\":2.0,"
+            + "\"map\":{\"n\":1,\"list\":[2,{\"m\":0.25}]}}";
+
+    @SuppressWarnings("unchecked")
+    private static void assertNarrowed(Document doc) {
+        Map<String, Object> properties = doc.getProperties();
+        assertEquals((byte) 1, properties.get("byte"));
+        assertEquals((short) 300, properties.get("short"));
+        assertEquals(70000, properties.get("int"));
+        assertEquals(5000000000L, properties.get("long"));
+        assertEquals(new BigInteger("123456789012345678901234567890"), properties.get("big"));
+        assertEquals(0.5f, properties.get("float"));
+        assertEquals(0.1d, properties.get("double"));
+        assertEquals((byte) 2, properties.get("whole"));
+        Map<String, Object> map = (Map<String, Object>) properties.get("map");
+        assertEquals("Numbers in nested maps should be narrowed.", (byte) 1, map.get("n"));
+        List<Object> list = (List<Object>) map.get("list");
+        assertEquals("Numbers in nested lists should be narrowed.", (byte) 2, list.get(0));
+        assertEquals(0.25f, ((Map<String, Object>) list.get(1)).get("m"));
+        // typed fields are read as declared
+        assertEquals(Long.valueOf(1), doc.getRevisions().start());
+    }
+
+    @Test
+    public void testChangesResultItemNumbers() {
+        ChangesResultItem row = NarrowingGson.getGson().fromJson(
+                "{\"seq\":\"1-a\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":" + DOC + "}", ChangesResultItem.class);
+        assertNarrowed(row.getDoc());
+    }
+
+    @Test
+    public void testBulkGetResultNumbers() {
+        BulkGetResult result = NarrowingGson.getGson().fromJson(
+                "{\"results\":[{\"id\":\"doc1\",\"docs\":[{\"ok\":" + DOC + "}]}]}", BulkGetResult.class);
+        assertNarrowed(result.getResults().get(0).getDocs().get(0).getOk());
+    }
+
+    @Test
+    public void testMetaPropertiesAfterOthers() {
+        Document doc = NarrowingGson.getGson().fromJson(
+                "{\"n\":1,\"_id\":\"doc1\",\"_rev\":\"2-b\",\"_deleted\":true,\"_conflicts\":[\"1-a\"]}", Document.class);
+        assertEquals("doc1", doc.getId());
+        assertEquals("2-b", doc.getRev());
+        assertEquals(Boolean.TRUE, doc.isDeleted());
+        assertEquals(Collections.singletonList("1-a"), doc.getConflicts());
+        assertEquals(Collections.singletonMap("n", (byte) 1), doc.getProperties());
+    }
+
+    @Test
+    public void testJsonConverterAcceptsNumbers() {
+        ChangesResultItem row = NarrowingGson.getGson().fromJson(
+                "{\"seq\":\"1-a\",\"id\":\"doc1\",\"changes\":[{\"rev\":\"1-a\"}],\"doc\":{\"_id\":\"doc1\",\"n\":1,\"map\":{\"list\":[0.5,0.1]}}}",
+                ChangesResultItem.class);
+        try (JsonConverter converter = new JsonConverter()) {
+            converter.configure(Collections.singletonMap("schemas.enable", false), false);
+            converter.fromConnectData("test", null, row.getDoc().getProperties());
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+import org.junit.Test;
+
+/**
+ * Checks NumberNarrowing against the BigDecimal narrowing it replaced.
+ */
+public class NumberNarrowingTest {
+
+    // The narrowing functions previously used by NumberSafeMap, in preference order
+    private static final List<Function<BigDecimal, ? extends Number>> narrowingFunctions = Collections.unmodifiableList(
+        Arrays.asList(
+            BigDecimal::byteValueExact,
+            BigDecimal::shortValueExact,
+            BigDecimal::intValueExact,
+            BigDecimal::longValueExact,
+            BigDecimal::toBigIntegerExact,
+            (n) -> {
+                float f = n.floatValue();
+                if (f != Float.NEGATIVE_INFINITY && f != Float.POSITIVE_INFINITY && n.equals(BigDecimal.valueOf(f))) {
+                    return f;
+                } else {
+                    throw new ArithmeticException();
+                }
+            },
+            (n) -> n.doubleValue()
+            ));
+
+    static Number expected(String text) {
+        BigDecimal number = new BigDecimal(text);
+        for (Function<BigDecimal, ? extends Number> narrowingFunction : narrowingFunctions) {
+            try {
+                return narrowingFunction.apply(number);
+            } catch (ArithmeticException n) {
+                continue;
+            }
+        }
+        return number;
+    }
+
+    private static void assertNarrowedAsBefore(String text) {
+        Number expected = expected(text);
+        Number actual = NumberNarrowing.narrow(text);
+        assertEquals("The type should be the same for " + text, expected.getClass(), actual.getClass());
+        assertEquals("The value should be the same for " + text, expected, actual);
+    }
+
+    private static void assertAllNarrowedAsBefore(String... texts) {
+        for (String text : texts) {
+            assertNarrowedAsBefore(text);
+        }
+    }
+
+    @Test
+    public void testWholeNumberBounds() {
+        for (long bound : new long[] {Byte.MIN_VALUE, Byte.MAX_VALUE, Short.MIN_VALUE, Short.MAX_VALUE,
+                Integer.MIN_VALUE, Integer.MAX_VALUE, Long.MIN_VALUE, Long.MAX_VALUE}) {
+            assertAllNarrowedAsBefore(Long.toString(bound), Long.toString(bound - 1), Long.toString(bound + 1));
+        }
+        assertAllNarrowedAsBefore("9223372036854775808", "-9223372036854775809", "99999999999999999999",
+                "18446744073709551616", "-1000000000000000000000000000000");
+    }
+
+    @Test
+    public void testZeros() {
+        assertAllNarrowedAsBefore("0", "-0", "+0", "00", "0.0", "-0.0", "0.000", "0e10", "0E-10", "0.0e-400");
+    }
+
+    @Test
+    public void testWholeNumbersWithFractionOrExponent() {
+        assertAllNarrowedAsBefore("1.0", "-1.00", "127.0", "128.000", "1e2", "1E+2", "12e1", "1.5e1", "1.27e2",
+                "3.2767e4", "2.147483648e9", "9.223372036854775807e18", "9.223372036854775808e18",
+                "10000000000000000000e-1", "1e19", "1e18", "-1e18", "1e400", "1.0e300", "100e-2", "1000.000e-3");
+    }
+
+    @Test
+    public void testFractions() {
+        assertAllNarrowedAsBefore("0.5", "0.50", "-0.5", "5e-1", "50e-2", ".5", "5.", "0.125", "0.1", "0.2",
+                "1.5", "3.14159", "0.0009765625", "9.765625E-4", "1e-3", "1e-5", "1.5e-400", "-1.5e-400",
+                "12345678.5", "16777215.5", "1.401298464324817E-45", "-1.401298464324817E-45",
+                "1.1754943508222875E-38", "4.9E-324", "2.2250738585072014E-308", "3.141592653589793",
+                "0.30000000000000004", "123456789.123456789", "1.7976931348623157E308", "1.8e308");
+    }
+
+    @Test
+    public void testFloatingPointExtremes() {
+        assertAllNarrowedAsBefore(Float.toString(Float.MAX_VALUE), Double.toString(Double.MAX_VALUE),
+                Float.toString(Float.MIN_VALUE), Double.toString(Double.MIN_VALUE),
+                Float.toString(Float.MIN_NORMAL), Double.toString(Double.MIN_NORMAL),
+                BigDecimal.valueOf(Float.MIN_VALUE).toString(), BigDecimal.valueOf(Double.MIN_VALUE).toString());
+    }
+
+    @Test
+    public void testNonAsciiDigits() {
+        // Arabic-Indic digits are accepted by BigDecimal
+        assertAllNarrowedAsBefore("١٢٣", "١.٥");
+    }
+
+    @Test
+    public void testNotNumbers() {
+        for (String text : new String[] {"", "-", "+", ".", "e1", "1e", "1e+", "1.2.3", "1-", "NaN", "Infinity",
+                "-Infinity", "0x10", "1f", " 1", "1 ", "1e2147483648", "1e-2147483649"}) {
+            try {
+                expected(text);
+                fail("The text should not be a BigDecimal " + text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+            try {
+                NumberNarrowing.narrow(text);
+                fail("The text should not be narrowed " + text);
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testRandomWholeNumbers() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            long value = random.nextLong() >> random.nextInt(64);
+            assertNarrowedAsBefore(Long.toString(value));
+            assertNarrowedAsBefore(Long.toString(value) + ".0");
+        }
+    }
+
+    @Test
+    public void testRandomFloatingPoint() {
+        Random random = new Random(11);
+        for (int i = 0; i < 10000; i++) {
+            float f = Float.intBitsToFloat(random.nextInt());
+            double d = Double.longBitsToDouble(random.nextLong());
+            if (!Float.isNaN(f) && !Float.isInfinite(f)) {
+                assertNarrowedAsBefore(Float.toString(f));
+                assertNarrowedAsBefore(Double.toString(f));
+            }
+            if (!Double.isNaN(d) && !Double.isInfinite(d)) {
+                assertNarrowedAsBefore(Double.toString(d));
+            }
+            // values in a typical document range
+            assertNarrowedAsBefore(Double.toString(random.nextDouble() * 1000));
+            assertNarrowedAsBefore(Float.toString(random.nextInt(1 << 16) / 256.0f));
+        }
+    }
+
+    @Test
+    public void testRandomText() {
+        Random random = new Random(11);
+        for (int i = 0; i < 20000; i++) {
+            StringBuilder text = new StringBuilder();
+            if (random.nextInt(4) == 0) {
+                text.append(random.nextBoolean() ? '-' : '+');
+            }
+            int digits = 1 + random.nextInt(25);
+            int point = random.nextInt(digits + 2);
+            for (int d = 0; d < digits; d++) {
+                if (d == point) {
+                    text.append('.');
+                }
+                // mostly zeros to exercise leading and trailing zeros
+                text.append(random.nextInt(3) == 0 ? '0' : (char) ('0' + random.nextInt(10)));
+            }
+            if (random.nextInt(3) == 0) {
+                text.append(random.nextBoolean() ? 'e' : 'E');
+                int exponent = random.nextInt(80) - 40;
+                text.append(exponent >= 0 && random.nextBoolean() ? "+" : "").append(exponent);
+            }
+            assertNarrowedAsBefore(text.toString());
+        }
+    }
+
+    @Test
+    public void testBigIntegerType() {
+        assertEquals(new BigInteger("123456789012345678901234567890"),
+                NumberNarrowing.narrow("123456789012345678901234567890"));
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import com.google.gson.internal.LazilyParsedNumber;
+
+public class NumberSafeViewTest {
+
+    @Test
+    public void testSupportedNumbersUnchanged() {
+        for (Object number : new Object[] {(byte) 1, (short) 1, 1, 1L, 1.5f, 1.5d, BigInteger.ONE, BigDecimal.ONE}) {
+            assertSame(number, NumberSafeView.of(number));
+        }
+    }
+
+    @Test
+    public void testOtherNumbersNarrowed() {
+        assertEquals((byte) 17, NumberSafeView.of(new LazilyParsedNumber("17")));
+        assertEquals(0.1d, NumberSafeView.of(new LazilyParsedNumber("0.1")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testNestedViews() {
+        Map<String, Object> inner = new HashMap<>();
+        inner.put("n", new LazilyParsedNumber("255"));
+        List<Object> list = new ArrayList<>(Arrays.asList(new LazilyParsedNumber("1"), inner));
+        Map<String, Object> outer = new HashMap<>();
+        outer.put("list", list);
+
+        Map<String, Object> view = (Map<String, Object>) NumberSafeView.of(outer);
+        List<Object> listView = (List<Object>) view.get("list");
+        assertEquals((byte) 1, listView.get(0));
+        assertEquals((short) 255, ((Map<String, Object>) listView.get(1)).get("n"));
+        Map.Entry<String, Object> entry = view.entrySet().iterator().next();
+        assertEquals("list", entry.getKey());
+        assertEquals("Entry values should be views too.", (byte) 1, ((List<Object>) entry.getValue()).get(0));
+        assertSame("A view should not be wrapped again.", view, NumberSafeView.of(view));
+        // reads through to the underlying structure
+        list.set(0, new LazilyParsedNumber("40000"));
+        assertEquals(40000, listView.get(0));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void testReadOnlyList() {
+        ((List<Object>) NumberSafeView.of(new ArrayList<>())).add(1);
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2026 IBM Corp. All rights reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
+ * except in compliance with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the
+ * License is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND,
+ * either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package com.ibm.cloud.cloudant.kafka.utils;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import org.junit.Test;
+
+public class RawJsonScannerTest {
+
+    // returns at most a few bytes from each read, so values span many buffer fills
+    private static InputStream trickle(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 3));
+            }
+        };
+    }
+
+    @Test
+    public void testReadValues() throws IOException {
+        for (RawJsonScanner scanner : new RawJsonScanner[] {
+                new RawJsonScanner(trickle("[\"a\\\"\\\\\\/\\n\\u00e9€\", 12.5e3, true, null]")),
+                new RawJsonScanner("[\"a\\\"\\\\\\/\\n\\u00e9€\", 12.5e3, true, null]".getBytes(StandardCharsets.UTF_8))}) {
+            assertTrue(scanner.begin('[', ']'));
+            assertEquals("a\"\\/\né€", scanner.readString());
+            assertTrue(scanner.hasNext(']'));
+            assertEquals("12.5e3", scanner.readScalar());
+            assertTrue(scanner.hasNext(']'));
+            assertEquals("true", scanner.readScalar());
+            assertTrue(scanner.hasNext(']'));
+            assertNull(scanner.readScalar());
+            assertFalse(scanner.hasNext(']'));
+            assertEquals(-1, scanner.peek());
+        }
+    }
+
+    @Test
+    public void testRecordSkippedValue() throws IOException {
+        String value = "{\"a\":[1,{\"b\":\"]}\\\"\"}],\"c\":{}}";
+        RawJsonScanner scanner = new RawJsonScanner(trickle("[ " + value + " , {}]"));
+        assertTrue(scanner.begin('[', ']'));
+        scanner.startRecording();
+        scanner.skipValue();
+        assertEquals(value, new String(scanner.stopRecording(), StandardCharsets.UTF_8));
+        assertTrue(scanner.hasNext(']'));
+        assertFalse("An empty object should be consumed.", scanner.begin('{', '}'));
+        assertFalse(scanner.hasNext(']'));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnterminatedValue() throws IOException {
+        new RawJsonScanner(trickle("{\"a\":[1,2}")).skipValue();
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnexpectedByte() throws IOException {
+        new RawJsonScanner(trickle("[1;2]")).begin('{', '}');
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -52,7 +52,7 @@ public class ServiceCallUtils {
 
             @Override
             public void cancel() {
-                throw new UnsupportedOperationException("Unsupported in mock");
+                // nothing to cancel, the result is already available
             }
         };
     }
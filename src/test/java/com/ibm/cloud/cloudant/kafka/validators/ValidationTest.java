@@ -1,5 +1,5 @@
 /*
- * Copyright © 2022 IBM Corp. All rights reserved.
+ * Copyright © 2022, 2026 IBM Corp. All rights reserved.
  *
  * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file
  * except in compliance with the License. You may obtain a copy of the License at
@@ -15,6 +15,7 @@
 package com.ibm.cloud.cloudant.kafka.validators;
 
 import com.ibm.cloud.cloudant.kafka.tasks.SinkConnectorConfig;
+import com.ibm.cloud.cloudant.kafka.tasks.SourceChangesConnectorConfig;
 import org.apache.kafka.common.config.Config;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.common.config.ConfigValue;
@@ -24,13 +25,22 @@ import java.util.HashMap;
 
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.APIKEY;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.AUTH_TYPE;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.BATCH_SIZE_MAX;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.BATCH_SIZE_MIN;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.BEARER_TOKEN;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.DB;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.DBS;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.DB_REGEX;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.DOC_FETCH;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.FEED;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.FILTER;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.IAM_PROFILE_ID;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.PASSWORD;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.SELECTOR;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.TOPIC;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.URL;
 import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.USERNAME;
+import static com.ibm.cloud.cloudant.kafka.utils.InterfaceConst.VALUE_FORMAT;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -330,6 +340,252 @@ public class ValidationTest {
                 "At least one of 'cloudant.iam.profile.id' or 'cloudant.iam.profile.crn' must be set when using 'cloudant.auth.type' of 'vpc'");
     }
 
+    @Test
+    public void validatesSinkNoDatabase() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(TOPIC, "foo");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, DB, "'cloudant.db' must be set");
+    }
+
+    @Test
+    public void validatesSourceDatabaseList() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DBS, "animaldb,plantdb");
+        map.put(TOPIC, "foo");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertNoErrorMessages(c);
+    }
+
+    @Test
+    public void validatesSourceDatabaseAndRegex() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(DB_REGEX, "animal.*");
+        map.put(TOPIC, "foo");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, DB,
+                "Exactly one of cloudant.db, cloudant.dbs, cloudant.db.regex must be set");
+    }
+
+    @Test
+    public void validatesSourceNoDatabase() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(TOPIC, "foo");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, DB,
+                "Exactly one of cloudant.db, cloudant.dbs, cloudant.db.regex must be set");
+    }
+
+    @Test
+    public void validatesSourceInvalidRegex() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB_REGEX, "animal(");
+        map.put(TOPIC, "foo");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, DB_REGEX, "Value not a regular expression: animal(");
+    }
+
+    @Test
+    public void validatesSourceBatchSizeBounds() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(BATCH_SIZE_MIN, "500");
+        map.put(BATCH_SIZE_MAX, "100");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, BATCH_SIZE_MIN,
+                "'cloudant.batch.size.min' must not be greater than 'cloudant.batch.size.max'");
+    }
+
+    @Test
+    public void validatesSelectorFilter() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(FILTER, "_selector");
+        map.put(SELECTOR, "{\"class\": \"mammal\"}");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertNoErrorMessages(c);
+    }
+
+    @Test
+    public void validatesSelectorFilterNoSelector() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(FILTER, "_selector");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, FILTER,
+                "'cloudant.selector' must be set when using 'cloudant.filter' of '_selector'");
+    }
+
+    @Test
+    public void validatesSelectorFilterInvalidSelector() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(FILTER, "_selector");
+        map.put(SELECTOR, "[\"mammal\"]");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, SELECTOR, "Value not a JSON object: [\"mammal\"]");
+    }
+
+    @Test
+    public void validatesDocIdsFilterNoDocIds() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(FILTER, "_doc_ids");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, FILTER,
+                "'cloudant.doc.ids' must be set when using 'cloudant.filter' of '_doc_ids'");
+    }
+
+    @Test
+    public void validatesRawValueFormat() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(VALUE_FORMAT, "raw");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertNoErrorMessages(c);
+    }
+
+    @Test
+    public void validatesRawValueFormatBulkGet() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(VALUE_FORMAT, "raw");
+        map.put(DOC_FETCH, "bulk_get");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, VALUE_FORMAT,
+                "'cloudant.value.format' of 'raw' is not supported with 'cloudant.doc.fetch' of 'bulk_get'");
+    }
+
+    @Test
+    public void validatesContinuousFeed() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB, "animaldb");
+        map.put(TOPIC, "foo");
+        map.put(FEED, "continuous");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertNoErrorMessages(c);
+    }
+
+    @Test
+    public void validatesContinuousFeedDatabaseList() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DBS, "animaldb,plantdb");
+        map.put(TOPIC, "foo");
+        map.put(FEED, "continuous");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, FEED,
+                "'cloudant.feed' of 'continuous' is not supported when 'cloudant.dbs' is set");
+    }
+
+    @Test
+    public void validatesContinuousFeedDatabaseRegex() {
+        HashMap<String, String> map = new HashMap<String, String>();
+        map.put(AUTH_TYPE, "noauth");
+        map.put(URL, "https://somewhere");
+        map.put(DB_REGEX, "animal.*");
+        map.put(TOPIC, "foo");
+        map.put(FEED, "continuous");
+        ConfigValidator validator = new ConfigValidator(
+                map,
+                SourceChangesConnectorConfig.CONFIG_DEF);
+
+        Config c = validator.validate();
+        assertHasErrorMessage(c, FEED,
+                "'cloudant.feed' of 'continuous' is not supported when 'cloudant.db.regex' is set");
+    }
+
     private static void assertHasErrorMessage(Config config, String property, String msg) {
         for (ConfigValue configValue : config.configValues()) {
             if (configValue.name().equals(property)) {